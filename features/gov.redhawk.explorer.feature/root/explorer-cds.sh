@@ -0,0 +1,90 @@
+#!/bin/sh
+###############################################################################
+# This file is protected by Copyright. 
+# Please refer to the COPYRIGHT file distributed with this source distribution.
+#
+# This file is part of REDHAWK IDE.
+#
+# All rights reserved.  This program and the accompanying materials are made available under 
+# the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at 
+# http://www.eclipse.org/legal/epl-v10.html
+###############################################################################
+#
+# Generates the class data sharing (CDS) archive Explorer maps at start-up,
+# configuration/cds/explorer.jsa, by starting Explorer once and recording the
+# classes it loads until the workbench is usable.
+#
+# Usage: explorer-cds.sh [--force] [--java <path to java>]
+#
+#   --force   regenerate the archive even if one exists, e.g. after updating
+#             Explorer or the JVM
+#   --java    the java executable Explorer runs on; defaults to $JAVA_HOME/bin/java,
+#             then java on the PATH
+#
+# Dynamic archives need Java 13 or later. On older JVMs the script does
+# nothing and Explorer starts without an archive. Explorer only reads the
+# archive; the JVM doesn't refresh it at exit, so the install directory need
+# not be writable by the users who run Explorer.
+
+cd "$(dirname "$0")" || exit 1
+
+ARCHIVE=configuration/cds/explorer.jsa
+FORCE=0
+JAVA=
+
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --force) FORCE=1 ;;
+        --java) shift; JAVA="$1" ;;
+        *) echo "Usage: $0 [--force] [--java <path to java>]" >&2; exit 2 ;;
+    esac
+    shift
+done
+
+if [ -z "$JAVA" ]; then
+    if [ -n "$JAVA_HOME" ] && [ -x "$JAVA_HOME/bin/java" ]; then
+        JAVA="$JAVA_HOME/bin/java"
+    else
+        JAVA=java
+    fi
+fi
+
+# "1.8.0_181" -> 8, "17.0.2" -> 17
+VERSION=$("$JAVA" -version 2>&1 | sed -n 's/.* version "\([^"]*\)".*/\1/p' | head -n 1)
+MAJOR=$(echo "$VERSION" | sed -e 's/^1\.//' -e 's/[^0-9].*$//')
+if [ -z "$MAJOR" ]; then
+    echo "Unable to determine the version of $JAVA" >&2
+    exit 1
+fi
+if [ "$MAJOR" -lt 13 ]; then
+    echo "Java $VERSION can't create dynamic class data sharing archives (Java 13 or later is required); Explorer will start without one."
+    exit 0
+fi
+
+if [ -f "$ARCHIVE" ] && [ "$FORCE" -eq 0 ]; then
+    echo "$ARCHIVE already exists; use --force to regenerate it."
+    exit 0
+fi
+
+# A dynamic archive is layered on the JDK's own archive, so the training run
+# names that as its base instead of the archive named in explorer.ini.
+JAVA_HOME_DIR=$("$JAVA" -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java\.home = //p')
+BASE_ARCHIVE="$JAVA_HOME_DIR/lib/server/classes.jsa"
+if [ ! -f "$BASE_ARCHIVE" ]; then
+    echo "$JAVA has no default class data sharing archive ($BASE_ARCHIVE); create one with '$JAVA -Xshare:dump'." >&2
+    exit 1
+fi
+
+mkdir -p "$(dirname "$ARCHIVE")"
+rm -f "$ARCHIVE" "$ARCHIVE.tmp"
+
+echo "Starting Explorer to record its start-up classes..."
+./explorer -vm "$JAVA" -exitAfterStartup --launcher.appendVmargs -vmargs \
+    -XX:SharedArchiveFile="$BASE_ARCHIVE" -XX:ArchiveClassesAtExit="$ARCHIVE.tmp" || exit 1
+
+if [ ! -f "$ARCHIVE.tmp" ]; then
+    echo "The JVM didn't write an archive; Explorer will start without one." >&2
+    exit 1
+fi
+mv "$ARCHIVE.tmp" "$ARCHIVE"
+echo "Wrote $ARCHIVE"
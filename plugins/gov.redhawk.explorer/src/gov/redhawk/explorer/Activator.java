@@ -10,6 +10,13 @@
  *******************************************************************************/
 package gov.redhawk.explorer;
 
+import gov.redhawk.explorer.internal.FlightRecorder;
+import gov.redhawk.explorer.internal.MemoryGovernor;
+import gov.redhawk.explorer.internal.ProfileInfoCache;
+import gov.redhawk.explorer.internal.RemoteMetrics;
+import gov.redhawk.explorer.internal.StartupCatalogCache;
+import gov.redhawk.explorer.internal.StartupTimeline;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -37,6 +44,16 @@ public class Activator extends AbstractUIPlugin {
 
 	private boolean showStartupWizard;
 
+	private String launchDomain;
+
+	private String launchWaveform;
+
+	private boolean exitAfterStartup;
+
+	private StartupCatalogCache catalogCache;
+
+	private final ProfileInfoCache profileInfoCache = new ProfileInfoCache();
+
 	/**
 	 * The constructor
 	 */
@@ -51,11 +68,21 @@ public class Activator extends AbstractUIPlugin {
 	 */
 	@Override
 	public void start(final BundleContext context) throws Exception {
+		final long startTime = System.nanoTime();
 		super.start(context);
 		Activator.plugin = this;
+		StartupTimeline.watchBundles(context);
 		final List<String> cmds = Arrays.asList(System.getProperty("eclipse.commands").split("\n"));
 		this.showStartupWizard  = cmds.contains("-showStartupWizard");
+		this.launchDomain = getArgument(cmds, "-domain");
+		this.launchWaveform = getArgument(cmds, "-launchWaveform");
+		this.exitAfterStartup = cmds.contains("-exitAfterStartup");
+		final long loggerStartTime = System.nanoTime();
 		configureJavaLogger(context);
+		StartupTimeline.span("Activator.configureJavaLogger", loggerStartTime);
+		RemoteMetrics.register();
+		MemoryGovernor.install();
+		StartupTimeline.span("Activator.start", startTime);
 	}
 
 	/*
@@ -66,6 +93,9 @@ public class Activator extends AbstractUIPlugin {
 	 */
 	@Override
 	public void stop(final BundleContext context) throws Exception {
+		MemoryGovernor.uninstall();
+		RemoteMetrics.unregister();
+		FlightRecorder.uninstall();
 		Activator.plugin = null;
 		super.stop(context);
 	}
@@ -79,10 +109,19 @@ public class Activator extends AbstractUIPlugin {
 		return Activator.plugin;
 	}
 
+	private static String getArgument(final List<String> cmds, final String flag) {
+		final int index = cmds.indexOf(flag);
+		if (index < 0 || index + 1 >= cmds.size()) {
+			return null;
+		}
+		return cmds.get(index + 1);
+	}
+
 	/**
 	 * This method ensures that if the Java logging properties weren't properly installed by the IDE's feature
 	 * into the configuration directory that we'll load a backup. This is primarily important for debugging the IDE
-	 * within Eclipse where this is the situation.
+	 * within Eclipse where this is the situation. The {@link FlightRecorder} is then installed over whichever
+	 * configuration was read.
 	 * 
 	 * @param context
 	 */
@@ -119,6 +158,7 @@ public class Activator extends AbstractUIPlugin {
                 }
 			}
 		}
+		FlightRecorder.install();
     }
 
 	/**
@@ -135,4 +175,48 @@ public class Activator extends AbstractUIPlugin {
 	public boolean isShowStartupWizard() {
     	return showStartupWizard;
     }
+
+	/**
+	 * @return the domain named by the <code>-domain</code> command line argument, or null
+	 */
+	public String getLaunchDomain() {
+		return this.launchDomain;
+	}
+
+	/**
+	 * @return the waveform named by the <code>-launchWaveform &lt;type&gt;/&lt;name&gt;</code> command line
+	 * argument, or null
+	 */
+	public String getLaunchWaveform() {
+		return this.launchWaveform;
+	}
+
+	/**
+	 * @return true if the <code>-exitAfterStartup</code> command line argument was given, which closes the workbench
+	 * as soon as it is usable; used for class data sharing training runs and start-up benchmarks
+	 */
+	public boolean isExitAfterStartup() {
+		return this.exitAfterStartup;
+	}
+
+	/**
+	 * Returns the cache of startup catalogs read from the domains, stored in this plug-in's state location.
+	 *
+	 * @return the catalog cache
+	 */
+	public synchronized StartupCatalogCache getCatalogCache() {
+		if (this.catalogCache == null) {
+			this.catalogCache = new StartupCatalogCache(getStateLocation().append("catalogs").toFile());
+		}
+		return this.catalogCache;
+	}
+
+	/**
+	 * Returns what is known about the waveform profiles listed in the domains' catalogs.
+	 *
+	 * @return the profile information cache
+	 */
+	public ProfileInfoCache getProfileInfoCache() {
+		return this.profileInfoCache;
+	}
 }
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package gov.redhawk.explorer;
 
+import gov.redhawk.explorer.internal.StartupTimeline;
+
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.swt.widgets.Display;
@@ -28,6 +30,7 @@ public class Application implements IApplication {
 	 */
 	@Override
 	public Object start(final IApplicationContext context) throws Exception {
+		StartupTimeline.mark("Application.start");
 		final Display display = PlatformUI.createDisplay();
 		try {
 			final int returnCode = PlatformUI.createAndRunWorkbench(display, new ApplicationWorkbenchAdvisor());
@@ -10,8 +10,12 @@
  *******************************************************************************/
 package gov.redhawk.explorer;
 
+import gov.redhawk.explorer.internal.LazyEditorRestore;
 import gov.redhawk.explorer.internal.ResourceFactory;
+import gov.redhawk.explorer.internal.StartupTimeline;
+import gov.redhawk.explorer.wizard.QuickLaunchJob;
 import gov.redhawk.explorer.wizard.StartupWizard;
+import gov.redhawk.explorer.wizard.WarmStart;
 import gov.redhawk.sca.ui.ScaUiPlugin;
 
 import org.eclipse.core.resources.IResource;
@@ -25,6 +29,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.window.Window;
 import org.eclipse.jface.wizard.WizardDialog;
 import org.eclipse.ui.IElementFactory;
@@ -109,6 +114,7 @@ public class ApplicationWorkbenchAdvisor extends WorkbenchAdvisor {
 
 	@Override
 	public void initialize(final IWorkbenchConfigurer configurer) {
+		final long startTime = System.nanoTime();
 		super.initialize(configurer);
 
 		configurer.setSaveAndRestore(true);
@@ -119,13 +125,46 @@ public class ApplicationWorkbenchAdvisor extends WorkbenchAdvisor {
 		// not work after the first load to the workspace
 		final IAdapterManager manager = Platform.getAdapterManager();
 		manager.registerAdapters(new WorkbenchAdapterFactory(), IWorkspaceRoot.class);
+		StartupTimeline.span("ApplicationWorkbenchAdvisor.initialize", startTime);
+	}
+
+	@Override
+	public void preStartup() {
+		super.preStartup();
+
+		// Get the command line launch going while the workbench window is still being created
+		if (isQuickLaunch()) {
+			final Activator activator = Activator.getDefault();
+			new QuickLaunchJob(activator.getLaunchDomain(), activator.getLaunchWaveform()).schedule();
+		} else if (isStartupWizard()) {
+			// Connect to the domain chosen last time while the window is created, so the wizard finds it ready
+			WarmStart.start();
+		}
+	}
+
+	private boolean isStartupWizard() {
+		return Activator.getDefault().isShowStartupWizard() && !isQuickLaunch() && !Activator.getDefault().isExitAfterStartup();
+	}
+
+	private boolean isQuickLaunch() {
+		return Activator.getDefault().getLaunchDomain() != null && Activator.getDefault().getLaunchWaveform() != null
+			&& !Activator.getDefault().isExitAfterStartup();
+	}
+
+	@Override
+	public boolean preShutdown() {
+		// Save placeholders instead of the editors, so that the next session doesn't wait on their domains
+		LazyEditorRestore.replaceEditors(getWorkbenchConfigurer().getWorkbench());
+		return super.preShutdown();
 	}
 
 	@Override
 	public void postStartup() {
+		final long startTime = System.nanoTime();
 	    super.postStartup();
 
-		if (Activator.getDefault().isShowStartupWizard()) {
+		// A waveform launched from the command line replaces the wizard
+		if (isStartupWizard()) {
 			final WorkbenchJob job = new WorkbenchJob("Startup Wizard launcher") {
 				@Override
 				public IStatus runInUIThread(final IProgressMonitor monitor) {
@@ -146,5 +185,25 @@ public class ApplicationWorkbenchAdvisor extends WorkbenchAdvisor {
 			job.setSystem(true);
 			job.schedule();
 		}
+		StartupTimeline.span("ApplicationWorkbenchAdvisor.postStartup", startTime);
+
+		// The workbench is usable once the event loop gets to this, after the window has been painted
+		PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				final Job writeJob = StartupTimeline.finish("Workbench usable");
+				if (Activator.getDefault().isExitAfterStartup()) {
+					// Training and benchmark runs end here, once the timeline is on disk
+					if (writeJob != null) {
+						try {
+							writeJob.join();
+						} catch (final InterruptedException e) {
+							// PASS
+						}
+					}
+					PlatformUI.getWorkbench().close();
+				}
+			}
+		});
 	}
 }
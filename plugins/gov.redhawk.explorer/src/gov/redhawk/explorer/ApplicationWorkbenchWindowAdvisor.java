@@ -10,6 +10,7 @@
  *******************************************************************************/
 package gov.redhawk.explorer;
 
+import gov.redhawk.explorer.internal.StartupTimeline;
 import gov.redhawk.sca.ui.ScaUiPlugin;
 
 import org.eclipse.jface.action.IContributionItem;
@@ -36,16 +37,19 @@ public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
 
 	@Override
 	public void preWindowOpen() {
+		final long startTime = System.nanoTime();
 		final IWorkbenchWindowConfigurer configurer = getWindowConfigurer();
 		configurer.setInitialSize(new Point(1024, 768)); // SUPPRESS CHECKSTYLE MagicNumber
 		configurer.setShowCoolBar(false);
 		configurer.setShowStatusLine(true);
 		configurer.setShowProgressIndicator(true);
 		configurer.setTitle("REDHAWK Explorer");
+		StartupTimeline.span("ApplicationWorkbenchWindowAdvisor.preWindowOpen", startTime);
 	}
 
 	@Override
 	public void postWindowOpen() {
+		final long startTime = System.nanoTime();
 		super.postWindowOpen();
 		final IMenuManager menuManager = getWindowConfigurer().getActionBarConfigurer().getMenuManager();
 		final IContributionItem[] menuItems = menuManager.getItems();
@@ -70,5 +74,6 @@ public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
 		} else {
 			page.setPerspective(scaExplorerPerspective);
 		}
+		StartupTimeline.span("ApplicationWorkbenchWindowAdvisor.postWindowOpen", startTime);
 	}
 }
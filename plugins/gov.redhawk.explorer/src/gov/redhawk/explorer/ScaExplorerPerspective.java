@@ -10,6 +10,7 @@
  *******************************************************************************/
 package gov.redhawk.explorer;
 
+import gov.redhawk.explorer.internal.StartupTimeline;
 import gov.redhawk.sca.ui.views.ScaExplorer;
 import gov.redhawk.ui.views.namebrowser.view.NameBrowserView;
 
@@ -48,6 +49,7 @@ public class ScaExplorerPerspective implements IPerspectiveFactory {
 
 	@Override
 	public void createInitialLayout(final IPageLayout layout) {
+		final long startTime = System.nanoTime();
 		// Editors are placed for free.
 		final String editorArea = layout.getEditorArea();
 
@@ -80,5 +82,6 @@ public class ScaExplorerPerspective implements IPerspectiveFactory {
 		layout.addPlaceholder(CONN_MGR_VIEW_ID + ":*", IPageLayout.BOTTOM, 0.50f, editorArea);
 		layout.addPlaceholder(EVENT_VIEW_ID, IPageLayout.BOTTOM, 0.50f, editorArea);
 		layout.addPlaceholder(EVENT_VIEW_ID + ":*", IPageLayout.BOTTOM, 0.50f, editorArea);
+		StartupTimeline.span("ScaExplorerPerspective.createInitialLayout", startTime);
 	}
 }
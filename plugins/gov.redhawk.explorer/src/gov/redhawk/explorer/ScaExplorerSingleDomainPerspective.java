@@ -10,6 +10,7 @@
  *******************************************************************************/
 package gov.redhawk.explorer;
 
+import gov.redhawk.explorer.internal.StartupTimeline;
 import gov.redhawk.sca.ui.singledomain.views.ScaExplorerSingleDomain;
 import gov.redhawk.ui.views.namebrowser.view.NameBrowserView;
 
@@ -39,6 +40,7 @@ public class ScaExplorerSingleDomainPerspective implements IPerspectiveFactory {
 
 	@Override
 	public void createInitialLayout(final IPageLayout layout) {
+		final long startTime = System.nanoTime();
 		
 		// Editors are placed for free.
 		final String editorArea = layout.getEditorArea();
@@ -66,5 +68,6 @@ public class ScaExplorerSingleDomainPerspective implements IPerspectiveFactory {
 		layout.getViewLayout(ScaExplorerSingleDomainPerspective.NAMEBROWSER_VIEW_ID).setMoveable(false);
 		layout.getViewLayout(IPageLayout.ID_PROP_SHEET).setMoveable(false);
 		layout.getViewLayout(ScaExplorerSingleDomainPerspective.PDE_ERROR_LOG_VIEW_ID).setMoveable(false);
+		StartupTimeline.span("ScaExplorerSingleDomainPerspective.createInitialLayout", startTime);
 	}
 }
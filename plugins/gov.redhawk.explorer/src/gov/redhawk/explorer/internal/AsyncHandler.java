@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Hands log records to other handlers on a background thread, so that threads which log never wait for a console
+ * or file. Records are queued without blocking; if the queue is full the record is dropped and counted.
+ * <p/>
+ * Loggers whose level was lowered only to feed the flight recorder are gated: their records are passed on only if
+ * they would have been logged at the logger's original level.
+ */
+final class AsyncHandler extends Handler {
+
+	// How long the writer waits for a record before flushing, in milliseconds
+	private static final long FLUSH_INTERVAL = 500;
+
+	private final Handler[] delegates;
+	private final String[] gatedNames;
+	private final String[] gatedPrefixes;
+	private final int[] gatedLevels;
+	private final BlockingQueue<LogRecord> queue;
+	private final AtomicLong dropped = new AtomicLong();
+	private final Thread writer;
+	private volatile boolean closed;
+
+	/**
+	 * @param delegates the handlers to pass records on to
+	 * @param gates the names of gated loggers, and the level each was at before it was lowered
+	 * @param capacity the most records to hold before dropping them
+	 */
+	AsyncHandler(final Handler[] delegates, final Map<String, Level> gates, final int capacity) {
+		this.delegates = delegates;
+		this.gatedNames = new String[gates.size()];
+		this.gatedPrefixes = new String[gates.size()];
+		this.gatedLevels = new int[gates.size()];
+		int i = 0;
+		for (final Map.Entry<String, Level> gate : gates.entrySet()) {
+			this.gatedNames[i] = gate.getKey();
+			this.gatedPrefixes[i] = gate.getKey() + ".";
+			this.gatedLevels[i] = gate.getValue().intValue();
+			i++;
+		}
+		this.queue = new ArrayBlockingQueue<LogRecord>(capacity);
+		this.writer = new Thread("Explorer log writer") {
+			@Override
+			public void run() {
+				drain();
+			}
+		};
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	Handler[] getDelegates() {
+		return this.delegates;
+	}
+
+	/**
+	 * @return the number of records dropped because the queue was full
+	 */
+	long getDropped() {
+		return this.dropped.get();
+	}
+
+	@Override
+	public boolean isLoggable(final LogRecord record) {
+		if (record == null || this.closed) {
+			return false;
+		}
+		final String name = record.getLoggerName();
+		if (name != null) {
+			for (int i = 0; i < this.gatedNames.length; i++) {
+				if (name.equals(this.gatedNames[i]) || name.startsWith(this.gatedPrefixes[i])) {
+					return record.getLevel().intValue() >= this.gatedLevels[i];
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void publish(final LogRecord record) {
+		if (!isLoggable(record)) {
+			return;
+		}
+		// The caller is found from the stack, so it must be found on the thread which logged
+		record.getSourceClassName();
+		if (!this.queue.offer(record)) {
+			this.dropped.incrementAndGet();
+		}
+	}
+
+	private void drain() {
+		try {
+			while (!this.closed) {
+				final LogRecord record = this.queue.poll(AsyncHandler.FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+				if (record != null) {
+					deliver(record);
+				}
+				if (this.queue.isEmpty()) {
+					flushDelegates();
+				}
+			}
+		} catch (final InterruptedException e) {
+			// PASS - Closed; close() delivers what is left
+		}
+	}
+
+	private void deliver(final LogRecord record) {
+		for (final Handler delegate : this.delegates) {
+			if (delegate.isLoggable(record)) {
+				delegate.publish(record);
+			}
+		}
+	}
+
+	private void flushDelegates() {
+		for (final Handler delegate : this.delegates) {
+			delegate.flush();
+		}
+	}
+
+	@Override
+	public void flush() {
+		// PASS - The writer flushes whenever it catches up
+	}
+
+	/**
+	 * Stops the writer and delivers the records still queued. The delegates are left open.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.writer.interrupt();
+		try {
+			this.writer.join(AsyncHandler.FLUSH_INTERVAL);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		LogRecord record = this.queue.poll();
+		while (record != null) {
+			deliver(record);
+			record = this.queue.poll();
+		}
+		flushDelegates();
+	}
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.omg.CORBA.SystemException;
+
+import CF.File;
+import CF.FileException;
+import CF.OctetSequenceHolder;
+
+/**
+ * An {@link InputStream} over a CF.File. The file is read in bounded chunks by a background job which keeps a
+ * number of chunks read ahead of the consumer, so remote round trips overlap with whatever is consuming the
+ * stream. The CF.File is closed as soon as the end of the file is reached, or once the stream has been closed,
+ * whichever comes first.
+ * <p/>
+ * Reads check the given progress monitor and fail with an {@link InterruptedIOException} once it is canceled.
+ */
+public class CFFileInputStream extends InputStream {
+
+	/** The default number of bytes requested from the file per read. */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024; // SUPPRESS CHECKSTYLE MagicNumber
+
+	/** The default number of chunks read ahead of the consumer. */
+	public static final int DEFAULT_READ_AHEAD = 4;
+
+	// How often a blocked reader or consumer checks for cancellation, in milliseconds
+	private static final long POLL_INTERVAL = 50;
+
+	private final String domainName;
+	private final File file;
+	private final IProgressMonitor monitor;
+	private final int chunkSize;
+	private final BlockingQueue<byte[]> chunks;
+	private final Job readJob;
+
+	private volatile boolean closed;
+	private volatile boolean finished;
+	private volatile IOException error;
+	private boolean released;
+
+	private byte[] current;
+	private int position;
+	private boolean endOfFile;
+
+	/**
+	 * @param domainName the domain the file belongs to, for {@link RemoteMetrics}; may be null
+	 * @param file the file to read; ownership passes to the stream, which closes it
+	 * @param monitor the monitor to check for cancellation, may be null
+	 */
+	public CFFileInputStream(final String domainName, final File file, final IProgressMonitor monitor) {
+		this(domainName, file, monitor, CFFileInputStream.DEFAULT_CHUNK_SIZE, CFFileInputStream.DEFAULT_READ_AHEAD);
+	}
+
+	/**
+	 * @param domainName the domain the file belongs to, for {@link RemoteMetrics}; may be null
+	 * @param file the file to read; ownership passes to the stream, which closes it
+	 * @param monitor the monitor to check for cancellation, may be null
+	 * @param chunkSize the number of bytes to request per read
+	 * @param readAhead the maximum number of chunks to read ahead of the consumer
+	 */
+	public CFFileInputStream(final String domainName, final File file, final IProgressMonitor monitor, final int chunkSize, final int readAhead) {
+		if (chunkSize <= 0 || readAhead <= 0) {
+			throw new IllegalArgumentException("Chunk size and read ahead must be positive");
+		}
+		this.domainName = domainName;
+		this.file = file;
+		this.monitor = (monitor == null) ? new NullProgressMonitor() : monitor;
+		this.chunkSize = chunkSize;
+		this.chunks = new ArrayBlockingQueue<byte[]>(readAhead);
+		this.readJob = new Job("Reading file") {
+			@Override
+			protected IStatus run(final IProgressMonitor jobMonitor) {
+				readChunks();
+				return Status.OK_STATUS;
+			}
+		};
+		this.readJob.setSystem(true);
+		this.readJob.schedule();
+	}
+
+	private void readChunks() {
+		long start = 0;
+		try {
+			while (!this.closed) {
+				final OctetSequenceHolder holder = new OctetSequenceHolder();
+				start = System.nanoTime();
+				this.file.read(holder, this.chunkSize);
+				RemoteMetrics.record(this.domainName, RemoteMetrics.Operation.FILE_READ, start, false);
+				if (holder.value != null) {
+					RemoteMetrics.recordBytes(this.domainName, RemoteMetrics.Operation.FILE_READ, holder.value.length);
+				}
+				if (holder.value == null || holder.value.length == 0 || !enqueue(holder.value)) {
+					break;
+				}
+			}
+		} catch (final CF.FilePackage.IOException e) {
+			RemoteMetrics.record(this.domainName, RemoteMetrics.Operation.FILE_READ, start, true);
+			this.error = new IOException("Unable to read file: " + e.msg, e);
+		} catch (final SystemException e) {
+			RemoteMetrics.record(this.domainName, RemoteMetrics.Operation.FILE_READ, start, true);
+			this.error = new IOException("Unable to read file", e);
+		} finally {
+			release();
+			this.finished = true;
+		}
+	}
+
+	private boolean enqueue(final byte[] data) {
+		try {
+			while (!this.closed) {
+				if (this.chunks.offer(data, CFFileInputStream.POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	private synchronized void release() {
+		if (!this.released) {
+			this.released = true;
+			try {
+				this.file.close();
+			} catch (final FileException e) {
+				// PASS - There's nothing more to do with the file
+			} catch (final SystemException e) {
+				// PASS - The domain is unreachable; the file will be cleaned up with the session
+			}
+		}
+	}
+
+	/**
+	 * Makes sure there is data available in the current chunk.
+	 *
+	 * @return false if the end of the file has been reached
+	 */
+	private boolean fill() throws IOException {
+		if (this.closed) {
+			throw new IOException("Stream closed");
+		}
+		while (!this.endOfFile && (this.current == null || this.position >= this.current.length)) {
+			if (this.monitor.isCanceled()) {
+				throw new InterruptedIOException("Read canceled");
+			}
+			final byte[] next;
+			try {
+				next = this.chunks.poll(CFFileInputStream.POLL_INTERVAL, TimeUnit.MILLISECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Read interrupted");
+			}
+			if (next != null) {
+				this.current = next;
+				this.position = 0;
+			} else if (this.finished && this.chunks.isEmpty()) {
+				// Everything the reader queued happened before it finished
+				this.endOfFile = true;
+			}
+		}
+		if (this.endOfFile && this.error != null) {
+			throw this.error;
+		}
+		return !this.endOfFile;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return -1;
+		}
+		return this.current[this.position++] & 0xFF; // SUPPRESS CHECKSTYLE MagicNumber
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		final int count = Math.min(len, this.current.length - this.position);
+		System.arraycopy(this.current, this.position, b, off, count);
+		this.position += count;
+		return count;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (this.closed || this.current == null) {
+			return 0;
+		}
+		return this.current.length - this.position;
+	}
+
+	/**
+	 * Stops reading without waiting for a read in progress. The background job closes the underlying CF.File once
+	 * that read returns; if the job hadn't started, the file is closed here.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		this.current = null;
+		this.chunks.clear();
+		if (this.readJob.cancel()) {
+			// The job isn't running, and won't run now; if it already ran, the file is released already
+			release();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.model.sca.ScaDomainManager;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.omg.CORBA.Any;
+import org.omg.CORBA.ORB;
+import org.omg.CORBA.Policy;
+import org.omg.CORBA.PolicyError;
+import org.omg.CORBA.SetOverrideType;
+import org.omg.CORBA.SystemException;
+import org.omg.CORBA.portable.ObjectImpl;
+
+import CF.FileManager;
+import CF.FileManagerHelper;
+
+/**
+ * Applies CORBA Messaging relative round-trip timeouts to object references. A call on a reference returned from
+ * here fails with {@link org.omg.CORBA.TIMEOUT} if the reply doesn't arrive in time, rather than waiting for the
+ * ORB's default timeout. References returned by such calls don't inherit the timeout;
+ * {@link #inheritTimeout(org.omg.CORBA.Object, Object)} passes it on.
+ */
+public final class CorbaTimeouts {
+
+	// Messaging::RELATIVE_RT_TIMEOUT_POLICY_TYPE, spelled out so the bundle doesn't need the Messaging stubs
+	private static final int RELATIVE_RT_TIMEOUT_POLICY_TYPE = 32;
+
+	// TimeBase::TimeT counts in units of 100 ns
+	private static final long TIME_T_PER_MILLI = 10000;
+
+	private static volatile boolean unsupportedLogged;
+
+	private CorbaTimeouts() {
+	}
+
+	/**
+	 * @param obj the reference, may be null
+	 * @param timeout the time each call may take, in milliseconds
+	 * @return a reference to the same object whose calls time out, which the caller narrows; the reference itself if
+	 * the ORB doesn't support timeouts
+	 */
+	public static org.omg.CORBA.Object withTimeout(final org.omg.CORBA.Object obj, final long timeout) {
+		if (!(obj instanceof ObjectImpl)) {
+			return obj;
+		}
+		try {
+			final ORB orb = ((ObjectImpl) obj)._orb();
+			final Any value = orb.create_any();
+			value.insert_ulonglong(Math.max(1, timeout) * CorbaTimeouts.TIME_T_PER_MILLI);
+			final Policy policy = orb.create_policy(CorbaTimeouts.RELATIVE_RT_TIMEOUT_POLICY_TYPE, value);
+			return obj._set_policy_override(new Policy[] { policy }, SetOverrideType.ADD_OVERRIDE);
+		} catch (final PolicyError e) {
+			logUnsupported(e);
+		} catch (final SystemException e) {
+			logUnsupported(e);
+		}
+		return obj;
+	}
+
+	/**
+	 * Gives a reference the same timeout as the reference it was obtained from.
+	 *
+	 * @param obj the reference, may be null
+	 * @param source the reference obj was obtained from
+	 * @return a reference to the same object with the source's timeout, which the caller narrows; the reference
+	 * itself if the source has no timeout
+	 */
+	public static org.omg.CORBA.Object inheritTimeout(final org.omg.CORBA.Object obj, final Object source) {
+		if (obj == null || !(source instanceof org.omg.CORBA.Object)) {
+			return obj;
+		}
+		try {
+			final Policy policy = ((org.omg.CORBA.Object) source)._get_policy(CorbaTimeouts.RELATIVE_RT_TIMEOUT_POLICY_TYPE);
+			if (policy == null) {
+				return obj;
+			}
+			return obj._set_policy_override(new Policy[] { policy }, SetOverrideType.ADD_OVERRIDE);
+		} catch (final SystemException e) {
+			// PASS - The source has no timeout
+			return obj;
+		}
+	}
+
+	/**
+	 * @param domain a connected domain
+	 * @param deadline the deadline to bind the file manager to
+	 * @return the domain's file manager bound to the deadline, or null if the domain has no file manager
+	 */
+	public static FileManager getFileManager(final ScaDomainManager domain, final Deadline deadline) {
+		if (domain.getFileManager() == null || domain.getFileManager().getObj() == null) {
+			return null;
+		}
+		return FileManagerHelper.unchecked_narrow(deadline.bind(domain.getFileManager().getObj()));
+	}
+
+	private static void logUnsupported(final Exception e) {
+		if (!CorbaTimeouts.unsupportedLogged) {
+			CorbaTimeouts.unsupportedLogged = true;
+			Activator.getDefault().getLog().log(
+				new Status(IStatus.WARNING, Activator.PLUGIN_ID, "The ORB doesn't support round-trip timeouts; domain calls use its default timeout", e));
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+
+/**
+ * The time an operation against a domain is allowed to take. Each kind of operation has its own budget, which can be
+ * changed with a system property:
+ * <ul>
+ * <li>{@link #CONNECT_TIMEOUT_PROPERTY} for connecting to a domain</li>
+ * <li>{@link #FILE_READ_TIMEOUT_PROPERTY} for reading a file from a domain</li>
+ * <li>{@link #LAUNCH_TIMEOUT_PROPERTY} for launching a waveform</li>
+ * </ul>
+ * A deadline is enforced in two ways. CORBA references bound to it with {@link #bind(org.omg.CORBA.Object)} give up
+ * on calls that outlast the remaining budget, and threads waiting on the operation with
+ * {@link #await(CountDownLatch, IProgressMonitor)} stop waiting once the deadline passes or the user cancels.
+ */
+public final class Deadline {
+
+	/**
+	 * System property setting how long connecting to a domain may take, in milliseconds.
+	 */
+	public static final String CONNECT_TIMEOUT_PROPERTY = "gov.redhawk.explorer.connectTimeout";
+
+	/**
+	 * System property setting how long reading a file from a domain may take, in milliseconds.
+	 */
+	public static final String FILE_READ_TIMEOUT_PROPERTY = "gov.redhawk.explorer.fileReadTimeout";
+
+	/**
+	 * System property setting how long launching a waveform may take, in milliseconds.
+	 */
+	public static final String LAUNCH_TIMEOUT_PROPERTY = "gov.redhawk.explorer.launchTimeout";
+
+	private static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+
+	private static final int DEFAULT_FILE_READ_TIMEOUT = 30000;
+
+	private static final int DEFAULT_LAUNCH_TIMEOUT = 120000;
+
+	// How often a waiting thread checks for cancellation, in milliseconds
+	private static final long POLL_INTERVAL = 50;
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	private final long budget;
+	private final long expiry;
+
+	private Deadline(final long budget) {
+		this.budget = budget;
+		this.expiry = System.nanoTime() + budget * Deadline.NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return a deadline for connecting to a domain, starting now
+	 */
+	public static Deadline forConnect() {
+		return Deadline.after(Integer.getInteger(Deadline.CONNECT_TIMEOUT_PROPERTY, Deadline.DEFAULT_CONNECT_TIMEOUT));
+	}
+
+	/**
+	 * @return a deadline for reading a file from a domain, starting now
+	 */
+	public static Deadline forFileRead() {
+		return Deadline.after(Integer.getInteger(Deadline.FILE_READ_TIMEOUT_PROPERTY, Deadline.DEFAULT_FILE_READ_TIMEOUT));
+	}
+
+	/**
+	 * @return a deadline for launching a waveform, starting now
+	 */
+	public static Deadline forLaunch() {
+		return Deadline.after(Integer.getInteger(Deadline.LAUNCH_TIMEOUT_PROPERTY, Deadline.DEFAULT_LAUNCH_TIMEOUT));
+	}
+
+	/**
+	 * @param budget the time allowed, in milliseconds
+	 * @return a deadline the given time from now
+	 */
+	public static Deadline after(final long budget) {
+		return new Deadline(Math.max(1, budget));
+	}
+
+	/**
+	 * @return the time the operation was allowed, in milliseconds
+	 */
+	public long getBudget() {
+		return this.budget;
+	}
+
+	/**
+	 * @return the time left before the deadline, in milliseconds
+	 */
+	public long getRemaining() {
+		return Math.max(0, (this.expiry - System.nanoTime()) / Deadline.NANOS_PER_MILLI);
+	}
+
+	public boolean isExpired() {
+		return this.expiry - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * Waits for the latch to reach zero, the deadline to pass or the monitor to be canceled, whichever comes first.
+	 * Cancellation is noticed within {@value #POLL_INTERVAL} ms.
+	 *
+	 * @param latch the latch counting down the operation
+	 * @param monitor the monitor to check for cancellation, may be null
+	 * @return true if the latch reached zero, false if the deadline passed first
+	 * @throws InterruptedException if the monitor was canceled or the waiting thread was interrupted
+	 */
+	public boolean await(final CountDownLatch latch, final IProgressMonitor monitor) throws InterruptedException {
+		while (true) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new InterruptedException();
+			}
+			final long remaining = getRemaining();
+			if (remaining <= 0) {
+				return latch.getCount() == 0;
+			}
+			if (latch.await(Math.min(Deadline.POLL_INTERVAL, remaining), TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Returns a monitor which reports itself canceled once the deadline passes, as well as when the given monitor is
+	 * canceled.
+	 *
+	 * @param monitor the monitor to wrap, may be null
+	 * @return the wrapped monitor
+	 */
+	public IProgressMonitor wrap(final IProgressMonitor monitor) {
+		return new ProgressMonitorWrapper((monitor == null) ? new NullProgressMonitor() : monitor) {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || isExpired();
+			}
+		};
+	}
+
+	/**
+	 * Returns a reference on which every call gives up once the time left before the deadline has passed.
+	 *
+	 * @param obj the reference to bind, may be null
+	 * @return the bound reference, which the caller narrows; the reference itself if the ORB doesn't support timeouts
+	 * @see CorbaTimeouts#withTimeout(org.omg.CORBA.Object, long)
+	 */
+	public org.omg.CORBA.Object bind(final org.omg.CORBA.Object obj) {
+		return CorbaTimeouts.withTimeout(obj, Math.max(1, getRemaining()));
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.eclipse.ui.statushandlers.StatusManager;
+
+/**
+ * Writes the {@link FlightRecorder}'s recent log records to a file, and tells the user where it is.
+ */
+public class DumpFlightRecorderHandler extends AbstractHandler {
+
+	@Override
+	public Object execute(final ExecutionEvent event) throws ExecutionException {
+		final FlightRecorder recorder = FlightRecorder.getInstance();
+		if (recorder == null) {
+			MessageDialog.openInformation(HandlerUtil.getActiveShell(event), "Dump Diagnostic Log", "The diagnostic log is turned off.");
+			return null;
+		}
+		final File file;
+		try {
+			file = recorder.dumpToFile();
+		} catch (final IOException e) {
+			StatusManager.getManager().handle(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to write the diagnostic log", e),
+				StatusManager.LOG | StatusManager.SHOW);
+			return null;
+		}
+		MessageDialog.openInformation(HandlerUtil.getActiveShell(event), "Dump Diagnostic Log", "The diagnostic log was written to:\n"
+			+ file.getAbsolutePath());
+		return null;
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.sca.ScaPlugin;
+
+import java.util.ArrayList;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.ui.IEditorInput;
+
+/**
+ * Works out which domain an element of the SCA model, or an editor, belongs to.
+ */
+final class EditorDomains {
+
+	private EditorDomains() {
+	}
+
+	/**
+	 * @param element an element of the SCA model, or anything else
+	 * @return the domain the element belongs to, or null
+	 */
+	static ScaDomainManager findDomain(final Object element) {
+		if (!(element instanceof EObject)) {
+			return null;
+		}
+		for (EObject current = (EObject) element; current != null; current = current.eContainer()) {
+			if (current instanceof ScaDomainManager) {
+				return (ScaDomainManager) current;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the domain an editor belongs to: through the model element its input adapts to, or failing that, as the
+	 * domain running a waveform named like the editor.
+	 *
+	 * @param input the editor's input
+	 * @param partName the editor's tab label
+	 * @return the editor's domain, or null if it can't be worked out
+	 */
+	static ScaDomainManager findDomain(final IEditorInput input, final String partName) {
+		final ScaDomainManager domain = EditorDomains.findDomain(input.getAdapter(EObject.class));
+		if (domain != null) {
+			return domain;
+		}
+		for (final ScaDomainManager candidate : new ArrayList<ScaDomainManager>(ScaPlugin.getDefault().getDomainManagerRegistry(null).getDomains())) {
+			for (final ScaWaveform waveform : new ArrayList<ScaWaveform>(candidate.getWaveforms())) {
+				if (waveform.getName() != null && waveform.getName().equals(partName)) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Keeps a flight recorder of recent Java log records, including the CORBA and wizard events that
+ * <code>javalogger.properties</code> otherwise discards, so that they can be looked at after something has gone
+ * wrong. Installing it:
+ * <ul>
+ * <li>lowers the recorded loggers, {@link #LOGGERS_PROPERTY}, to {@link #LEVEL_PROPERTY};</li>
+ * <li>adds a {@link FlightRecorderHandler} to the root logger, which keeps the newest records in a lock-free ring of
+ * {@link #SIZE_PROPERTY} records;</li>
+ * <li>moves the root logger's console and file handlers behind an {@link AsyncHandler}, so that no thread waits on
+ * them, which only passes on what would have been logged before the recorded loggers were lowered.</li>
+ * </ul>
+ * The ring is written to a file in this plug-in's state location by <b>Help &gt; Dump Diagnostic Log</b>, or by the
+ * <code>dump</code> operation of the MXBean registered as {@link #OBJECT_NAME}. Setting {@link #ENABLED_PROPERTY} to
+ * false leaves logging as <code>javalogger.properties</code> configures it.
+ */
+public final class FlightRecorder implements FlightRecorderMXBean {
+
+	/**
+	 * The name the flight recorder is registered under in the platform MBean server.
+	 */
+	public static final String OBJECT_NAME = "gov.redhawk.explorer:type=FlightRecorder"; //$NON-NLS-1$
+
+	/**
+	 * System property which turns the flight recorder off when set to false.
+	 */
+	public static final String ENABLED_PROPERTY = "gov.redhawk.explorer.flightRecorder";
+
+	/**
+	 * System property giving the number of records the flight recorder keeps.
+	 */
+	public static final String SIZE_PROPERTY = "gov.redhawk.explorer.flightRecorder.size";
+
+	/**
+	 * System property giving the comma separated names of the loggers to record.
+	 */
+	public static final String LOGGERS_PROPERTY = "gov.redhawk.explorer.flightRecorder.loggers";
+
+	/**
+	 * System property giving the level to record the loggers at.
+	 */
+	public static final String LEVEL_PROPERTY = "gov.redhawk.explorer.flightRecorder.level";
+
+	// JacORB logs through SLF4J, which defaults to Java logging; the JDK's ORB logs under javax.enterprise
+	private static final String DEFAULT_LOGGERS = "jacorb,javax.enterprise.resource.corba,gov.redhawk.explorer"; //$NON-NLS-1$
+
+	private static final int DEFAULT_SIZE = 4096;
+
+	// The most records waiting for the console or file before more are dropped
+	private static final int QUEUE_SIZE = 1024;
+
+	private static FlightRecorder instance;
+
+	private final FlightRecorderHandler recorder;
+	private final AsyncHandler writer;
+	// Held so that the lowered levels aren't lost if the loggers are garbage collected
+	private final Map<Logger, Level> loggers;
+	private final Level level;
+
+	private FlightRecorder(final FlightRecorderHandler recorder, final AsyncHandler writer, final Map<Logger, Level> loggers, final Level level) {
+		this.recorder = recorder;
+		this.writer = writer;
+		this.loggers = loggers;
+		this.level = level;
+	}
+
+	/**
+	 * Installs the flight recorder over the current Java logging configuration, and publishes it in the platform MBean
+	 * server. Must be called after the configuration has been read.
+	 */
+	public static synchronized void install() {
+		if ("false".equalsIgnoreCase(System.getProperty(FlightRecorder.ENABLED_PROPERTY)) || FlightRecorder.instance != null) {
+			return;
+		}
+		Level level;
+		try {
+			level = Level.parse(System.getProperty(FlightRecorder.LEVEL_PROPERTY, Level.FINE.getName()));
+		} catch (final IllegalArgumentException e) {
+			level = Level.FINE;
+		}
+
+		// Lower the recorded loggers, remembering what they would have logged at before
+		final Map<Logger, Level> loggers = new LinkedHashMap<Logger, Level>();
+		final Map<String, Level> gates = new LinkedHashMap<String, Level>();
+		for (final String name : System.getProperty(FlightRecorder.LOGGERS_PROPERTY, FlightRecorder.DEFAULT_LOGGERS).split(",")) {
+			if (name.trim().length() == 0) {
+				continue;
+			}
+			final Logger logger = Logger.getLogger(name.trim());
+			final Level effective = FlightRecorder.getEffectiveLevel(logger);
+			loggers.put(logger, logger.getLevel());
+			gates.put(logger.getName(), effective);
+			if (level.intValue() < effective.intValue()) {
+				logger.setLevel(level);
+			}
+		}
+
+		final Logger root = Logger.getLogger("");
+		final Handler[] handlers = root.getHandlers();
+		for (final Handler handler : handlers) {
+			root.removeHandler(handler);
+		}
+		final AsyncHandler writer = new AsyncHandler(handlers, gates, FlightRecorder.QUEUE_SIZE);
+		root.addHandler(writer);
+		final FlightRecorderHandler recorder = new FlightRecorderHandler(Integer.getInteger(FlightRecorder.SIZE_PROPERTY, FlightRecorder.DEFAULT_SIZE));
+		recorder.setLevel(level);
+		root.addHandler(recorder);
+
+		FlightRecorder.instance = new FlightRecorder(recorder, writer, loggers, level);
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(FlightRecorder.OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				// Left behind by an earlier start of this plug-in
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(FlightRecorder.instance, name);
+		} catch (final JMException e) {
+			Activator.getDefault().getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to publish the flight recorder", e));
+		}
+	}
+
+	/**
+	 * Removes the flight recorder, putting the root logger's handlers and the recorded loggers' levels back as they
+	 * were.
+	 */
+	public static synchronized void uninstall() {
+		final FlightRecorder recorder = FlightRecorder.instance;
+		if (recorder == null) {
+			return;
+		}
+		FlightRecorder.instance = null;
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(FlightRecorder.OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (final JMException e) {
+			// PASS
+		}
+
+		final Logger root = Logger.getLogger("");
+		root.removeHandler(recorder.recorder);
+		root.removeHandler(recorder.writer);
+		recorder.writer.close();
+		for (final Handler handler : recorder.writer.getDelegates()) {
+			root.addHandler(handler);
+		}
+		recorder.recorder.close();
+		for (final Map.Entry<Logger, Level> entry : recorder.loggers.entrySet()) {
+			entry.getKey().setLevel(entry.getValue());
+		}
+	}
+
+	/**
+	 * @return the installed flight recorder, or null if it is turned off
+	 */
+	public static synchronized FlightRecorder getInstance() {
+		return FlightRecorder.instance;
+	}
+
+	private static Level getEffectiveLevel(final Logger logger) {
+		for (Logger current = logger; current != null; current = current.getParent()) {
+			if (current.getLevel() != null) {
+				return current.getLevel();
+			}
+		}
+		return Level.INFO;
+	}
+
+	@Override
+	public String[] getLoggers() {
+		final List<String> names = new ArrayList<String>();
+		for (final Logger logger : this.loggers.keySet()) {
+			names.add(logger.getName());
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public String getLevel() {
+		return this.level.getName();
+	}
+
+	@Override
+	public int getCapacity() {
+		return this.recorder.getCapacity();
+	}
+
+	@Override
+	public long getRecorded() {
+		return this.recorder.getPublished();
+	}
+
+	@Override
+	public long getDropped() {
+		return this.writer.getDropped();
+	}
+
+	@Override
+	public String dump() throws IOException {
+		return dumpToFile().getAbsolutePath();
+	}
+
+	/**
+	 * Writes the records in the ring, oldest first, to a new file in this plug-in's state location.
+	 *
+	 * @return the file written
+	 * @throws IOException if the file couldn't be written
+	 */
+	public File dumpToFile() throws IOException {
+		final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+		final File file = Activator.getDefault().getStateLocation().append("flight-recorder-" + timestamp + ".log").toFile();
+		final List<LogRecord> records = this.recorder.snapshot();
+		final Formatter formatter = new SimpleFormatter();
+		final Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			out.write("# " + records.size() + " records; " + getRecorded() + " recorded and " + getDropped() + " dropped since start-up\n");
+			for (final LogRecord record : records) {
+				out.write(formatter.format(record));
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+}
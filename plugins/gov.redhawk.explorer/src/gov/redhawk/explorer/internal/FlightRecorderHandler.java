@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Keeps the most recent log records in a fixed-size ring, overwriting the oldest. Publishing a record claims a slot
+ * with a single atomic increment and stores a reference to it, so logging threads never lock, block or allocate.
+ * Records are formatted only when the ring is {@link #snapshot() read}.
+ */
+final class FlightRecorderHandler extends Handler {
+
+	private final AtomicReferenceArray<LogRecord> slots;
+	private final int mask;
+	private final AtomicLong next = new AtomicLong();
+	// Handler's own level check is synchronized
+	private volatile int threshold = Level.ALL.intValue();
+
+	/**
+	 * @param capacity the number of records to keep; rounded up to a power of two
+	 */
+	FlightRecorderHandler(final int capacity) {
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.slots = new AtomicReferenceArray<LogRecord>(size);
+		this.mask = size - 1;
+	}
+
+	int getCapacity() {
+		return this.slots.length();
+	}
+
+	/**
+	 * @return the number of records published since the handler was created, including those overwritten since
+	 */
+	long getPublished() {
+		return this.next.get();
+	}
+
+	@Override
+	public synchronized void setLevel(final Level newLevel) {
+		super.setLevel(newLevel);
+		this.threshold = newLevel.intValue();
+	}
+
+	@Override
+	public boolean isLoggable(final LogRecord record) {
+		return record != null && record.getLevel().intValue() >= this.threshold;
+	}
+
+	@Override
+	public void publish(final LogRecord record) {
+		if (isLoggable(record)) {
+			this.slots.set((int) (this.next.getAndIncrement() & this.mask), record);
+		}
+	}
+
+	/**
+	 * @return the records in the ring, oldest first
+	 */
+	List<LogRecord> snapshot() {
+		final List<LogRecord> records = new ArrayList<LogRecord>(this.slots.length());
+		for (int i = 0; i < this.slots.length(); i++) {
+			final LogRecord record = this.slots.get(i);
+			if (record != null) {
+				records.add(record);
+			}
+		}
+		Collections.sort(records, new Comparator<LogRecord>() {
+			@Override
+			public int compare(final LogRecord o1, final LogRecord o2) {
+				final long s1 = o1.getSequenceNumber();
+				final long s2 = o2.getSequenceNumber();
+				return (s1 < s2) ? -1 : ((s1 == s2) ? 0 : 1);
+			}
+		});
+		return records;
+	}
+
+	@Override
+	public void flush() {
+		// PASS
+	}
+
+	@Override
+	public void close() {
+		for (int i = 0; i < this.slots.length(); i++) {
+			this.slots.set(i, null);
+		}
+	}
+}
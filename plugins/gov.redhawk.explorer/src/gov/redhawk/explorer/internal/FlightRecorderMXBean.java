@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.io.IOException;
+
+/**
+ * The flight recorder's ring of recent log records, registered as {@link FlightRecorder#OBJECT_NAME} in the platform
+ * MBean server.
+ */
+public interface FlightRecorderMXBean {
+
+	/**
+	 * @return the names of the loggers recorded at {@link #getLevel()}
+	 */
+	String[] getLoggers();
+
+	/**
+	 * @return the level the recorded loggers log at
+	 */
+	String getLevel();
+
+	/**
+	 * @return the number of records the ring holds
+	 */
+	int getCapacity();
+
+	/**
+	 * @return the number of records published since Explorer started, including those since overwritten
+	 */
+	long getRecorded();
+
+	/**
+	 * @return the number of records not written to the log because the writer had fallen behind
+	 */
+	long getDropped();
+
+	/**
+	 * Writes the records in the ring to a new file.
+	 *
+	 * @return the path of the file written
+	 * @throws IOException if the file couldn't be written
+	 */
+	String dump() throws IOException;
+}
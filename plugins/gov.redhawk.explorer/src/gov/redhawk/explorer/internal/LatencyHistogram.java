@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts calls of one kind and how long they took. Durations are counted in power-of-two buckets of nanoseconds:
+ * bucket <i>i</i> counts the calls which took at least 2<sup><i>i</i></sup> and less than 2<sup><i>i</i>+1</sup>
+ * nanoseconds. Recording only updates atomic counters, so it never allocates or blocks and may be called from any
+ * thread; reads are not a consistent snapshot.
+ */
+final class LatencyHistogram {
+
+	/** The number of buckets; enough for any duration in a long. */
+	static final int BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(LatencyHistogram.BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+
+	/**
+	 * @param nanos how long the call took
+	 * @param failed true if the call failed
+	 */
+	void record(final long nanos, final boolean failed) {
+		final long duration = Math.max(nanos, 1);
+		this.buckets.incrementAndGet(LatencyHistogram.BUCKETS - 1 - Long.numberOfLeadingZeros(duration));
+		this.count.incrementAndGet();
+		this.totalNanos.addAndGet(duration);
+		if (failed) {
+			this.failures.incrementAndGet();
+		}
+		long max = this.maxNanos.get();
+		while (duration > max && !this.maxNanos.compareAndSet(max, duration)) {
+			max = this.maxNanos.get();
+		}
+	}
+
+	/**
+	 * @param count the number of bytes transferred by a call
+	 */
+	void addBytes(final long count) {
+		this.bytes.addAndGet(count);
+	}
+
+	long getCount() {
+		return this.count.get();
+	}
+
+	long getFailures() {
+		return this.failures.get();
+	}
+
+	long getTotalNanos() {
+		return this.totalNanos.get();
+	}
+
+	long getMaxNanos() {
+		return this.maxNanos.get();
+	}
+
+	long getBytes() {
+		return this.bytes.get();
+	}
+
+	/**
+	 * @return a copy of the bucket counts
+	 */
+	long[] getBuckets() {
+		final long[] copy = new long[LatencyHistogram.BUCKETS];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = this.buckets.get(i);
+		}
+		return copy;
+	}
+
+	/**
+	 * Estimates a percentile from the buckets. The estimate is the upper bound of the bucket the percentile falls
+	 * in, so it is at most twice the true value.
+	 *
+	 * @param counts bucket counts, as returned by {@link #getBuckets()}
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the estimate in nanoseconds, or 0 if nothing has been recorded
+	 */
+	static long getPercentile(final long[] counts, final double percentile) {
+		long total = 0;
+		for (final long bucket : counts) {
+			total += bucket;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return (i >= LatencyHistogram.BUCKETS - 2) ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	void reset() {
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+			this.buckets.set(i, 0);
+		}
+		this.count.set(0);
+		this.failures.set(0);
+		this.totalNanos.set(0);
+		this.maxNanos.set(0);
+		this.bytes.set(0);
+	}
+}
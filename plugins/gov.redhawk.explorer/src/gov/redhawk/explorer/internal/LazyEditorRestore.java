@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.model.sca.DomainConnectionState;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.sca.ScaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IPersistableElement;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.XMLMemento;
+
+/**
+ * Makes editors come back lazily after a restart. Just before the workbench saves its state, every open editor with a
+ * persistable input is swapped for a {@link PlaceholderEditor}, so the workbench saves placeholders instead. When
+ * the session is restored, each placeholder is recreated from its memento without touching the real editor, its
+ * input or its domain; the real editor is only restored once its tab is shown. Dirty editors are left as they are.
+ * <p>
+ * The editors are swapped before the workbench asks whether it may close, so if shutdown is then canceled, by the
+ * user or by a workbench listener, the real editors are put back.
+ * <p>
+ * Setting {@link #ENABLED_PROPERTY} to false restores editors eagerly, as the workbench does by default.
+ */
+public final class LazyEditorRestore {
+
+	/**
+	 * System property which turns lazy editor restoration off when set to false.
+	 */
+	public static final String ENABLED_PROPERTY = "gov.redhawk.explorer.lazyEditorRestore";
+
+	// How often to check whether a shutdown is still going ahead, in milliseconds
+	private static final int CLOSING_POLL_INTERVAL = 200;
+
+	private static volatile boolean shuttingDown;
+
+	/**
+	 * A placeholder made during shutdown, remembered in case shutdown is canceled.
+	 */
+	private static final class Swap {
+		private final IWorkbenchPage page;
+		private final PlaceholderEditorInput placeholder;
+		private final boolean active;
+
+		Swap(final IWorkbenchPage page, final PlaceholderEditorInput placeholder, final boolean active) {
+			this.page = page;
+			this.placeholder = placeholder;
+			this.active = active;
+		}
+	}
+
+	private LazyEditorRestore() {
+	}
+
+	/**
+	 * @return true once the workbench has started replacing editors with placeholders
+	 */
+	static boolean isShuttingDown() {
+		return LazyEditorRestore.shuttingDown;
+	}
+
+	/**
+	 * Replaces the editors in every workbench window with placeholders. Must be called from the UI thread, before the
+	 * workbench saves its state.
+	 *
+	 * @param workbench the workbench which is shutting down
+	 */
+	public static void replaceEditors(final IWorkbench workbench) {
+		if ("false".equalsIgnoreCase(System.getProperty(LazyEditorRestore.ENABLED_PROPERTY))) {
+			return;
+		}
+		LazyEditorRestore.shuttingDown = true;
+		final List<String> domainNames = getConnectedDomains();
+		final List<Swap> swaps = new ArrayList<Swap>();
+		for (final IWorkbenchWindow window : workbench.getWorkbenchWindows()) {
+			for (final IWorkbenchPage page : window.getPages()) {
+				replaceEditors(page, domainNames, swaps);
+			}
+		}
+		LazyEditorRestore.watchShutdown(workbench, swaps);
+	}
+
+	/**
+	 * Puts the real editors back if the workbench stops closing. Nothing happens if it does close, since the display
+	 * is disposed first.
+	 */
+	private static void watchShutdown(final IWorkbench workbench, final List<Swap> swaps) {
+		final Display display = workbench.getDisplay();
+		display.timerExec(LazyEditorRestore.CLOSING_POLL_INTERVAL, new Runnable() {
+			@Override
+			public void run() {
+				if (workbench.isClosing()) {
+					display.timerExec(LazyEditorRestore.CLOSING_POLL_INTERVAL, this);
+					return;
+				}
+				LazyEditorRestore.shuttingDown = false;
+				for (final Swap swap : swaps) {
+					restoreEditor(swap);
+				}
+			}
+		});
+	}
+
+	private static void restoreEditor(final Swap swap) {
+		final IEditorReference[] references = swap.page.findEditors(swap.placeholder, PlaceholderEditor.ID, IWorkbenchPage.MATCH_INPUT
+			| IWorkbenchPage.MATCH_ID);
+		if (references.length == 0) {
+			return;
+		}
+		try {
+			swap.page.openEditor(swap.placeholder.createRealInput(), swap.placeholder.getEditorId(), swap.active);
+		} catch (final CoreException e) {
+			// The placeholder stays, and can still restore the editor when asked
+			Activator.getDefault().getLog().log(e.getStatus());
+			return;
+		}
+		swap.page.closeEditors(references, false);
+	}
+
+	private static void replaceEditors(final IWorkbenchPage page, final List<String> connectedDomains, final List<Swap> swaps) {
+		IEditorReference active = null;
+		if (page.getActiveEditor() != null) {
+			active = (IEditorReference) page.getReference(page.getActiveEditor());
+		}
+		for (final IEditorReference reference : page.getEditorReferences()) {
+			if (PlaceholderEditor.ID.equals(reference.getId()) || reference.isDirty()) {
+				continue;
+			}
+			final IEditorInput input;
+			try {
+				input = reference.getEditorInput();
+			} catch (final PartInitException e) {
+				continue;
+			}
+			final IPersistableElement persistable = input.getPersistable();
+			if (persistable == null) {
+				// The workbench wouldn't have saved it either
+				continue;
+			}
+			final XMLMemento state = XMLMemento.createWriteRoot("input"); //$NON-NLS-1$
+			persistable.saveState(state);
+			// Only the editor's own domain is reconnected, unless it can't be told
+			final ScaDomainManager domain = EditorDomains.findDomain(input, reference.getPartName());
+			final List<String> domainNames = (domain == null) ? connectedDomains : Collections.singletonList(domain.getName());
+			final PlaceholderEditorInput placeholder = new PlaceholderEditorInput(reference.getId(), persistable.getFactoryId(), state,
+				reference.getPartName(), reference.getTitleToolTip(), domainNames);
+			try {
+				page.openEditor(placeholder, PlaceholderEditor.ID, reference == active);
+			} catch (final PartInitException e) {
+				Activator.getDefault().getLog().log(
+					new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to save " + reference.getPartName() + " for lazy restoration", e));
+				continue;
+			}
+			page.closeEditors(new IEditorReference[] { reference }, false);
+			swaps.add(new Swap(page, placeholder, reference == active));
+		}
+	}
+
+	private static List<String> getConnectedDomains() {
+		final List<String> names = new ArrayList<String>();
+		for (final ScaDomainManager domain : new ArrayList<ScaDomainManager>(ScaPlugin.getDefault().getDomainManagerRegistry(null).getDomains())) {
+			if (domain.getState().getValue() == DomainConnectionState.CONNECTED_VALUE) {
+				names.add(domain.getName());
+			}
+		}
+		return names;
+	}
+}
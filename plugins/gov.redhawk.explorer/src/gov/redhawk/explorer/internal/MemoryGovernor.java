@@ -0,0 +1,361 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.ScaExplorerPerspective;
+import gov.redhawk.explorer.ScaExplorerSingleDomainPerspective;
+import gov.redhawk.explorer.wizard.WarmStart;
+import gov.redhawk.model.sca.DomainConnectionState;
+import gov.redhawk.model.sca.RefreshDepth;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaPackage;
+import gov.redhawk.model.sca.commands.ScaModelCommand;
+import gov.redhawk.sca.ScaPlugin;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.IViewReference;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.statushandlers.StatusManager;
+
+/**
+ * Sheds memory before the heap runs out. The JVM is asked to report when a garbage collection leaves the tenured
+ * heap pool fuller than the lowest of the governor's thresholds, which costs nothing until it happens. Each report
+ * is measured against the thresholds, given as percentages of the pool's maximum, and the governor sheds load in
+ * order:
+ * <ol>
+ * <li>at {@link #SHED_PROPERTY} the profile cache and the catalog loaded at start-up are dropped; they are read
+ * from the domains again as needed;</li>
+ * <li>at {@link #COLLAPSE_PROPERTY} every connected domain which isn't expanded in a visible explorer view, and
+ * doesn't have an open editor, is collapsed to {@link RefreshDepth#SELF}: its waveforms, device managers and file
+ * manager are dropped from the model, and are fetched again when the domain is expanded. The domain stays
+ * connected;</li>
+ * <li>at {@link #WARN_PROPERTY} the operator is warned that Explorer is running out of memory.</li>
+ * </ol>
+ * Each step is taken at most once per {@link #COOLDOWN_PROPERTY} seconds. Setting {@link #ENABLED_PROPERTY} to false
+ * turns the governor off.
+ */
+public final class MemoryGovernor implements NotificationListener {
+
+	/**
+	 * System property which turns the memory governor off when set to false.
+	 */
+	public static final String ENABLED_PROPERTY = "gov.redhawk.explorer.memoryGovernor";
+
+	/**
+	 * System property giving the heap usage after a collection, in percent, at which caches are dropped.
+	 */
+	public static final String SHED_PROPERTY = "gov.redhawk.explorer.memoryGovernor.shed";
+
+	/**
+	 * System property giving the heap usage after a collection, in percent, at which hidden domains are collapsed.
+	 */
+	public static final String COLLAPSE_PROPERTY = "gov.redhawk.explorer.memoryGovernor.collapse";
+
+	/**
+	 * System property giving the heap usage after a collection, in percent, at which the operator is warned.
+	 */
+	public static final String WARN_PROPERTY = "gov.redhawk.explorer.memoryGovernor.warn";
+
+	/**
+	 * System property giving the least time between two of the same step, in seconds.
+	 */
+	public static final String COOLDOWN_PROPERTY = "gov.redhawk.explorer.memoryGovernor.cooldown";
+
+	private static final int DEFAULT_SHED = 70;
+	private static final int DEFAULT_COLLAPSE = 80;
+	private static final int DEFAULT_WARN = 90;
+	private static final int DEFAULT_COOLDOWN = 300;
+
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+	private static final int PERCENT = 100;
+
+	/**
+	 * The ways of shedding load, in the order they are taken.
+	 */
+	private enum Step {
+		SHED, COLLAPSE, WARN
+	}
+
+	private static MemoryGovernor instance;
+
+	private final List<MemoryPoolMXBean> pools;
+	private final int shed;
+	private final int collapse;
+	private final int warn;
+	private final long cooldown;
+	// The nanoTime each step was last taken at, guarded by this
+	private final long[] lastTaken = new long[Step.values().length];
+
+	private MemoryGovernor(final List<MemoryPoolMXBean> pools) {
+		this.pools = pools;
+		this.shed = Integer.getInteger(MemoryGovernor.SHED_PROPERTY, MemoryGovernor.DEFAULT_SHED);
+		this.collapse = Integer.getInteger(MemoryGovernor.COLLAPSE_PROPERTY, MemoryGovernor.DEFAULT_COLLAPSE);
+		this.warn = Integer.getInteger(MemoryGovernor.WARN_PROPERTY, MemoryGovernor.DEFAULT_WARN);
+		this.cooldown = Integer.getInteger(MemoryGovernor.COOLDOWN_PROPERTY, MemoryGovernor.DEFAULT_COOLDOWN) * MemoryGovernor.NANOS_PER_SECOND;
+		Arrays.fill(this.lastTaken, System.nanoTime() - this.cooldown);
+	}
+
+	/**
+	 * Sets the collection usage thresholds of the tenured heap pools and starts listening for them being crossed.
+	 */
+	public static synchronized void install() {
+		if ("false".equalsIgnoreCase(System.getProperty(MemoryGovernor.ENABLED_PROPERTY)) || MemoryGovernor.instance != null) {
+			return;
+		}
+		// Only the tenured pools support both kinds of threshold; what survives a collection there is what's in use
+		final List<MemoryPoolMXBean> pools = new ArrayList<MemoryPoolMXBean>();
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported()
+				&& pool.getUsage().getMax() > 0) {
+				pools.add(pool);
+			}
+		}
+		if (pools.isEmpty()) {
+			return;
+		}
+		final MemoryGovernor governor = new MemoryGovernor(pools);
+		final int lowest = Math.min(governor.shed, Math.min(governor.collapse, governor.warn));
+		for (final MemoryPoolMXBean pool : pools) {
+			pool.setCollectionUsageThreshold(pool.getUsage().getMax() / MemoryGovernor.PERCENT * lowest);
+		}
+		((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(governor, null, null);
+		MemoryGovernor.instance = governor;
+	}
+
+	/**
+	 * Stops listening, and clears the thresholds set by {@link #install()}.
+	 */
+	public static synchronized void uninstall() {
+		final MemoryGovernor governor = MemoryGovernor.instance;
+		if (governor == null) {
+			return;
+		}
+		MemoryGovernor.instance = null;
+		try {
+			((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(governor);
+		} catch (final ListenerNotFoundException e) {
+			// PASS
+		}
+		for (final MemoryPoolMXBean pool : governor.pools) {
+			pool.setCollectionUsageThreshold(0);
+		}
+	}
+
+	/**
+	 * Called by the JVM's notification thread; the work is done in a job so that the thread isn't held up.
+	 */
+	@Override
+	public void handleNotification(final Notification notification, final Object handback) {
+		if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+			return;
+		}
+		final Job job = new Job("Relieving memory pressure") {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				relieve(monitor);
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setPriority(Job.SHORT);
+		job.schedule();
+	}
+
+	private void relieve(final IProgressMonitor monitor) {
+		// The fullest pool decides; usage is as it was left by the last collection
+		MemoryUsage fullest = null;
+		for (final MemoryPoolMXBean pool : this.pools) {
+			final MemoryUsage usage = pool.getCollectionUsage();
+			if (usage != null && usage.getMax() > 0 && (fullest == null || percentOf(usage) > percentOf(fullest))) {
+				fullest = usage;
+			}
+		}
+		if (fullest == null) {
+			return;
+		}
+		final long percent = percentOf(fullest);
+		final long now = System.nanoTime();
+		if (percent >= this.shed && isDue(now, Step.SHED)) {
+			shedCaches(fullest);
+		}
+		if (percent >= this.collapse && isDue(now, Step.COLLAPSE)) {
+			collapseHiddenDomains(fullest, monitor);
+		}
+		if (percent >= this.warn && isDue(now, Step.WARN)) {
+			final String message = "REDHAWK Explorer is running low on memory: " + describe(fullest) + " is still in use after garbage collection. "
+				+ "Disconnect from domains or close editors that are no longer needed, or restart Explorer with a larger -Xmx.";
+			StatusManager.getManager().handle(new Status(IStatus.WARNING, Activator.PLUGIN_ID, message), StatusManager.LOG | StatusManager.SHOW);
+		}
+	}
+
+	/**
+	 * @return true if the step hasn't been taken within the cooldown; the step is then recorded as taken now
+	 */
+	private synchronized boolean isDue(final long now, final Step step) {
+		if (now - this.lastTaken[step.ordinal()] < this.cooldown) {
+			return false;
+		}
+		this.lastTaken[step.ordinal()] = now;
+		return true;
+	}
+
+	private static void shedCaches(final MemoryUsage usage) {
+		final Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return;
+		}
+		activator.getProfileInfoCache().clear();
+		WarmStart.releaseCatalog();
+		activator.getLog().log(new Status(IStatus.INFO, Activator.PLUGIN_ID, "Dropped cached waveform profiles and catalogs; " + describe(usage)
+			+ " in use"));
+	}
+
+	private static void collapseHiddenDomains(final MemoryUsage usage, final IProgressMonitor monitor) {
+		if (!PlatformUI.isWorkbenchRunning()) {
+			return;
+		}
+		final Set<String> inUse = new HashSet<String>();
+		PlatformUI.getWorkbench().getDisplay().syncExec(new Runnable() {
+			@Override
+			public void run() {
+				inUse.addAll(findDomainsInUse());
+			}
+		});
+
+		final List<String> collapsed = new ArrayList<String>();
+		final MultiStatus failures = new MultiStatus(Activator.PLUGIN_ID, 0, "Unable to free the memory held by some hidden domains", null);
+		for (final ScaDomainManager domain : new ArrayList<ScaDomainManager>(ScaPlugin.getDefault().getDomainManagerRegistry(null).getDomains())) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			if (domain.getState().getValue() != DomainConnectionState.CONNECTED_VALUE || inUse.contains(domain.getName())) {
+				continue;
+			}
+			try {
+				collapse(domain);
+				collapsed.add(domain.getName());
+			} catch (final RuntimeException e) {
+				failures.add(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to collapse domain " + domain.getName(), e));
+			}
+		}
+		if (!collapsed.isEmpty()) {
+			Activator.getDefault().getLog().log(
+				new Status(IStatus.INFO, Activator.PLUGIN_ID, "Collapsed hidden domains " + collapsed + " to save memory; " + describe(usage) + " in use"));
+		}
+		if (!failures.isOK()) {
+			StatusManager.getManager().handle(failures, StatusManager.LOG | StatusManager.SHOW);
+		}
+	}
+
+	/**
+	 * Drops a domain's children from the model, leaving it connected, as if it had been connected at
+	 * {@link RefreshDepth#SELF}. The children are fetched again when the domain is expanded.
+	 */
+	private static void collapse(final ScaDomainManager domain) {
+		ScaModelCommand.execute(domain, new ScaModelCommand() {
+			@Override
+			public void execute() {
+				domain.eUnset(ScaPackage.Literals.SCA_DOMAIN_MANAGER__WAVEFORMS);
+				domain.eUnset(ScaPackage.Literals.SCA_DOMAIN_MANAGER__DEVICE_MANAGERS);
+				domain.eUnset(ScaPackage.Literals.SCA_DOMAIN_MANAGER__FILE_MANAGER);
+			}
+		});
+	}
+
+	/**
+	 * Finds the domains which the user can see: those expanded in, or shown by, a visible explorer view, and those
+	 * with an open editor. Must be called from the UI thread.
+	 *
+	 * @return the names of the domains in use
+	 */
+	private static Set<String> findDomainsInUse() {
+		final Set<String> names = new HashSet<String>();
+		for (final IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
+			for (final IWorkbenchPage page : window.getPages()) {
+				for (final IViewReference reference : page.getViewReferences()) {
+					if (!ScaExplorerPerspective.VIEW_ID.equals(reference.getId()) && !ScaExplorerSingleDomainPerspective.VIEW_ID.equals(reference.getId())) {
+						continue;
+					}
+					final IViewPart view = reference.getView(false);
+					if (view == null || !page.isPartVisible(view)) {
+						continue;
+					}
+					final ISelectionProvider provider = view.getSite().getSelectionProvider();
+					if (provider instanceof AbstractTreeViewer) {
+						final AbstractTreeViewer viewer = (AbstractTreeViewer) provider;
+						addDomain(names, viewer.getInput());
+						for (final Object element : viewer.getExpandedElements()) {
+							addDomain(names, element);
+						}
+					}
+				}
+				for (final IEditorReference reference : page.getEditorReferences()) {
+					if (PlaceholderEditor.ID.equals(reference.getId())) {
+						// Not restored yet; the placeholder reconnects what it needs
+						continue;
+					}
+					try {
+						addDomain(names, EditorDomains.findDomain(reference.getEditorInput(), reference.getPartName()));
+					} catch (final PartInitException e) {
+						// PASS
+					}
+				}
+			}
+		}
+
+		return names;
+	}
+
+	private static void addDomain(final Set<String> names, final Object element) {
+		final ScaDomainManager domain = EditorDomains.findDomain(element);
+		if (domain != null) {
+			names.add(domain.getName());
+		}
+	}
+
+	private static long percentOf(final MemoryUsage usage) {
+		return usage.getUsed() * MemoryGovernor.PERCENT / usage.getMax();
+	}
+
+	private static String describe(final MemoryUsage usage) {
+		return (usage.getUsed() / MemoryGovernor.BYTES_PER_MEGABYTE) + " of " + (usage.getMax() / MemoryGovernor.BYTES_PER_MEGABYTE) + " MB ("
+			+ percentOf(usage) + "%)";
+	}
+}
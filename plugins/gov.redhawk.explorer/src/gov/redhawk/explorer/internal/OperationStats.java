@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The calls of one kind made to one domain, as reported by {@link RemoteMetricsMXBean}. Times are in
+ * milliseconds; percentiles are estimated from a power-of-two histogram, and may be up to twice the true value.
+ */
+public class OperationStats {
+
+	private final String domain;
+	private final String operation;
+	private final long count;
+	private final long failures;
+	private final long bytes;
+	private final double meanMillis;
+	private final double maxMillis;
+	private final double p50Millis;
+	private final double p99Millis;
+	private final long[] histogram;
+
+	@ConstructorProperties({ "domain", "operation", "count", "failures", "bytes", "meanMillis", "maxMillis", "p50Millis", "p99Millis", "histogram" })
+	public OperationStats(final String domain, final String operation, final long count, final long failures, final long bytes, final double meanMillis,
+		final double maxMillis, final double p50Millis, final double p99Millis, final long[] histogram) {
+		this.domain = domain;
+		this.operation = operation;
+		this.count = count;
+		this.failures = failures;
+		this.bytes = bytes;
+		this.meanMillis = meanMillis;
+		this.maxMillis = maxMillis;
+		this.p50Millis = p50Millis;
+		this.p99Millis = p99Millis;
+		this.histogram = histogram;
+	}
+
+	public String getDomain() {
+		return this.domain;
+	}
+
+	/**
+	 * @return the kind of call, e.g. <code>connect</code> or <code>fileRead</code>
+	 */
+	public String getOperation() {
+		return this.operation;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public long getFailures() {
+		return this.failures;
+	}
+
+	/**
+	 * @return the number of bytes transferred, for file reads
+	 */
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	public double getMeanMillis() {
+		return this.meanMillis;
+	}
+
+	public double getMaxMillis() {
+		return this.maxMillis;
+	}
+
+	public double getP50Millis() {
+		return this.p50Millis;
+	}
+
+	public double getP99Millis() {
+		return this.p99Millis;
+	}
+
+	/**
+	 * @return the call counts by duration: element <i>i</i> counts the calls which took at least
+	 *         2<sup><i>i</i></sup> and less than 2<sup><i>i</i>+1</sup> nanoseconds
+	 */
+	public long[] getHistogram() {
+		return this.histogram;
+	}
+}
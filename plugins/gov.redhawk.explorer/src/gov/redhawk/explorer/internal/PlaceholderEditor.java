@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.wizard.StagedConnect;
+import gov.redhawk.model.sca.DomainConnectionException;
+import gov.redhawk.model.sca.DomainConnectionState;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.sca.ScaPlugin;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorSite;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.part.EditorPart;
+import org.eclipse.ui.progress.WorkbenchJob;
+
+/**
+ * A lightweight stand-in for an editor restored from the last session. Nothing about the real editor is touched
+ * while the placeholder's tab is hidden. The first time the tab is shown, the domain the editor belonged to is
+ * reconnected in the background, and the placeholder then replaces itself with the real editor. If that fails, the
+ * placeholder shows why and lets the user try again.
+ *
+ * @see LazyEditorRestore
+ */
+public class PlaceholderEditor extends EditorPart {
+
+	/**
+	 * The ID of this editor, as registered with the <code>org.eclipse.ui.editors</code> extension point.
+	 */
+	public static final String ID = "gov.redhawk.explorer.placeholderEditor";
+
+	private Label message;
+	private Button retryButton;
+	private Job connectJob;
+
+	@Override
+	public void init(final IEditorSite site, final IEditorInput input) throws PartInitException {
+		if (!(input instanceof PlaceholderEditorInput)) {
+			throw new PartInitException("Invalid input: " + input);
+		}
+		setSite(site);
+		setInput(input);
+		setPartName(input.getName());
+		setTitleToolTip(input.getToolTipText());
+	}
+
+	@Override
+	public void createPartControl(final Composite parent) {
+		final Composite composite = new Composite(parent, SWT.NONE);
+		composite.setLayout(new GridLayout(1, false));
+		this.message = new Label(composite, SWT.WRAP);
+		this.message.setLayoutData(new GridData(SWT.FILL, SWT.TOP, true, false));
+		this.retryButton = new Button(composite, SWT.PUSH);
+		this.retryButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(final SelectionEvent e) {
+				restore();
+			}
+		});
+
+		// Placeholders made while the workbench shuts down are shown briefly; leave those alone unless asked
+		if (LazyEditorRestore.isShuttingDown()) {
+			this.message.setText("Saved " + getPartName() + " for the next session.");
+			this.retryButton.setText("&Restore");
+			this.retryButton.setVisible(true);
+		} else {
+			restore();
+		}
+	}
+
+	private PlaceholderEditorInput getPlaceholderInput() {
+		return (PlaceholderEditorInput) getEditorInput();
+	}
+
+	/**
+	 * Reconnects the domains in the background, then replaces this placeholder with the real editor.
+	 */
+	private void restore() {
+		if (this.connectJob != null) {
+			return;
+		}
+		final PlaceholderEditorInput input = getPlaceholderInput();
+		this.message.setText("Restoring " + input.getName() + "...");
+		this.retryButton.setText("&Retry");
+		this.retryButton.setVisible(false);
+
+		this.connectJob = new Job("Restoring " + input.getName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				final MultiStatus status;
+				try {
+					status = connectDomains(input, monitor);
+				} catch (final InterruptedException e) {
+					return Status.CANCEL_STATUS;
+				}
+				final WorkbenchJob openJob = new WorkbenchJob("Opening " + input.getName()) {
+					@Override
+					public IStatus runInUIThread(final IProgressMonitor uiMonitor) {
+						PlaceholderEditor.this.connectJob = null;
+						if (PlaceholderEditor.this.message.isDisposed()) {
+							return Status.OK_STATUS;
+						}
+						// A domain that couldn't be reconnected may not be one the editor needs, so try to open it anyway
+						final IStatus openStatus = openRealEditor();
+						if (openStatus.isOK() || status.isOK()) {
+							showError(openStatus);
+						} else {
+							status.add(openStatus);
+							showError(status);
+						}
+						return Status.OK_STATUS;
+					}
+				};
+				openJob.setSystem(true);
+				openJob.schedule();
+				return Status.OK_STATUS;
+			}
+		};
+		this.connectJob.setSystem(true);
+		this.connectJob.schedule();
+	}
+
+	private static MultiStatus connectDomains(final PlaceholderEditorInput input, final IProgressMonitor monitor) throws InterruptedException {
+		final MultiStatus status = new MultiStatus(Activator.PLUGIN_ID, 0, "Unable to reconnect to the domains of " + input.getName(), null);
+		for (final String domainName : input.getDomainNames()) {
+			final ScaDomainManager domain = ScaPlugin.getDefault().getDomainManagerRegistry(null).findDomain(domainName);
+			if (domain == null || domain.getState().getValue() == DomainConnectionState.CONNECTED_VALUE) {
+				continue;
+			}
+			try {
+				StagedConnect.connect(domain, monitor);
+			} catch (final DomainConnectionException e) {
+				status.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + domainName, e));
+			}
+		}
+		return status;
+	}
+
+	/**
+	 * Recreates the real input and opens the real editor in place of this one.
+	 *
+	 * @return the reason the editor couldn't be opened, or an OK status
+	 */
+	private IStatus openRealEditor() {
+		final PlaceholderEditorInput input = getPlaceholderInput();
+		final IEditorInput realInput;
+		try {
+			realInput = input.createRealInput();
+		} catch (final CoreException e) {
+			return e.getStatus();
+		}
+		final IWorkbenchPage page = getSite().getPage();
+		try {
+			page.openEditor(realInput, input.getEditorId(), page.getActivePart() == this);
+		} catch (final PartInitException e) {
+			return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to restore " + input.getName(), e);
+		}
+		page.closeEditor(this, false);
+		return Status.OK_STATUS;
+	}
+
+	private void showError(final IStatus status) {
+		if (status.isOK() || this.message.isDisposed()) {
+			return;
+		}
+		Activator.getDefault().getLog().log(status);
+		final StringBuilder text = new StringBuilder(status.getMessage());
+		for (final IStatus child : status.getChildren()) {
+			text.append('\n').append(child.getMessage());
+		}
+		this.message.setText(text.toString());
+		this.retryButton.setVisible(true);
+		this.message.getParent().layout();
+	}
+
+	@Override
+	public void setFocus() {
+		if (this.retryButton != null && this.retryButton.isVisible()) {
+			this.retryButton.setFocus();
+		} else if (this.message != null) {
+			this.message.getParent().setFocus();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		if (this.connectJob != null) {
+			this.connectJob.cancel();
+		}
+		super.dispose();
+	}
+
+	@Override
+	public void doSave(final IProgressMonitor monitor) {
+		// PASS
+	}
+
+	@Override
+	public void doSaveAs() {
+		// PASS
+	}
+
+	@Override
+	public boolean isDirty() {
+		return false;
+	}
+
+	@Override
+	public boolean isSaveAsAllowed() {
+		return false;
+	}
+}
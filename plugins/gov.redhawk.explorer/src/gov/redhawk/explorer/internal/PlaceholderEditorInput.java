@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IElementFactory;
+import org.eclipse.ui.IMemento;
+import org.eclipse.ui.IPersistableElement;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.XMLMemento;
+
+/**
+ * Stands in for the input of an editor that was open when Explorer last shut down. It holds the editor's ID and its
+ * real input in persisted form, along with the domain the editor belonged to, so the
+ * {@link PlaceholderEditor} can recreate the real editor later. The input is persisted through
+ * {@link PlaceholderEditorInputFactory}.
+ */
+public class PlaceholderEditorInput implements IEditorInput, IPersistableElement {
+
+	private final String editorId;
+	private final String factoryId;
+	private final IMemento inputState;
+	// The input state in serialized form, which tells apart placeholders for editors with the same label
+	private final String inputKey;
+	private final String name;
+	private final String toolTipText;
+	private final List<String> domainNames;
+
+	/**
+	 * @param editorId the ID of the editor to restore
+	 * @param factoryId the ID of the element factory which recreates the editor's input
+	 * @param inputState the editor's input as saved by its {@link IPersistableElement}
+	 * @param name the editor's tab label
+	 * @param toolTipText the editor's tab tool tip
+	 * @param domainNames the domains to connect to before the editor is restored
+	 */
+	public PlaceholderEditorInput(final String editorId, final String factoryId, final IMemento inputState, final String name, final String toolTipText,
+		final List<String> domainNames) {
+		this.editorId = editorId;
+		this.factoryId = factoryId;
+		this.inputState = inputState;
+		this.inputKey = PlaceholderEditorInput.serialize(inputState);
+		this.name = name;
+		this.toolTipText = toolTipText;
+		this.domainNames = Collections.unmodifiableList(new ArrayList<String>(domainNames));
+	}
+
+	/**
+	 * @return the ID of the editor to restore
+	 */
+	public String getEditorId() {
+		return this.editorId;
+	}
+
+	/**
+	 * @return the ID of the element factory which recreates the editor's input
+	 */
+	public String getInputFactoryId() {
+		return this.factoryId;
+	}
+
+	/**
+	 * @return the editor's input as saved by its {@link IPersistableElement}
+	 */
+	public IMemento getInputState() {
+		return this.inputState;
+	}
+
+	/**
+	 * @return the domains to connect to before the editor is restored
+	 */
+	public List<String> getDomainNames() {
+		return this.domainNames;
+	}
+
+	/**
+	 * Recreates the real input from its persisted form. Must be called from the UI thread.
+	 *
+	 * @return the editor's real input
+	 * @throws CoreException if the input couldn't be recreated
+	 */
+	public IEditorInput createRealInput() throws CoreException {
+		final IElementFactory factory = PlatformUI.getWorkbench().getElementFactory(this.factoryId);
+		if (factory == null) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to restore " + this.name + ": unknown element factory "
+				+ this.factoryId));
+		}
+		final IAdaptable element = factory.createElement(this.inputState);
+		if (!(element instanceof IEditorInput)) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to restore " + this.name + ": it no longer exists"));
+		}
+		return (IEditorInput) element;
+	}
+
+	@Override
+	public boolean exists() {
+		return true;
+	}
+
+	@Override
+	public ImageDescriptor getImageDescriptor() {
+		return null;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public IPersistableElement getPersistable() {
+		return this;
+	}
+
+	@Override
+	public String getToolTipText() {
+		return this.toolTipText;
+	}
+
+	@Override
+	public <T> T getAdapter(final Class<T> adapter) {
+		return null;
+	}
+
+	@Override
+	public String getFactoryId() {
+		return PlaceholderEditorInputFactory.ID;
+	}
+
+	@Override
+	public void saveState(final IMemento memento) {
+		PlaceholderEditorInputFactory.saveState(this, memento);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PlaceholderEditorInput)) {
+			return false;
+		}
+		final PlaceholderEditorInput other = (PlaceholderEditorInput) obj;
+		return this.editorId.equals(other.editorId) && this.factoryId.equals(other.factoryId) && this.name.equals(other.name)
+			&& String.valueOf(this.toolTipText).equals(String.valueOf(other.toolTipText)) && this.inputKey.equals(other.inputKey);
+	}
+
+	@Override
+	public int hashCode() {
+		return (this.editorId.hashCode() * 31 + this.name.hashCode()) * 31 + this.inputKey.hashCode(); // SUPPRESS CHECKSTYLE MagicNumber
+	}
+
+	private static String serialize(final IMemento memento) {
+		final XMLMemento copy = XMLMemento.createWriteRoot("input"); //$NON-NLS-1$
+		copy.putMemento(memento);
+		final StringWriter writer = new StringWriter();
+		try {
+			copy.save(writer);
+		} catch (final IOException e) {
+			// PASS
+		}
+		return writer.toString();
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.ui.IElementFactory;
+import org.eclipse.ui.IMemento;
+import org.eclipse.ui.XMLMemento;
+
+/**
+ * Saves and recreates {@link PlaceholderEditorInput}s. Recreating a placeholder only reads the memento; the real
+ * input isn't recreated until the placeholder editor is shown.
+ *
+ * @see IMemento
+ * @see IElementFactory
+ */
+public class PlaceholderEditorInputFactory implements IElementFactory {
+
+	/**
+	 * The ID of this factory, as registered with the <code>org.eclipse.ui.elementFactories</code> extension point.
+	 */
+	public static final String ID = "gov.redhawk.explorer.placeholderEditorInputFactory"; //$NON-NLS-1$
+
+	// These persistence constants are stored in XML.  Do not
+	// change them.
+	private static final String TAG_EDITOR_ID = "editorId"; //$NON-NLS-1$
+
+	private static final String TAG_FACTORY_ID = "factoryId"; //$NON-NLS-1$
+
+	private static final String TAG_NAME = "name"; //$NON-NLS-1$
+
+	private static final String TAG_TOOL_TIP = "toolTip"; //$NON-NLS-1$
+
+	private static final String TAG_INPUT = "input"; //$NON-NLS-1$
+
+	private static final String TAG_DOMAIN = "domain"; //$NON-NLS-1$
+
+	/**
+	 * @see IElementFactory
+	 */
+	@Override
+	public IAdaptable createElement(final IMemento memento) {
+		final String editorId = memento.getString(PlaceholderEditorInputFactory.TAG_EDITOR_ID);
+		final String factoryId = memento.getString(PlaceholderEditorInputFactory.TAG_FACTORY_ID);
+		final IMemento input = memento.getChild(PlaceholderEditorInputFactory.TAG_INPUT);
+		if (editorId == null || factoryId == null || input == null) {
+			return null;
+		}
+		final List<String> domainNames = new ArrayList<String>();
+		for (final IMemento domain : memento.getChildren(PlaceholderEditorInputFactory.TAG_DOMAIN)) {
+			if (domain.getString(PlaceholderEditorInputFactory.TAG_NAME) != null) {
+				domainNames.add(domain.getString(PlaceholderEditorInputFactory.TAG_NAME));
+			}
+		}
+		String name = memento.getString(PlaceholderEditorInputFactory.TAG_NAME);
+		if (name == null) {
+			name = editorId;
+		}
+		return new PlaceholderEditorInput(editorId, factoryId, PlaceholderEditorInputFactory.copy(input), name,
+			memento.getString(PlaceholderEditorInputFactory.TAG_TOOL_TIP), domainNames);
+	}
+
+	/**
+	 * Saves a placeholder to a memento.
+	 *
+	 * @param input the placeholder to save
+	 * @param memento the memento to save it to
+	 */
+	static void saveState(final PlaceholderEditorInput input, final IMemento memento) {
+		memento.putString(PlaceholderEditorInputFactory.TAG_EDITOR_ID, input.getEditorId());
+		memento.putString(PlaceholderEditorInputFactory.TAG_FACTORY_ID, input.getInputFactoryId());
+		memento.putString(PlaceholderEditorInputFactory.TAG_NAME, input.getName());
+		memento.putString(PlaceholderEditorInputFactory.TAG_TOOL_TIP, input.getToolTipText());
+		memento.createChild(PlaceholderEditorInputFactory.TAG_INPUT).putMemento(input.getInputState());
+		for (final String domainName : input.getDomainNames()) {
+			memento.createChild(PlaceholderEditorInputFactory.TAG_DOMAIN).putString(PlaceholderEditorInputFactory.TAG_NAME, domainName);
+		}
+	}
+
+	/**
+	 * Copies a memento, so that it outlives the workbench state it was read from.
+	 *
+	 * @param memento the memento to copy
+	 * @return a copy of the memento
+	 */
+	static IMemento copy(final IMemento memento) {
+		final XMLMemento copy = XMLMemento.createWriteRoot(PlaceholderEditorInputFactory.TAG_INPUT);
+		copy.putMemento(memento);
+		return copy;
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+/**
+ * What was learned about a waveform profile (SAD file) on a domain's file system.
+ */
+public final class ProfileInfo {
+
+	private final long size;
+	private final Long modified;
+	private final int componentCount;
+	private final String description;
+	private final String problem;
+
+	/**
+	 * @param size the size of the profile
+	 * @param modified the modification time of the profile, or null if unknown
+	 * @param componentCount the number of component instantiations in the profile
+	 * @param description the profile's description, or null
+	 * @param problem why the profile can't be launched, or null if it can
+	 */
+	ProfileInfo(final long size, final Long modified, final int componentCount, final String description, final String problem) {
+		this.size = size;
+		this.modified = modified;
+		this.componentCount = componentCount;
+		this.description = description;
+		this.problem = problem;
+	}
+
+	/**
+	 * @param problem why the profile can't be launched
+	 * @return information for a profile that can't be launched
+	 */
+	static ProfileInfo unlaunchable(final String problem) {
+		return new ProfileInfo(-1, null, 0, null, problem);
+	}
+
+	long getSize() {
+		return this.size;
+	}
+
+	Long getModified() {
+		return this.modified;
+	}
+
+	/**
+	 * @return the number of component instantiations in the profile
+	 */
+	public int getComponentCount() {
+		return this.componentCount;
+	}
+
+	/**
+	 * @return the profile's description, or null if it doesn't have one
+	 */
+	public String getDescription() {
+		return this.description;
+	}
+
+	/**
+	 * @return a message describing why the waveform can't be launched, or null if it looks launchable
+	 */
+	public String getProblem() {
+		return this.problem;
+	}
+
+	/**
+	 * @return true if the profile exists and could be parsed
+	 */
+	public boolean isLaunchable() {
+		return this.problem == null;
+	}
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.omg.CORBA.SystemException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import CF.File;
+import CF.FileException;
+import CF.FileHelper;
+import CF.FileInformationType;
+import CF.FileSystemOperations;
+import CF.InvalidFileName;
+
+/**
+ * Checks waveform profiles on a domain's file system and remembers what was found. A profile is only fetched and
+ * parsed again when its size or modification time changes, so checking an unchanged profile costs a single
+ * {@link FileSystemOperations#list(String)} call.
+ */
+public class ProfileInfoCache {
+
+	private static final String SOFTWARE_ASSEMBLY = "softwareassembly"; //$NON-NLS-1$
+	private static final String DESCRIPTION = "description"; //$NON-NLS-1$
+	private static final String COMPONENT_INSTANTIATION = "componentinstantiation"; //$NON-NLS-1$
+
+	private final Map<String, ProfileInfo> entries = new ConcurrentHashMap<String, ProfileInfo>();
+
+	/**
+	 * Checks a waveform profile. May be called from several threads at once.
+	 *
+	 * @param domainName the name of the domain the profile belongs to
+	 * @param fileSystem the domain's file system
+	 * @param path the path of the profile in the domain's file system
+	 * @param monitor the monitor used to cancel reading from the domain, may be null
+	 * @return what was found, or null if the domain couldn't be asked
+	 */
+	public ProfileInfo check(final String domainName, final FileSystemOperations fileSystem, final String path, final IProgressMonitor monitor) {
+		final FileInformationType fileInfo;
+		try {
+			final FileInformationType[] results = fileSystem.list(path);
+			if (results == null || results.length == 0) {
+				return ProfileInfo.unlaunchable("Unable to find waveform profile: " + path);
+			}
+			fileInfo = results[0];
+		} catch (final InvalidFileName e) {
+			return ProfileInfo.unlaunchable("Unable to find waveform profile: " + path);
+		} catch (final FileException e) {
+			return null;
+		} catch (final SystemException e) {
+			return null;
+		}
+
+		final String key = domainName + '\n' + path;
+		final Long modified = StartupCatalogCache.getModifiedTime(fileInfo);
+		final ProfileInfo cached = this.entries.get(key);
+		if (cached != null && modified != null && modified.equals(cached.getModified()) && cached.getSize() == fileInfo.size) {
+			return cached;
+		}
+
+		final ProfileInfo info = parse(domainName, fileSystem, path, fileInfo.size, modified, monitor);
+		if (info != null && modified != null) {
+			this.entries.put(key, info);
+		}
+		return info;
+	}
+
+	/**
+	 * Forgets everything learned about the profiles.
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+
+	private ProfileInfo parse(final String domainName, final FileSystemOperations fileSystem, final String path, final long size, final Long modified,
+		final IProgressMonitor monitor) {
+		final File file;
+		final long start = System.nanoTime();
+		try {
+			file = FileHelper.unchecked_narrow(CorbaTimeouts.inheritTimeout(fileSystem.open(path, true), fileSystem));
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, false);
+		} catch (final InvalidFileName e) {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, true);
+			return ProfileInfo.unlaunchable("Unable to find waveform profile: " + path);
+		} catch (final FileException e) {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, true);
+			return ProfileInfo.unlaunchable("Unable to open waveform profile: " + path);
+		} catch (final SystemException e) {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, true);
+			return null;
+		}
+
+		final InputStream in = new CFFileInputStream(domainName, file, monitor, CFFileInputStream.DEFAULT_CHUNK_SIZE, 1);
+		try {
+			final SoftwareAssemblyHandler handler = new SoftwareAssemblyHandler();
+			SAXParserFactory.newInstance().newSAXParser().parse(in, handler);
+			return new ProfileInfo(size, modified, handler.componentCount, handler.getDescription(), null);
+		} catch (final SAXException e) {
+			return new ProfileInfo(size, modified, 0, null, "Unable to parse waveform profile: " + path);
+		} catch (final ParserConfigurationException e) {
+			return null;
+		} catch (final IOException e) {
+			// Includes cancellation; nothing is known about the profile
+			return null;
+		} finally {
+			try {
+				in.close();
+			} catch (final IOException e) {
+				// PASS
+			}
+		}
+	}
+
+	/**
+	 * Counts the component instantiations of a SAD file and collects its description.
+	 */
+	private static class SoftwareAssemblyHandler extends DefaultHandler {
+		private int depth;
+		private int componentCount;
+		private StringBuilder description;
+		private boolean inDescription;
+
+		@Override
+		public InputSource resolveEntity(final String publicId, final String systemId) {
+			// SADs name their DTD by a relative path, which can't be resolved from a stream; counting doesn't need it
+			return new InputSource(new StringReader(""));
+		}
+
+		@Override
+		public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+			this.depth++;
+			if (this.depth == 1 && !ProfileInfoCache.SOFTWARE_ASSEMBLY.equals(qName)) {
+				throw new SAXException("Not a software assembly");
+			}
+			if (this.depth == 2 && ProfileInfoCache.DESCRIPTION.equals(qName)) {
+				this.description = new StringBuilder();
+				this.inDescription = true;
+			} else if (ProfileInfoCache.COMPONENT_INSTANTIATION.equals(qName)) {
+				this.componentCount++;
+			}
+		}
+
+		@Override
+		public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+			if (this.depth == 2) {
+				this.inDescription = false;
+			}
+			this.depth--;
+		}
+
+		@Override
+		public void characters(final char[] ch, final int start, final int length) throws SAXException {
+			if (this.inDescription) {
+				this.description.append(ch, start, length);
+			}
+		}
+
+		String getDescription() {
+			if (this.description == null) {
+				return null;
+			}
+			final String text = this.description.toString().trim();
+			return (text.length() == 0) ? null : text;
+		}
+	}
+}
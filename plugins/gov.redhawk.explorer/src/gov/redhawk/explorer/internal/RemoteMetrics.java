@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Counts and times Explorer's calls to its domains, by domain and kind of call, so that a slow domain can be found
+ * while Explorer is running. The figures are published as an MXBean named {@link #OBJECT_NAME} in the platform
+ * MBean server, where JConsole or Mission Control can read them by attaching to the running Explorer.
+ * <p/>
+ * Recording a call is lock free and, once a domain has been seen, allocates nothing. Setting
+ * {@link #ENABLED_PROPERTY} to false turns recording off.
+ */
+public final class RemoteMetrics implements RemoteMetricsMXBean {
+
+	/**
+	 * The kinds of call recorded.
+	 */
+	public enum Operation {
+		/** Connecting to a domain. */
+		CONNECT("connect"),
+		/** Listing a domain's applications. */
+		APPLICATIONS("applications"),
+		/** Opening a file in a domain's file manager. */
+		FILE_OPEN("fileOpen"),
+		/** Reading a chunk of a file; also counts the bytes read. */
+		FILE_READ("fileRead"),
+		/** Creating, and starting, a waveform. */
+		LAUNCH("launch"),
+		/** Opening the editor of a waveform. */
+		EDITOR_OPEN("editorOpen");
+
+		private final String id;
+
+		private Operation(final String id) {
+			this.id = id;
+		}
+
+		public String getId() {
+			return this.id;
+		}
+	}
+
+	/**
+	 * The name the metrics are registered under in the platform MBean server.
+	 */
+	public static final String OBJECT_NAME = "gov.redhawk.explorer:type=RemoteMetrics"; //$NON-NLS-1$
+
+	/**
+	 * System property which turns recording off when set to false.
+	 */
+	public static final String ENABLED_PROPERTY = "gov.redhawk.explorer.metrics";
+
+	private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(RemoteMetrics.ENABLED_PROPERTY));
+
+	// Calls whose domain isn't known are recorded under this name
+	private static final String UNKNOWN_DOMAIN = "(unknown)"; //$NON-NLS-1$
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private static final RemoteMetrics INSTANCE = new RemoteMetrics();
+
+	private final ConcurrentMap<String, LatencyHistogram[]> domains = new ConcurrentHashMap<String, LatencyHistogram[]>();
+
+	private RemoteMetrics() {
+	}
+
+	/**
+	 * Records a call.
+	 *
+	 * @param domainName the domain called, or null if it isn't known
+	 * @param operation the kind of call
+	 * @param startNanos the {@link System#nanoTime()} at which the call started
+	 * @param failed true if the call failed
+	 */
+	public static void record(final String domainName, final Operation operation, final long startNanos, final boolean failed) {
+		if (RemoteMetrics.ENABLED) {
+			RemoteMetrics.INSTANCE.getHistogram(domainName, operation).record(System.nanoTime() - startNanos, failed);
+		}
+	}
+
+	/**
+	 * Records the bytes transferred by a call.
+	 *
+	 * @param domainName the domain called, or null if it isn't known
+	 * @param operation the kind of call
+	 * @param count the number of bytes
+	 */
+	public static void recordBytes(final String domainName, final Operation operation, final long count) {
+		if (RemoteMetrics.ENABLED) {
+			RemoteMetrics.INSTANCE.getHistogram(domainName, operation).addBytes(count);
+		}
+	}
+
+	/**
+	 * Publishes the metrics in the platform MBean server.
+	 */
+	public static void register() {
+		if (!RemoteMetrics.ENABLED) {
+			return;
+		}
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(RemoteMetrics.OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				// Left behind by an earlier start of this plug-in
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(RemoteMetrics.INSTANCE, name);
+		} catch (final JMException e) {
+			Activator.getDefault().getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to publish remote call metrics", e));
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server.
+	 */
+	public static void unregister() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(RemoteMetrics.OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (final JMException e) {
+			// PASS
+		}
+	}
+
+	private LatencyHistogram getHistogram(final String domainName, final Operation operation) {
+		final String key = (domainName == null) ? RemoteMetrics.UNKNOWN_DOMAIN : domainName;
+		LatencyHistogram[] histograms = this.domains.get(key);
+		if (histograms == null) {
+			final LatencyHistogram[] created = new LatencyHistogram[Operation.values().length];
+			for (int i = 0; i < created.length; i++) {
+				created[i] = new LatencyHistogram();
+			}
+			histograms = this.domains.putIfAbsent(key, created);
+			if (histograms == null) {
+				histograms = created;
+			}
+		}
+		return histograms[operation.ordinal()];
+	}
+
+	@Override
+	public String[] getDomains() {
+		final List<String> names = new ArrayList<String>(this.domains.keySet());
+		Collections.sort(names);
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public List<OperationStats> getOperations() {
+		final List<OperationStats> stats = new ArrayList<OperationStats>();
+		for (final String domain : getDomains()) {
+			for (final Operation operation : Operation.values()) {
+				final OperationStats entry = getStats(domain, operation);
+				if (entry != null) {
+					stats.add(entry);
+				}
+			}
+		}
+		return stats;
+	}
+
+	@Override
+	public List<OperationStats> getSlowestDomains(final String operation) {
+		final List<OperationStats> stats = new ArrayList<OperationStats>();
+		for (final Operation candidate : Operation.values()) {
+			if (!candidate.getId().equals(operation)) {
+				continue;
+			}
+			for (final String domain : getDomains()) {
+				final OperationStats entry = getStats(domain, candidate);
+				if (entry != null) {
+					stats.add(entry);
+				}
+			}
+		}
+		Collections.sort(stats, new Comparator<OperationStats>() {
+			@Override
+			public int compare(final OperationStats o1, final OperationStats o2) {
+				return Double.compare(o2.getP99Millis(), o1.getP99Millis());
+			}
+		});
+		return stats;
+	}
+
+	private OperationStats getStats(final String domain, final Operation operation) {
+		final LatencyHistogram[] histograms = this.domains.get(domain);
+		if (histograms == null) {
+			return null;
+		}
+		final LatencyHistogram histogram = histograms[operation.ordinal()];
+		final long count = histogram.getCount();
+		if (count == 0) {
+			return null;
+		}
+		final long[] buckets = histogram.getBuckets();
+		final long max = histogram.getMaxNanos();
+		// A bucket's upper bound can overstate the slowest call actually seen
+		return new OperationStats(domain, operation.getId(), count, histogram.getFailures(), histogram.getBytes(),
+			histogram.getTotalNanos() / RemoteMetrics.NANOS_PER_MILLI / count, max / RemoteMetrics.NANOS_PER_MILLI,
+			Math.min(LatencyHistogram.getPercentile(buckets, 50), max) / RemoteMetrics.NANOS_PER_MILLI,
+			Math.min(LatencyHistogram.getPercentile(buckets, 99), max) / RemoteMetrics.NANOS_PER_MILLI, buckets);
+	}
+
+	@Override
+	public void reset() {
+		for (final Map.Entry<String, LatencyHistogram[]> entry : this.domains.entrySet()) {
+			for (final LatencyHistogram histogram : entry.getValue()) {
+				histogram.reset();
+			}
+		}
+	}
+}
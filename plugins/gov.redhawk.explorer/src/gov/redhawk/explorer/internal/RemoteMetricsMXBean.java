@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import java.util.List;
+
+/**
+ * Explorer's calls to its domains, registered as {@link RemoteMetrics#OBJECT_NAME} in the platform MBean server.
+ */
+public interface RemoteMetricsMXBean {
+
+	/**
+	 * @return the names of the domains calls have been made to
+	 */
+	String[] getDomains();
+
+	/**
+	 * @return every kind of call made to every domain
+	 */
+	List<OperationStats> getOperations();
+
+	/**
+	 * @param operation a kind of call, e.g. <code>connect</code>
+	 * @return the calls of that kind to each domain, slowest first by 99th percentile
+	 */
+	List<OperationStats> getSlowestDomains(String operation);
+
+	/**
+	 * Forgets everything recorded so far.
+	 */
+	void reset();
+}
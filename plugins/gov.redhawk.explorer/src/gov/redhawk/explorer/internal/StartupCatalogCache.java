@@ -0,0 +1,405 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Properties;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.omg.CORBA.Any;
+import org.omg.CORBA.BAD_OPERATION;
+import org.omg.CORBA.SystemException;
+import org.omg.CORBA.TCKind;
+
+import CF.DataType;
+import CF.File;
+import CF.FileException;
+import CF.FileHelper;
+import CF.FileInformationType;
+import CF.FileSystemOperations;
+import CF.InvalidFileName;
+
+/**
+ * Keeps a local copy of files read from a domain's file system (such as the Startup Wizard's catalog) so they can
+ * be shown without waiting on the domain. Each entry is keyed by domain name and file path, and is considered
+ * current for as long as the size and modification time reported by the domain's FileManager are unchanged.
+ */
+public class StartupCatalogCache {
+
+	// Property ID of the modification time in CF::FileSystem::FileInformationType
+	private static final String MODIFIED_TIME_ID = "MODIFIED_TIME"; //$NON-NLS-1$
+
+	private static final String DATA_EXTENSION = ".xml"; //$NON-NLS-1$
+	private static final String INFO_EXTENSION = ".properties"; //$NON-NLS-1$
+
+	private static final String KEY_PATH = "path"; //$NON-NLS-1$
+	private static final String KEY_SIZE = "size"; //$NON-NLS-1$
+	private static final String KEY_MODIFIED = "modified"; //$NON-NLS-1$
+
+	private final java.io.File directory;
+
+	/**
+	 * @param directory the local directory the cache entries are stored in
+	 */
+	public StartupCatalogCache(final java.io.File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Opens the cached copy of the file without contacting the domain.
+	 *
+	 * @param domainName the name of the domain the file belongs to
+	 * @param path the path of the file in the domain's file system
+	 * @return a stream over the cached contents, or null if nothing is cached for the file
+	 */
+	public synchronized InputStream openCached(final String domainName, final String path) {
+		final Properties info = readInfo(domainName);
+		if (info == null || !path.equals(info.getProperty(StartupCatalogCache.KEY_PATH))) {
+			return null;
+		}
+		try {
+			return new FileInputStream(getDataFile(domainName));
+		} catch (final IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Opens the current contents of the file. The cached copy is used if it is current; otherwise the file is
+	 * streamed from the domain and cached as it is read.
+	 *
+	 * @param domainName the name of the domain the file belongs to
+	 * @param fileSystem the domain's file system
+	 * @param path the path of the file in the domain's file system
+	 * @param monitor the monitor used to cancel reading from the domain, may be null
+	 * @return a stream over the current contents of the file
+	 * @throws CoreException if the file could not be found or opened
+	 */
+	public InputStream open(final String domainName, final FileSystemOperations fileSystem, final String path, final IProgressMonitor monitor)
+		throws CoreException {
+		final FileInformationType fileInfo = stat(fileSystem, path);
+		if (isCurrent(domainName, path, fileInfo)) {
+			final InputStream cached = openCached(domainName, path);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		return download(domainName, fileSystem, path, fileInfo, monitor);
+	}
+
+	/**
+	 * Checks the cached copy of the file against the domain and streams the file from the domain if it has changed.
+	 *
+	 * @param domainName the name of the domain the file belongs to
+	 * @param fileSystem the domain's file system
+	 * @param path the path of the file in the domain's file system
+	 * @param monitor the monitor used to cancel reading from the domain, may be null
+	 * @return a stream over the new contents of the file, or null if the cached copy is still current
+	 * @throws CoreException if the file could not be found or opened
+	 */
+	public InputStream revalidate(final String domainName, final FileSystemOperations fileSystem, final String path, final IProgressMonitor monitor)
+		throws CoreException {
+		final FileInformationType fileInfo = stat(fileSystem, path);
+		if (isCurrent(domainName, path, fileInfo)) {
+			return null;
+		}
+		return download(domainName, fileSystem, path, fileInfo, monitor);
+	}
+
+	/**
+	 * Removes the cached copy of a domain's file.
+	 *
+	 * @param domainName the name of the domain
+	 */
+	public synchronized void remove(final String domainName) {
+		getDataFile(domainName).delete();
+		getInfoFile(domainName).delete();
+	}
+
+	private synchronized boolean isCurrent(final String domainName, final String path, final FileInformationType fileInfo) {
+		final Properties info = readInfo(domainName);
+		if (info == null || !path.equals(info.getProperty(StartupCatalogCache.KEY_PATH))
+			|| !Long.toString(fileInfo.size).equals(info.getProperty(StartupCatalogCache.KEY_SIZE))) {
+			return false;
+		}
+		final Long modified = getModifiedTime(fileInfo);
+		return modified != null && modified.toString().equals(info.getProperty(StartupCatalogCache.KEY_MODIFIED));
+	}
+
+	private FileInformationType stat(final FileSystemOperations fileSystem, final String path) throws CoreException {
+		try {
+			final FileInformationType[] results = fileSystem.list(path);
+			if (results == null || results.length == 0) {
+				throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to find configuration file: " + path));
+			}
+			return results[0];
+		} catch (final InvalidFileName e) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to find configuration file: " + path, e));
+		} catch (final FileException e) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to open configuration file: " + path, e));
+		} catch (final SystemException e) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to open configuration file: " + path, e));
+		}
+	}
+
+	private InputStream download(final String domainName, final FileSystemOperations fileSystem, final String path, final FileInformationType fileInfo,
+		final IProgressMonitor monitor) throws CoreException {
+		final File file;
+		final long start = System.nanoTime();
+		try {
+			// Reads from the file time out like calls on the file system do
+			file = FileHelper.unchecked_narrow(CorbaTimeouts.inheritTimeout(fileSystem.open(path, true), fileSystem));
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, false);
+		} catch (final InvalidFileName e) {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, true);
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to find configuration file: " + path, e));
+		} catch (final FileException e) {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, true);
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to open configuration file: " + path, e));
+		} catch (final SystemException e) {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.FILE_OPEN, start, true);
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to open configuration file: " + path, e));
+		}
+
+		final Properties info = new Properties();
+		info.setProperty(StartupCatalogCache.KEY_PATH, path);
+		info.setProperty(StartupCatalogCache.KEY_SIZE, Long.toString(fileInfo.size));
+		final Long modified = getModifiedTime(fileInfo);
+		if (modified != null) {
+			info.setProperty(StartupCatalogCache.KEY_MODIFIED, modified.toString());
+		}
+		return new CachingInputStream(new CFFileInputStream(domainName, file, monitor), domainName, info);
+	}
+
+	/**
+	 * Commits a completely read file to the cache.
+	 */
+	private synchronized void store(final String domainName, final java.io.File tempFile, final Properties info) {
+		final java.io.File dataFile = getDataFile(domainName);
+		final java.io.File infoFile = getInfoFile(domainName);
+		// The info is removed first so a partially replaced entry is never mistaken for a current one
+		infoFile.delete();
+		dataFile.delete();
+		if (!tempFile.renameTo(dataFile)) {
+			tempFile.delete();
+			return;
+		}
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(infoFile);
+			info.store(out, null);
+		} catch (final IOException e) {
+			infoFile.delete();
+			Activator.getDefault().getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to cache catalog for domain " + domainName, e));
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (final IOException e) {
+					// PASS
+				}
+			}
+		}
+	}
+
+	private Properties readInfo(final String domainName) {
+		final java.io.File infoFile = getInfoFile(domainName);
+		if (!infoFile.isFile() || !getDataFile(domainName).isFile()) {
+			return null;
+		}
+		InputStream in = null;
+		try {
+			in = new FileInputStream(infoFile);
+			final Properties info = new Properties();
+			info.load(in);
+			return info;
+		} catch (final IOException e) {
+			return null;
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (final IOException e) {
+					// PASS
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param fileInfo a file's information as listed by its file system
+	 * @return the file's modification time, or null if the file system doesn't report one
+	 */
+	public static Long getModifiedTime(final FileInformationType fileInfo) {
+		if (fileInfo.fileProperties == null) {
+			return null;
+		}
+		for (final DataType prop : fileInfo.fileProperties) {
+			if (StartupCatalogCache.MODIFIED_TIME_ID.equals(prop.id)) {
+				return toLong(prop.value);
+			}
+		}
+		return null;
+	}
+
+	private static Long toLong(final Any any) {
+		try {
+			final TCKind kind = any.type().kind();
+			if (kind.value() == TCKind._tk_ulonglong) {
+				return any.extract_ulonglong();
+			} else if (kind.value() == TCKind._tk_longlong) {
+				return any.extract_longlong();
+			} else if (kind.value() == TCKind._tk_ulong) {
+				return (long) any.extract_ulong();
+			} else if (kind.value() == TCKind._tk_long) {
+				return (long) any.extract_long();
+			} else if (kind.value() == TCKind._tk_double) {
+				return (long) any.extract_double();
+			}
+		} catch (final BAD_OPERATION e) {
+			// PASS
+		}
+		return null;
+	}
+
+	private java.io.File getDataFile(final String domainName) {
+		return new java.io.File(this.directory, encode(domainName) + StartupCatalogCache.DATA_EXTENSION);
+	}
+
+	private java.io.File getInfoFile(final String domainName) {
+		return new java.io.File(this.directory, encode(domainName) + StartupCatalogCache.INFO_EXTENSION);
+	}
+
+	private static String encode(final String domainName) {
+		try {
+			return URLEncoder.encode(domainName, "UTF-8"); //$NON-NLS-1$
+		} catch (final UnsupportedEncodingException e) {
+			return Integer.toHexString(domainName.hashCode());
+		}
+	}
+
+	/**
+	 * Copies everything read from the domain into a temporary file, which replaces the cached copy once the whole
+	 * file has been read. A stream closed early leaves the cache untouched.
+	 */
+	private class CachingInputStream extends FilterInputStream {
+		private final String domainName;
+		private final Properties info;
+		private java.io.File tempFile;
+		private OutputStream out;
+		private boolean complete;
+
+		CachingInputStream(final InputStream in, final String domainName, final Properties info) {
+			super(in);
+			this.domainName = domainName;
+			this.info = info;
+			try {
+				if (StartupCatalogCache.this.directory.isDirectory() || StartupCatalogCache.this.directory.mkdirs()) {
+					this.tempFile = java.io.File.createTempFile("catalog", ".tmp", StartupCatalogCache.this.directory); //$NON-NLS-1$ //$NON-NLS-2$
+					this.out = new BufferedOutputStream(new FileOutputStream(this.tempFile));
+				}
+			} catch (final IOException e) {
+				abandon();
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = super.read();
+			if (b == -1) {
+				this.complete = true;
+			} else if (this.out != null) {
+				try {
+					this.out.write(b);
+				} catch (final IOException e) {
+					abandon();
+				}
+			}
+			return b;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			final int count = super.read(b, off, len);
+			if (count == -1) {
+				this.complete = true;
+			} else if (this.out != null) {
+				try {
+					this.out.write(b, off, count);
+				} catch (final IOException e) {
+					abandon();
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			// Skipped bytes would be missing from the cached copy
+			abandon();
+			return super.skip(n);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (this.out != null) {
+					try {
+						this.out.close();
+						if (this.complete) {
+							store(this.domainName, this.tempFile, this.info);
+							this.tempFile = null;
+						}
+					} catch (final IOException e) {
+						// PASS - The file just won't be cached
+					}
+					this.out = null;
+				}
+				abandon();
+			}
+		}
+
+		private void abandon() {
+			if (this.out != null) {
+				try {
+					this.out.close();
+				} catch (final IOException e) {
+					// PASS
+				}
+				this.out = null;
+			}
+			if (this.tempFile != null) {
+				this.tempFile.delete();
+				this.tempFile = null;
+			}
+		}
+	}
+}
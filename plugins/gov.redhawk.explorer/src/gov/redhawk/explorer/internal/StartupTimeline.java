@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.internal;
+
+import gov.redhawk.explorer.Activator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+/**
+ * Records where Explorer's start-up time goes, from JVM start until the workbench is first usable. The application,
+ * workbench advisors and perspectives record their phases here, and every bundle activated after this plug-in is
+ * timed as well. Once start-up completes, the timeline is written as JSON to {@link #FILE_NAME} in this plug-in's
+ * state location, inside the instance area:
+ *
+ * <pre>
+ * {
+ *   "jvmStartTime": 1500000000000,
+ *   "total": 4210.3,
+ *   "phases": [ { "name": "Application.start", "start": 1510.2, "duration": 0.0 }, ... ],
+ *   "bundles": [ { "name": "gov.redhawk.sca", "start": 1602.7, "duration": 35.1 }, ... ],
+ *   "installedBundles": 412,
+ *   "activeBundles": 118,
+ *   "memory": { "heapUsed": 96.2, "heapCommitted": 180.0, "nonHeapUsed": 88.5 }
+ * }
+ * </pre>
+ *
+ * All times are in milliseconds, and starts are measured from JVM start. Memory is in megabytes, measured when the
+ * timeline is written; when Explorer was started with <code>-exitAfterStartup</code> a garbage collection runs
+ * first, so that the heap figure is what start-up left reachable. Setting {@link #SUMMARY_PROPERTY} also
+ * prints a summary to standard output; setting {@link #ENABLED_PROPERTY} to false turns recording off.
+ */
+public final class StartupTimeline {
+
+	/**
+	 * System property which turns recording off when set to false.
+	 */
+	public static final String ENABLED_PROPERTY = "gov.redhawk.explorer.startupTimeline";
+
+	/**
+	 * System property which prints a summary of the timeline to standard output when set to true.
+	 */
+	public static final String SUMMARY_PROPERTY = "gov.redhawk.explorer.startupSummary";
+
+	/**
+	 * The name of the file the timeline is written to.
+	 */
+	public static final String FILE_NAME = "startup-timeline.json";
+
+	// The number of slowest bundles listed in the summary
+	private static final int SUMMARY_BUNDLES = 10;
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+	private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(StartupTimeline.ENABLED_PROPERTY));
+
+	private static final long JVM_START_TIME = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+	// Times are taken with nanoTime and placed relative to JVM start using these
+	private static final long BASE_NANOS = System.nanoTime();
+	private static final long BASE_SINCE_JVM_START = System.currentTimeMillis() - StartupTimeline.JVM_START_TIME;
+
+	/**
+	 * A timed phase or bundle activation.
+	 */
+	private static final class Entry {
+		private final String name;
+		private final double start;
+		private final double duration;
+
+		Entry(final String name, final long startNanos, final long endNanos) {
+			this.name = name;
+			this.start = StartupTimeline.sinceJvmStart(startNanos);
+			this.duration = (endNanos - startNanos) / StartupTimeline.NANOS_PER_MILLI;
+		}
+	}
+
+	private static final List<Entry> PHASES = new ArrayList<Entry>();
+	private static final List<Entry> BUNDLES = new ArrayList<Entry>();
+	private static final Map<Long, Long> ACTIVATING = new HashMap<Long, Long>();
+	private static BundleContext context;
+	private static boolean finished;
+
+	private static final SynchronousBundleListener BUNDLE_LISTENER = new SynchronousBundleListener() {
+		@Override
+		public void bundleChanged(final BundleEvent event) {
+			final long now = System.nanoTime();
+			final Long id = event.getBundle().getBundleId();
+			synchronized (StartupTimeline.class) {
+				if (event.getType() == BundleEvent.STARTING) {
+					StartupTimeline.ACTIVATING.put(id, now);
+				} else if (event.getType() == BundleEvent.STARTED) {
+					final Long start = StartupTimeline.ACTIVATING.remove(id);
+					if (start != null) {
+						StartupTimeline.BUNDLES.add(new Entry(event.getBundle().getSymbolicName(), start, now));
+					}
+				}
+			}
+		}
+	};
+
+	private StartupTimeline() {
+	}
+
+	/**
+	 * Records an instant during start-up.
+	 *
+	 * @param name the name of the event
+	 */
+	public static void mark(final String name) {
+		final long now = System.nanoTime();
+		StartupTimeline.span(name, now, now);
+	}
+
+	/**
+	 * Records a phase of start-up which began at the given time and ends now.
+	 *
+	 * @param name the name of the phase
+	 * @param startNanos the {@link System#nanoTime()} at which the phase began
+	 */
+	public static void span(final String name, final long startNanos) {
+		StartupTimeline.span(name, startNanos, System.nanoTime());
+	}
+
+	private static synchronized void span(final String name, final long startNanos, final long endNanos) {
+		if (StartupTimeline.ENABLED && !StartupTimeline.finished) {
+			StartupTimeline.PHASES.add(new Entry(name, startNanos, endNanos));
+		}
+	}
+
+	/**
+	 * Starts timing the activation of bundles.
+	 *
+	 * @param bundleContext this plug-in's bundle context
+	 */
+	public static synchronized void watchBundles(final BundleContext bundleContext) {
+		if (!StartupTimeline.ENABLED || StartupTimeline.finished || StartupTimeline.context != null) {
+			return;
+		}
+		StartupTimeline.context = bundleContext;
+		bundleContext.addBundleListener(StartupTimeline.BUNDLE_LISTENER);
+	}
+
+	/**
+	 * Records the end of start-up, stops recording and writes the timeline in the background.
+	 *
+	 * @param name the name of the final event
+	 * @return the job writing the timeline, or null if there is nothing to write
+	 */
+	public static Job finish(final String name) {
+		final long now = System.nanoTime();
+		final List<Entry> phases;
+		final List<Entry> bundles;
+		final int[] bundleCounts;
+		synchronized (StartupTimeline.class) {
+			if (!StartupTimeline.ENABLED || StartupTimeline.finished) {
+				return null;
+			}
+			StartupTimeline.PHASES.add(new Entry(name, now, now));
+			StartupTimeline.finished = true;
+			bundleCounts = StartupTimeline.countBundles(StartupTimeline.context);
+			if (StartupTimeline.context != null) {
+				try {
+					StartupTimeline.context.removeBundleListener(StartupTimeline.BUNDLE_LISTENER);
+				} catch (final IllegalStateException e) {
+					// PASS - The plug-in has already stopped
+				}
+				StartupTimeline.context = null;
+			}
+			phases = new ArrayList<Entry>(StartupTimeline.PHASES);
+			bundles = new ArrayList<Entry>(StartupTimeline.BUNDLES);
+			StartupTimeline.PHASES.clear();
+			StartupTimeline.BUNDLES.clear();
+			StartupTimeline.ACTIVATING.clear();
+		}
+		final double total = StartupTimeline.sinceJvmStart(now);
+
+		final Job writeJob = new Job("Writing start-up timeline") {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				final Activator activator = Activator.getDefault();
+				if (activator != null && activator.isExitAfterStartup()) {
+					// Nothing else will use the heap; collect so that the figure is comparable between runs
+					System.gc();
+				}
+				final double[] memory = StartupTimeline.measureMemory();
+				write(phases, bundles, total, bundleCounts, memory);
+				if (Boolean.getBoolean(StartupTimeline.SUMMARY_PROPERTY)) {
+					printSummary(phases, bundles, total, bundleCounts, memory);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		writeJob.setSystem(true);
+		writeJob.schedule();
+		return writeJob;
+	}
+
+	/**
+	 * @return the number of installed bundles and the number of those which are active, or -1 for both if the
+	 * bundle context isn't known
+	 */
+	private static int[] countBundles(final BundleContext bundleContext) {
+		if (bundleContext == null) {
+			return new int[] { -1, -1 };
+		}
+		try {
+			final Bundle[] installed = bundleContext.getBundles();
+			int active = 0;
+			for (final Bundle bundle : installed) {
+				if (bundle.getState() == Bundle.ACTIVE) {
+					active++;
+				}
+			}
+			return new int[] { installed.length, active };
+		} catch (final IllegalStateException e) {
+			// The plug-in has already stopped
+			return new int[] { -1, -1 };
+		}
+	}
+
+	/**
+	 * @return the heap in use, the heap committed and the non-heap memory in use, in megabytes
+	 */
+	private static double[] measureMemory() {
+		final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+		return new double[] {
+			memoryBean.getHeapMemoryUsage().getUsed() / StartupTimeline.BYTES_PER_MEGABYTE,
+			memoryBean.getHeapMemoryUsage().getCommitted() / StartupTimeline.BYTES_PER_MEGABYTE,
+			memoryBean.getNonHeapMemoryUsage().getUsed() / StartupTimeline.BYTES_PER_MEGABYTE
+		};
+	}
+
+	private static void write(final List<Entry> phases, final List<Entry> bundles, final double total, final int[] bundleCounts,
+		final double[] memory) {
+		final Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return;
+		}
+		final File file = activator.getStateLocation().append(StartupTimeline.FILE_NAME).toFile();
+		Writer out = null;
+		try {
+			out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+			out.write("{\n");
+			out.write("  \"jvmStartTime\": " + StartupTimeline.JVM_START_TIME + ",\n");
+			out.write("  \"total\": " + StartupTimeline.format(total) + ",\n");
+			out.write("  \"phases\": ");
+			StartupTimeline.writeEntries(out, phases);
+			out.write(",\n  \"bundles\": ");
+			StartupTimeline.writeEntries(out, bundles);
+			out.write(",\n  \"installedBundles\": " + bundleCounts[0] + ",\n");
+			out.write("  \"activeBundles\": " + bundleCounts[1] + ",\n");
+			out.write("  \"memory\": { \"heapUsed\": " + StartupTimeline.format(memory[0]) + ", \"heapCommitted\": " + StartupTimeline.format(memory[1])
+				+ ", \"nonHeapUsed\": " + StartupTimeline.format(memory[2]) + " }");
+			out.write("\n}\n");
+		} catch (final IOException e) {
+			activator.getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to write start-up timeline", e));
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (final IOException e) {
+					// PASS
+				}
+			}
+		}
+	}
+
+	private static void writeEntries(final Writer out, final List<Entry> entries) throws IOException {
+		out.write("[");
+		for (int i = 0; i < entries.size(); i++) {
+			final Entry entry = entries.get(i);
+			out.write((i == 0) ? "\n" : ",\n");
+			out.write("    { \"name\": " + StartupTimeline.quote(entry.name) + ", \"start\": " + StartupTimeline.format(entry.start) + ", \"duration\": "
+				+ StartupTimeline.format(entry.duration) + " }");
+		}
+		out.write(entries.isEmpty() ? "]" : "\n  ]");
+	}
+
+	private static void printSummary(final List<Entry> phases, final List<Entry> bundles, final double total, final int[] bundleCounts,
+		final double[] memory) {
+		final StringBuilder summary = new StringBuilder();
+		summary.append("Start-up took ").append(StartupTimeline.format(total)).append(" ms from JVM start\n");
+		summary.append("  ").append(bundleCounts[0]).append(" bundles installed, ").append(bundleCounts[1]).append(" active; heap ");
+		summary.append(StartupTimeline.format(memory[0])).append(" MB used of ").append(StartupTimeline.format(memory[1]));
+		summary.append(" MB committed, non-heap ").append(StartupTimeline.format(memory[2])).append(" MB used\n");
+		for (final Entry phase : phases) {
+			summary.append(String.format(Locale.ENGLISH, "  %10.1f ms  %8.1f ms  %s%n", phase.start, phase.duration, phase.name));
+		}
+		final List<Entry> slowest = new ArrayList<Entry>(bundles);
+		Collections.sort(slowest, new Comparator<Entry>() {
+			@Override
+			public int compare(final Entry o1, final Entry o2) {
+				return Double.compare(o2.duration, o1.duration);
+			}
+		});
+		summary.append("Slowest of ").append(bundles.size()).append(" bundle activations:\n");
+		for (final Entry bundle : slowest.subList(0, Math.min(StartupTimeline.SUMMARY_BUNDLES, slowest.size()))) {
+			summary.append(String.format(Locale.ENGLISH, "  %10.1f ms  %8.1f ms  %s%n", bundle.start, bundle.duration, bundle.name));
+		}
+		System.out.print(summary); // SUPPRESS CHECKSTYLE Console
+	}
+
+	private static double sinceJvmStart(final long nanos) {
+		return StartupTimeline.BASE_SINCE_JVM_START + (nanos - StartupTimeline.BASE_NANOS) / StartupTimeline.NANOS_PER_MILLI;
+	}
+
+	private static String format(final double millis) {
+		return String.format(Locale.ENGLISH, "%.1f", millis);
+	}
+
+	private static String quote(final String text) {
+		final StringBuilder quoted = new StringBuilder("\"");
+		if (text != null) {
+			for (int i = 0; i < text.length(); i++) {
+				final char c = text.charAt(i);
+				if (c == '"' || c == '\\') {
+					quoted.append('\\').append(c);
+				} else if (c < ' ') {
+					quoted.append(String.format("\\u%04x", (int) c));
+				} else {
+					quoted.append(c);
+				}
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.internal.RemoteMetrics;
+import gov.redhawk.model.sca.ScaDomainManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.omg.CORBA.SystemException;
+
+/**
+ * Asks a domain whether any applications are running, off the UI thread. Answers are cached per domain for a short
+ * time, and a domain that doesn't answer by the deadline is treated as having none. When the selected domain
+ * changes quickly, only the answer for the latest request is delivered.
+ */
+class AppsRunningCheck {
+
+	/**
+	 * System property setting how long an answer is reused, in milliseconds.
+	 */
+	static final String TTL_PROPERTY = "gov.redhawk.explorer.appsRunningTtl";
+
+	/**
+	 * System property setting how long to wait for a domain to answer, in milliseconds.
+	 */
+	static final String TIMEOUT_PROPERTY = "gov.redhawk.explorer.appsRunningTimeout";
+
+	private static final int DEFAULT_TTL = 5000;
+
+	private static final int DEFAULT_TIMEOUT = 3000;
+
+	// Requests made within this many milliseconds of each other are coalesced
+	private static final long COALESCE_DELAY = 100;
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	/**
+	 * Receives the answer, on a background thread unless it was cached.
+	 */
+	interface ICallback {
+		void appsRunning(ScaDomainManager domain, boolean running);
+	}
+
+	/**
+	 * A cached answer.
+	 */
+	private static final class Answer {
+		private final boolean running;
+		private final long time;
+
+		Answer(final boolean running, final long time) {
+			this.running = running;
+			this.time = time;
+		}
+	}
+
+	private final ConcurrentHashMap<ScaDomainManager, Answer> answers = new ConcurrentHashMap<ScaDomainManager, Answer>();
+	private final AtomicInteger latest = new AtomicInteger();
+	private final long ttl = Math.max(0, Integer.getInteger(AppsRunningCheck.TTL_PROPERTY, AppsRunningCheck.DEFAULT_TTL))
+		* AppsRunningCheck.NANOS_PER_MILLI;
+	private final long timeout = Math.max(1, Integer.getInteger(AppsRunningCheck.TIMEOUT_PROPERTY, AppsRunningCheck.DEFAULT_TIMEOUT));
+	private Job pending;
+
+	/**
+	 * Finds out whether applications are running on the domain, replacing any earlier request.
+	 *
+	 * @param domain the selected domain
+	 * @param callback receives the answer, unless a later request supersedes this one
+	 */
+	synchronized void check(final ScaDomainManager domain, final ICallback callback) {
+		final int request = this.latest.incrementAndGet();
+		if (this.pending != null) {
+			// Hasn't started yet if the selection is changing quickly
+			this.pending.cancel();
+			this.pending = null;
+		}
+
+		final Answer cached = this.answers.get(domain);
+		if (cached != null && System.nanoTime() - cached.time < this.ttl) {
+			callback.appsRunning(domain, cached.running);
+			return;
+		}
+
+		final AtomicBoolean answered = new AtomicBoolean();
+		final Job deadlineJob = new Job("Waiting for " + domain.getName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				deliver(request, answered, domain, false, callback);
+				return Status.OK_STATUS;
+			}
+		};
+		deadlineJob.setSystem(true);
+
+		this.pending = new Job("Checking applications on " + domain.getName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				if (monitor.isCanceled() || request != AppsRunningCheck.this.latest.get()) {
+					return Status.CANCEL_STATUS;
+				}
+				deadlineJob.schedule(AppsRunningCheck.this.timeout);
+				boolean running = false;
+				final long start = System.nanoTime();
+				try {
+					running = domain.applications().length > 0;
+					RemoteMetrics.record(domain.getName(), RemoteMetrics.Operation.APPLICATIONS, start, false);
+					AppsRunningCheck.this.answers.put(domain, new Answer(running, System.nanoTime()));
+				} catch (final SystemException e) {
+					// You can connect to a domain that isn't up but is in the NameService
+					RemoteMetrics.record(domain.getName(), RemoteMetrics.Operation.APPLICATIONS, start, true);
+				}
+				deadlineJob.cancel();
+				deliver(request, answered, domain, running, callback);
+				return Status.OK_STATUS;
+			}
+		};
+		this.pending.setSystem(true);
+		this.pending.schedule(AppsRunningCheck.COALESCE_DELAY);
+	}
+
+	/**
+	 * Drops any outstanding request, e.g. when no domain is selected.
+	 */
+	synchronized void cancel() {
+		this.latest.incrementAndGet();
+		if (this.pending != null) {
+			this.pending.cancel();
+			this.pending = null;
+		}
+	}
+
+	/**
+	 * Forgets all cached answers.
+	 */
+	void clear() {
+		this.answers.clear();
+	}
+
+	private void deliver(final int request, final AtomicBoolean answered, final ScaDomainManager domain, final boolean running,
+		final ICallback callback) {
+		// Only the first of the answer and the deadline counts, and only for the latest request
+		if (answered.compareAndSet(false, true) && request == this.latest.get()) {
+			callback.appsRunning(domain, running);
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.model.sca.DomainConnectionException;
+import gov.redhawk.model.sca.DomainConnectionState;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.sca.ScaPlugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+
+/**
+ * Launches several catalog waveforms at once, possibly across several domains. Each domain gets its own
+ * {@link JobGroup}, which bounds how many launches run against that domain at the same time; launches on different
+ * domains don't wait on each other. Failures are collected per waveform rather than stopping the batch.
+ */
+class BatchLaunch {
+
+	/**
+	 * System property setting the maximum number of concurrent launches on a single domain.
+	 */
+	static final String LAUNCHES_PER_DOMAIN_PROPERTY = "gov.redhawk.explorer.launchesPerDomain";
+
+	private static final int DEFAULT_LAUNCHES_PER_DOMAIN = 4;
+
+	// How often the waiting thread checks for cancellation and progress, in milliseconds
+	private static final long POLL_INTERVAL = 50;
+
+	private final ScaDomainManager defaultDomain;
+	private final List<WaveMapping> mappings;
+	private final boolean autoStart;
+	private final List<WaveformLaunch> launches = new ArrayList<WaveformLaunch>();
+	private final MultiStatus status;
+
+	/**
+	 * @param defaultDomain the domain to launch waveforms on when their catalog entry doesn't name one
+	 * @param mappings the catalog entries of the waveforms to launch
+	 * @param autoStart true to start each waveform once it has been created
+	 */
+	BatchLaunch(final ScaDomainManager defaultDomain, final List<WaveMapping> mappings, final boolean autoStart) {
+		this.defaultDomain = defaultDomain;
+		this.mappings = mappings;
+		this.autoStart = autoStart;
+		this.status = new MultiStatus(Activator.PLUGIN_ID, 0, "Unable to launch some of the selected waveforms", null);
+	}
+
+	/**
+	 * Launches every waveform in the batch and waits for all of them to finish. If the monitor is canceled, launches
+	 * that haven't completed are aborted; waveforms that were already launched are left running.
+	 *
+	 * @param monitor the monitor to report aggregated progress to
+	 * @return the per-waveform failures, or an OK status if every waveform was launched
+	 * @throws InterruptedException if the monitor was canceled
+	 */
+	IStatus run(final IProgressMonitor monitor) throws InterruptedException {
+		final int total = this.mappings.size();
+		final CountDownLatch remaining = new CountDownLatch(total);
+		final Map<String, List<WaveformLaunch>> byDomain = resolveDomains(remaining);
+		final int limit = Math.max(1, Integer.getInteger(BatchLaunch.LAUNCHES_PER_DOMAIN_PROPERTY, BatchLaunch.DEFAULT_LAUNCHES_PER_DOMAIN));
+		final List<Job> connectJobs = new ArrayList<Job>();
+		final List<JobGroup> groups = new ArrayList<JobGroup>();
+
+		monitor.beginTask("Launching waveforms", total);
+		try {
+			for (final List<WaveformLaunch> domainLaunches : byDomain.values()) {
+				final ScaDomainManager domain = domainLaunches.get(0).getDomain();
+				final JobGroup group = new JobGroup("Launching waveforms on " + domain.getName(), limit, 0);
+				groups.add(group);
+				final Job connectJob = new Job("Connecting to " + domain.getName()) {
+					@Override
+					protected IStatus run(final IProgressMonitor jobMonitor) {
+						if (!connect(domain, domainLaunches, remaining, jobMonitor)) {
+							return Status.OK_STATUS;
+						}
+						// Scheduling and canceling hold the same lock, so either the batch cancels these launches or they
+						// are never scheduled
+						synchronized (groups) {
+							if (jobMonitor.isCanceled()) {
+								for (int i = 0; i < domainLaunches.size(); i++) {
+									remaining.countDown();
+								}
+								return Status.CANCEL_STATUS;
+							}
+							for (final WaveformLaunch launch : domainLaunches) {
+								final Job launchJob = createLaunchJob(launch, remaining);
+								launchJob.setJobGroup(group);
+								launchJob.schedule();
+							}
+						}
+						return Status.OK_STATUS;
+					}
+				};
+				connectJob.setSystem(true);
+				connectJobs.add(connectJob);
+				connectJob.schedule();
+			}
+
+			long reported = 0;
+			while (!remaining.await(BatchLaunch.POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+				if (monitor.isCanceled()) {
+					synchronized (groups) {
+						for (final Job connectJob : connectJobs) {
+							connectJob.cancel();
+						}
+						for (final JobGroup group : groups) {
+							group.cancel();
+						}
+					}
+					throw new InterruptedException();
+				}
+				reported = reportProgress(monitor, total, remaining.getCount(), reported);
+			}
+			reportProgress(monitor, total, 0, reported);
+		} finally {
+			monitor.done();
+		}
+		return this.status;
+	}
+
+	/**
+	 * @return the waveforms that were launched successfully, in catalog order
+	 */
+	List<WaveformLaunch> getLaunched() {
+		final List<WaveformLaunch> launched = new ArrayList<WaveformLaunch>();
+		synchronized (this.launches) {
+			for (final WaveformLaunch launch : this.launches) {
+				if (launch.getWaveform() != null) {
+					launched.add(launch);
+				}
+			}
+		}
+		return launched;
+	}
+
+	private Map<String, List<WaveformLaunch>> resolveDomains(final CountDownLatch remaining) {
+		final Map<String, List<WaveformLaunch>> byDomain = new LinkedHashMap<String, List<WaveformLaunch>>();
+		for (final WaveMapping mapping : this.mappings) {
+			ScaDomainManager domain = this.defaultDomain;
+			if (mapping.getDomainName() != null && !mapping.getDomainName().equals(this.defaultDomain.getName())) {
+				domain = ScaPlugin.getDefault().getDomainManagerRegistry(null).findDomain(mapping.getDomainName());
+			}
+			if (domain == null) {
+				fail(mapping, mapping.getDomainName(), new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unknown domain " + mapping.getDomainName()));
+				remaining.countDown();
+				continue;
+			}
+			final WaveformLaunch launch = new WaveformLaunch(domain, mapping, this.autoStart);
+			synchronized (this.launches) {
+				this.launches.add(launch);
+			}
+			List<WaveformLaunch> domainLaunches = byDomain.get(domain.getName());
+			if (domainLaunches == null) {
+				domainLaunches = new ArrayList<WaveformLaunch>();
+				byDomain.put(domain.getName(), domainLaunches);
+			}
+			domainLaunches.add(launch);
+		}
+		return byDomain;
+	}
+
+	private boolean connect(final ScaDomainManager domain, final List<WaveformLaunch> domainLaunches, final CountDownLatch remaining,
+		final IProgressMonitor monitor) {
+		if (domain.getState().getValue() == DomainConnectionState.CONNECTED_VALUE) {
+			return true;
+		}
+		try {
+			StagedConnect.connect(domain, monitor);
+			return true;
+		} catch (final DomainConnectionException e) {
+			final IStatus cause = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + domain.getName(), e);
+			for (final WaveformLaunch launch : domainLaunches) {
+				fail(launch.getMapping(), domain.getName(), cause);
+				remaining.countDown();
+			}
+			return false;
+		} catch (final InterruptedException e) {
+			// The batch was canceled; nothing to report
+			for (int i = 0; i < domainLaunches.size(); i++) {
+				remaining.countDown();
+			}
+			return false;
+		}
+	}
+
+	private Job createLaunchJob(final WaveformLaunch launch, final CountDownLatch remaining) {
+		final Job job = new Job("Launching waveform " + launch.getMapping().getWaveformName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				try {
+					launch.launch(monitor);
+				} catch (final CoreException e) {
+					fail(launch.getMapping(), launch.getDomain().getName(), e.getStatus());
+				} catch (final InterruptedException e) {
+					return Status.CANCEL_STATUS;
+				} finally {
+					remaining.countDown();
+				}
+				// Failures are reported together by the batch
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		return job;
+	}
+
+	private void fail(final WaveMapping mapping, final String domainName, final IStatus cause) {
+		final String message = "Unable to launch waveform " + mapping.getWaveformName() + " on domain " + domainName;
+		synchronized (this.status) {
+			this.status.add(new MultiStatus(Activator.PLUGIN_ID, 0, new IStatus[] { cause }, message, null));
+		}
+	}
+
+	private static long reportProgress(final IProgressMonitor monitor, final int total, final long left, final long reported) {
+		final long finished = total - left;
+		if (finished > reported) {
+			monitor.worked((int) (finished - reported));
+			monitor.subTask("Launched " + finished + " of " + total + " waveforms");
+		}
+		return Math.max(finished, reported);
+	}
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.internal.CorbaTimeouts;
+import gov.redhawk.explorer.internal.Deadline;
+import gov.redhawk.explorer.internal.StartupCatalogCache;
+import gov.redhawk.model.sca.ScaDomainManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import CF.FileSystemOperations;
+
+/**
+ * Loads a domain's waveform catalog in the background. The cached copy is published first, if there is one, and
+ * is then checked against the domain; a changed catalog is parsed as it streams in and published again.
+ */
+class CatalogLoadJob extends Job {
+
+	/**
+	 * Notified from the job's thread each time a catalog is published.
+	 */
+	interface ICatalogListener {
+		void catalogLoaded(CatalogLoadJob job, WaveformCatalog catalog);
+	}
+
+	private static final Logger LOGGER = Logger.getLogger(CatalogLoadJob.class.getName());
+
+	private final ScaDomainManager domain;
+	private volatile ICatalogListener listener;
+	private final CountDownLatch available = new CountDownLatch(1);
+	private volatile WaveformCatalog catalog;
+	private volatile IStatus error;
+
+	CatalogLoadJob(final ScaDomainManager domain, final ICatalogListener listener) {
+		super("Loading waveform catalog of " + domain.getName());
+		this.domain = domain;
+		this.listener = listener;
+		setSystem(true);
+	}
+
+	/**
+	 * Replaces the listener, e.g. when a job started before the wizard opened is handed over to it. Catalogs
+	 * published before the call are not delivered to the new listener.
+	 *
+	 * @param listener the listener to notify, or null
+	 */
+	void setListener(final ICatalogListener listener) {
+		this.listener = listener;
+	}
+
+	ScaDomainManager getDomain() {
+		return this.domain;
+	}
+
+	/**
+	 * @return the most recently loaded catalog, or null if none has been loaded yet
+	 */
+	WaveformCatalog getCatalog() {
+		return this.catalog;
+	}
+
+	/**
+	 * @return the reason the catalog couldn't be loaded from the domain, or null; the cached catalog may still have
+	 * been published
+	 */
+	IStatus getError() {
+		return this.error;
+	}
+
+	/**
+	 * Waits until a catalog has been published or the job has given up.
+	 *
+	 * @param timeout the maximum time to wait, in milliseconds
+	 * @return true if the job has a result
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	boolean awaitResult(final long timeout) throws InterruptedException {
+		return this.available.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		try {
+			// Every call on the file manager, and on the file, gives up by the deadline
+			final Deadline deadline = Deadline.forFileRead();
+			final FileSystemOperations fileSystem = CorbaTimeouts.getFileManager(this.domain, deadline);
+			if (fileSystem == null) {
+				this.error = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to find File Manager for domain '" + this.domain.getName() + "'");
+				return Status.OK_STATUS;
+			}
+			final String domainName = this.domain.getName();
+			final StartupCatalogCache cache = Activator.getDefault().getCatalogCache();
+
+			final InputStream cached = cache.openCached(domainName, StartupWizard.STARTUP_FILE_NAME);
+			if (cached != null) {
+				publish(load(cached));
+			}
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+
+			final InputStream changed;
+			try {
+				if (cached != null) {
+					changed = cache.revalidate(domainName, fileSystem, StartupWizard.STARTUP_FILE_NAME, deadline.wrap(monitor));
+				} else {
+					changed = cache.open(domainName, fileSystem, StartupWizard.STARTUP_FILE_NAME, deadline.wrap(monitor));
+				}
+			} catch (final CoreException e) {
+				this.error = e.getStatus();
+				if (CatalogLoadJob.LOGGER.isLoggable(Level.FINE)) {
+					CatalogLoadJob.LOGGER.log(Level.FINE, "Unable to load the waveform catalog of domain " + domainName, e);
+				}
+				return Status.OK_STATUS;
+			}
+			if (changed == null) {
+				CatalogLoadJob.LOGGER.log(Level.FINE, "Cached waveform catalog of domain {0} is current", domainName);
+			} else {
+				final WaveformCatalog loaded = load(changed);
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				if (cached != null && loaded.getErrorMessage() != null) {
+					// A download that broke off partway would replace the complete catalog already shown
+					this.error = new Status(IStatus.ERROR, Activator.PLUGIN_ID, loaded.getErrorMessage());
+					return Status.OK_STATUS;
+				}
+				publish(loaded);
+			}
+			return Status.OK_STATUS;
+		} finally {
+			this.available.countDown();
+		}
+	}
+
+	private void publish(final WaveformCatalog loaded) {
+		// Build the search index here rather than on the UI thread when the user first searches
+		loaded.getSearchIndex();
+		if (CatalogLoadJob.LOGGER.isLoggable(Level.FINE)) {
+			CatalogLoadJob.LOGGER.log(Level.FINE, "Publishing waveform catalog of domain {0}: {1} waveforms", new Object[] { this.domain.getName(),
+				loaded.size() });
+		}
+		this.catalog = loaded;
+		this.available.countDown();
+		final ICatalogListener current = this.listener;
+		if (current != null) {
+			current.catalogLoaded(this, loaded);
+		}
+	}
+
+	private static WaveformCatalog load(final InputStream in) {
+		try {
+			return WaveformCatalog.load(in);
+		} finally {
+			try {
+				in.close();
+			} catch (final IOException e) {
+				// PASS
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The profiles of the waveforms in a catalog, for telling whether a running waveform was launched from it.
+ */
+class CatalogProfiles {
+
+	private final Set<String> profiles;
+
+	/**
+	 * @param mappings the waveforms in the catalog
+	 */
+	CatalogProfiles(final Collection<WaveMapping> mappings) {
+		this.profiles = new HashSet<String>(mappings.size() * 2);
+		for (final WaveMapping map : mappings) {
+			this.profiles.add(map.getWaveformPath());
+		}
+	}
+
+	boolean isEmpty() {
+		return this.profiles.isEmpty();
+	}
+
+	/**
+	 * @param profile the profile path of a running waveform
+	 * @return true if a waveform in the catalog has that profile
+	 */
+	boolean contains(final String profile) {
+		return this.profiles.contains(profile);
+	}
+}
@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A search index over the names, types and paths of a catalog's waveforms. The index is immutable and may be
+ * queried from any thread.
+ * <p/>
+ * A query is split on whitespace and an entry matches when it matches every term. Terms of three or more characters
+ * match anywhere in the entry's text and are looked up through trigram posting lists; shorter terms match the start
+ * of a word and are looked up in a sorted word list. Short terms with characters other than letters and digits, such
+ * as <code>/w</code>, aren't in the word list, so they are checked against every entry.
+ */
+class CatalogSearchIndex {
+
+	private static final int GRAM = 3;
+
+	private static final int[] NONE = new int[0];
+
+	private final WaveMapping[] entries;
+	// The position of every entry, for terms the index can't narrow down
+	private final int[] all;
+	// The lower case name, type and path of each entry, separated by newlines
+	private final String[] texts;
+	private final Map<String, int[]> grams;
+	// Distinct words in sorted order, and the entries each appears in
+	private final String[] words;
+	private final int[][] wordEntries;
+
+	/**
+	 * @param mappings the waveforms to index
+	 */
+	CatalogSearchIndex(final Collection<WaveMapping> mappings) {
+		this.entries = mappings.toArray(new WaveMapping[mappings.size()]);
+		this.texts = new String[this.entries.length];
+		this.all = new int[this.entries.length];
+		final Map<String, IntList> gramLists = new HashMap<String, IntList>();
+		final Map<String, IntList> wordLists = new HashMap<String, IntList>();
+		for (int i = 0; i < this.entries.length; i++) {
+			final WaveMapping map = this.entries[i];
+			final String text = (map.getWaveformName() + '\n' + map.getType() + '\n' + map.getWaveformPath()).toLowerCase(Locale.ENGLISH);
+			this.texts[i] = text;
+			this.all[i] = i;
+			for (int start = 0; start + CatalogSearchIndex.GRAM <= text.length(); start++) {
+				add(gramLists, text.substring(start, start + CatalogSearchIndex.GRAM), i);
+			}
+			int wordStart = -1;
+			for (int pos = 0; pos <= text.length(); pos++) {
+				final boolean wordChar = pos < text.length() && Character.isLetterOrDigit(text.charAt(pos));
+				if (wordChar && wordStart < 0) {
+					wordStart = pos;
+				} else if (!wordChar && wordStart >= 0) {
+					add(wordLists, text.substring(wordStart, pos), i);
+					wordStart = -1;
+				}
+			}
+		}
+
+		this.grams = new HashMap<String, int[]>(gramLists.size() * 2);
+		for (final Map.Entry<String, IntList> gram : gramLists.entrySet()) {
+			this.grams.put(gram.getKey(), gram.getValue().toArray());
+		}
+		this.words = wordLists.keySet().toArray(new String[wordLists.size()]);
+		Arrays.sort(this.words);
+		this.wordEntries = new int[this.words.length][];
+		for (int i = 0; i < this.words.length; i++) {
+			this.wordEntries[i] = wordLists.get(this.words[i]).toArray();
+		}
+	}
+
+	/**
+	 * @return the number of indexed entries
+	 */
+	int size() {
+		return this.entries.length;
+	}
+
+	/**
+	 * Finds the entries matching a query.
+	 *
+	 * @param query the text typed by the user
+	 * @return the positions of the matching entries, in catalog order
+	 */
+	int[] search(final String query) {
+		final String[] terms = split(query);
+		if (terms.length == 0) {
+			return CatalogSearchIndex.NONE;
+		} else if (terms.length == 1 && (terms[0].length() == CatalogSearchIndex.GRAM || isWord(terms[0]))) {
+			// A single word prefix or trigram is answered exactly by the index
+			return lookup(terms[0]);
+		}
+		// Start from the most selective term, then check the rest against the candidates
+		int[] result = null;
+		for (final String term : terms) {
+			final int[] candidates = lookup(term);
+			if (result == null || candidates.length < result.length) {
+				result = candidates;
+			}
+		}
+		return filter(result, terms);
+	}
+
+	/**
+	 * Narrows the results of an earlier query. When the user keeps typing, each new query matches a subset of the
+	 * previous one, so only the previous results need to be checked.
+	 *
+	 * @param previous the results of the earlier query
+	 * @param previousQuery the earlier query
+	 * @param query the new query
+	 * @return the positions of the matching entries, in catalog order
+	 */
+	int[] refine(final int[] previous, final String previousQuery, final String query) {
+		if (!narrows(previousQuery, query)) {
+			return search(query);
+		}
+		return filter(previous, split(query));
+	}
+
+	/**
+	 * @param hits positions returned by a query
+	 * @return the matching entries; a view, not a copy
+	 */
+	List<WaveMapping> toMappings(final int[] hits) {
+		return new AbstractList<WaveMapping>() {
+			@Override
+			public WaveMapping get(final int index) {
+				return CatalogSearchIndex.this.entries[hits[index]];
+			}
+
+			@Override
+			public int size() {
+				return hits.length;
+			}
+		};
+	}
+
+	private static boolean narrows(final String previousQuery, final String query) {
+		if (previousQuery == null) {
+			return false;
+		}
+		// Every earlier term must be extended by the term in the same place, with no terms removed
+		final String[] before = split(previousQuery);
+		final String[] after = split(query);
+		if (before.length == 0 || after.length < before.length) {
+			return false;
+		}
+		for (int i = 0; i < before.length; i++) {
+			// A short term matches word starts only, so it can't be narrowed into a substring term
+			final boolean sameKind = (before[i].length() < CatalogSearchIndex.GRAM) == (after[i].length() < CatalogSearchIndex.GRAM);
+			if (!sameKind || !after[i].startsWith(before[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int[] lookup(final String term) {
+		if (term.length() < CatalogSearchIndex.GRAM) {
+			return isWord(term) ? lookupWordPrefix(term) : this.all;
+		}
+		// Intersect the posting lists of the term's trigrams, smallest first
+		final int count = term.length() - CatalogSearchIndex.GRAM + 1;
+		final int[][] lists = new int[count][];
+		for (int i = 0; i < count; i++) {
+			final int[] list = this.grams.get(term.substring(i, i + CatalogSearchIndex.GRAM));
+			if (list == null) {
+				return CatalogSearchIndex.NONE;
+			}
+			lists[i] = list;
+		}
+		int[] smallest = lists[0];
+		for (final int[] list : lists) {
+			if (list.length < smallest.length) {
+				smallest = list;
+			}
+		}
+		return smallest;
+	}
+
+	private int[] lookupWordPrefix(final String prefix) {
+		int low = Arrays.binarySearch(this.words, prefix);
+		if (low < 0) {
+			low = -low - 1;
+		}
+		int high = low;
+		while (high < this.words.length && this.words[high].startsWith(prefix)) {
+			high++;
+		}
+		if (high - low == 1) {
+			return this.wordEntries[low];
+		}
+		final boolean[] seen = new boolean[this.entries.length];
+		final IntList result = new IntList();
+		for (int i = low; i < high; i++) {
+			for (final int entry : this.wordEntries[i]) {
+				seen[entry] = true;
+			}
+		}
+		for (int entry = 0; entry < seen.length; entry++) {
+			if (seen[entry]) {
+				result.add(entry);
+			}
+		}
+		return result.toArray();
+	}
+
+	private int[] filter(final int[] candidates, final String[] terms) {
+		final IntList result = new IntList();
+		for (final int entry : candidates) {
+			if (matches(this.texts[entry], terms)) {
+				result.add(entry);
+			}
+		}
+		return result.toArray();
+	}
+
+	private static boolean matches(final String text, final String[] terms) {
+		for (final String term : terms) {
+			if (term.length() < CatalogSearchIndex.GRAM) {
+				if (!startsWord(text, term)) {
+					return false;
+				}
+			} else if (!text.contains(term)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Whether a term is short and made of letters and digits only, like the words in the word list
+	private static boolean isWord(final String term) {
+		if (term.length() >= CatalogSearchIndex.GRAM) {
+			return false;
+		}
+		for (int i = 0; i < term.length(); i++) {
+			if (!Character.isLetterOrDigit(term.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean startsWord(final String text, final String prefix) {
+		int from = 0;
+		while (true) {
+			final int pos = text.indexOf(prefix, from);
+			if (pos < 0) {
+				return false;
+			}
+			if (pos == 0 || !Character.isLetterOrDigit(text.charAt(pos - 1))) {
+				return true;
+			}
+			from = pos + 1;
+		}
+	}
+
+	private static String[] split(final String query) {
+		final String trimmed = query.trim().toLowerCase(Locale.ENGLISH);
+		if (trimmed.length() == 0) {
+			return new String[0];
+		}
+		return trimmed.split("\\s+");
+	}
+
+	private static void add(final Map<String, IntList> lists, final String key, final int entry) {
+		IntList list = lists.get(key);
+		if (list == null) {
+			list = new IntList();
+			lists.put(key, list);
+		}
+		list.addUnique(entry);
+	}
+
+	/**
+	 * A growable list of ints, to keep posting lists unboxed.
+	 */
+	private static class IntList {
+		private int[] data = new int[4];
+		private int size;
+
+		void add(final int value) {
+			if (this.size == this.data.length) {
+				this.data = Arrays.copyOf(this.data, this.size * 2);
+			}
+			this.data[this.size++] = value;
+		}
+
+		/**
+		 * Adds a value unless it was the last one added; entries are indexed in order, so this removes duplicates.
+		 */
+		void addUnique(final int value) {
+			if (this.size == 0 || this.data[this.size - 1] != value) {
+				add(value);
+			}
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(this.data, this.size);
+		}
+	}
+}
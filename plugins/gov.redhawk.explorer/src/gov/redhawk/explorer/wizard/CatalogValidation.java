@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.internal.CorbaTimeouts;
+import gov.redhawk.explorer.internal.Deadline;
+import gov.redhawk.explorer.internal.ProfileInfo;
+import gov.redhawk.explorer.internal.ProfileInfoCache;
+import gov.redhawk.model.sca.ScaDomainManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+
+import CF.FileSystemOperations;
+
+/**
+ * Checks the profiles of a catalog's waveforms against the domain in the background. Each distinct profile is
+ * checked by its own job, and a {@link JobGroup} bounds how many run at once, so a large catalog costs a few
+ * concurrent rounds of CORBA calls rather than one call after another. Results are reported as each profile is
+ * checked.
+ */
+class CatalogValidation {
+
+	/**
+	 * System property setting the maximum number of profiles checked at the same time.
+	 */
+	static final String CONCURRENT_CHECKS_PROPERTY = "gov.redhawk.explorer.concurrentProfileChecks";
+
+	private static final int DEFAULT_CONCURRENT_CHECKS = 8;
+
+	/**
+	 * Notified from a background thread each time a profile has been checked.
+	 */
+	interface IProfileListener {
+		void profileChecked(CatalogValidation validation, String path, ProfileInfo info);
+	}
+
+	private final ScaDomainManager domain;
+	private final Set<String> paths = new LinkedHashSet<String>();
+	private final IProfileListener listener;
+	private final JobGroup group;
+
+	/**
+	 * @param domain the domain whose file system holds the profiles
+	 * @param mappings the waveforms to check
+	 * @param listener notified of each result
+	 */
+	CatalogValidation(final ScaDomainManager domain, final Collection<WaveMapping> mappings, final IProfileListener listener) {
+		this.domain = domain;
+		this.listener = listener;
+		for (final WaveMapping mapping : mappings) {
+			this.paths.add(mapping.getWaveformPath());
+		}
+		final int limit = Math.max(1, Integer.getInteger(CatalogValidation.CONCURRENT_CHECKS_PROPERTY, CatalogValidation.DEFAULT_CONCURRENT_CHECKS));
+		this.group = new JobGroup("Checking waveforms on " + domain.getName(), limit, 0);
+	}
+
+	ScaDomainManager getDomain() {
+		return this.domain;
+	}
+
+	/**
+	 * Starts checking the profiles.
+	 */
+	void schedule() {
+		if (this.domain.getFileManager() == null) {
+			return;
+		}
+		final String domainName = this.domain.getName();
+		final ProfileInfoCache cache = Activator.getDefault().getProfileInfoCache();
+		for (final String path : this.paths) {
+			final Job job = new Job("Checking " + path) {
+				@Override
+				protected IStatus run(final IProgressMonitor monitor) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					final Deadline deadline = Deadline.forFileRead();
+					final FileSystemOperations fileSystem = CorbaTimeouts.getFileManager(CatalogValidation.this.domain, deadline);
+					if (fileSystem == null) {
+						return Status.OK_STATUS;
+					}
+					final ProfileInfo info = cache.check(domainName, fileSystem, path, deadline.wrap(monitor));
+					if (info != null && !monitor.isCanceled()) {
+						CatalogValidation.this.listener.profileChecked(CatalogValidation.this, path, info);
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			job.setJobGroup(this.group);
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Stops checking profiles that haven't been checked yet.
+	 */
+	void cancel() {
+		this.group.cancel();
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.model.sca.provider.ScaWaveformsContainerItemProvider;
+
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.ui.dialogs.PatternFilter;
+
+/**
+ * Filters the domain tree by name. Domains and their waveforms folders are shown when the domain's name matches, and
+ * waveforms when their own name does. Other elements never match, but this filter only hides them while there is
+ * filter text; the page limits the tree to these types with a filter of its own. As with {@link PatternFilter}, a
+ * name matches when it, or any word in it, starts with the filter text, ignoring case, and the text may contain
+ * <code>*</code> and <code>?</code> wildcards.
+ * <p/>
+ * The matching itself is done by a {@link DomainNameMatcher}, which compiles the filter text once when it changes
+ * and prepares each name once.
+ */
+class DomainNameFilter extends PatternFilter {
+
+	// Only used from the UI thread
+	private final DomainNameMatcher matcher = new DomainNameMatcher();
+
+	@Override
+	public void setPattern(final String patternString) {
+		super.setPattern(patternString);
+		this.matcher.setPattern(patternString);
+	}
+
+	@Override
+	public boolean isElementVisible(final Viewer viewer, final Object element) {
+		if (element instanceof ScaDomainManager) {
+			return matches(((ScaDomainManager) element).getName());
+		} else if (element instanceof ScaWaveformsContainerItemProvider) {
+			return matches(((ScaDomainManager) ((ScaWaveformsContainerItemProvider) element).getTarget()).getName());
+		} else if (element instanceof ScaWaveform) {
+			return matches(((ScaWaveform) element).getName());
+		}
+		return false;
+	}
+
+	@Override
+	protected boolean isLeafMatch(final Viewer viewer, final Object element) {
+		return isElementVisible(viewer, element);
+	}
+
+	@Override
+	protected boolean wordMatches(final String text) {
+		return matches(text);
+	}
+
+	/**
+	 * Forgets the prepared names, e.g. when the tree is disposed.
+	 */
+	void clearNames() {
+		this.matcher.clearNames();
+	}
+
+	private boolean matches(final String text) {
+		return this.matcher.matches(text);
+	}
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches names against the domain tree's filter text. A name matches when it, or any word in it, starts with the
+ * filter text, ignoring case, and the text may contain <code>*</code> and <code>?</code> wildcards.
+ * <p/>
+ * The filter text is compiled once when it changes, and each name is lower-cased and split into words once, so
+ * matching a large tree only costs a prefix comparison per word. Not thread safe.
+ *
+ * @see DomainNameFilter
+ */
+class DomainNameMatcher {
+
+	/**
+	 * A name prepared for matching.
+	 */
+	private static final class Name {
+		private final String lowerCase;
+		private final int[] wordStarts;
+
+		Name(final String name) {
+			this.lowerCase = name.toLowerCase(Locale.ENGLISH);
+			int count = 0;
+			final int[] starts = new int[this.lowerCase.length()];
+			for (int i = 0; i < this.lowerCase.length(); i++) {
+				if (Character.isLetterOrDigit(this.lowerCase.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(this.lowerCase.charAt(i - 1)))) {
+					starts[count++] = i;
+				}
+			}
+			if (count == 0 || starts[0] != 0) {
+				// The whole name is always tried, even if it doesn't start with a word
+				final int[] withWhole = new int[count + 1];
+				System.arraycopy(starts, 0, withWhole, 1, count);
+				this.wordStarts = withWhole;
+			} else {
+				this.wordStarts = new int[count];
+				System.arraycopy(starts, 0, this.wordStarts, 0, count);
+			}
+		}
+	}
+
+	// Prepared names, keyed by the name
+	private final Map<String, Name> names = new HashMap<String, Name>();
+	// The lower-cased filter text when it has no wildcards, or null
+	private String prefix;
+	// The compiled filter text when it has wildcards, or null
+	private Matcher matcher;
+	private boolean matchAll = true;
+
+	/**
+	 * @param patternString the filter text, or null to match everything
+	 */
+	void setPattern(final String patternString) {
+		this.prefix = null;
+		this.matcher = null;
+		this.matchAll = patternString == null || patternString.length() == 0 || "*".equals(patternString);
+		if (this.matchAll) {
+			return;
+		}
+		final String text = patternString.toLowerCase(Locale.ENGLISH);
+		if (text.indexOf('*') < 0 && text.indexOf('?') < 0) {
+			this.prefix = text;
+			return;
+		}
+		final StringBuilder regex = new StringBuilder();
+		int literalStart = 0;
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (c == '*' || c == '?') {
+				if (i > literalStart) {
+					regex.append(Pattern.quote(text.substring(literalStart, i)));
+				}
+				regex.append((c == '*') ? ".*" : ".");
+				literalStart = i + 1;
+			}
+		}
+		if (literalStart < text.length()) {
+			regex.append(Pattern.quote(text.substring(literalStart)));
+		}
+		this.matcher = Pattern.compile(regex.toString(), Pattern.DOTALL).matcher("");
+	}
+
+	/**
+	 * Forgets the prepared names, e.g. when the tree is disposed.
+	 */
+	void clearNames() {
+		this.names.clear();
+	}
+
+	/**
+	 * @param text a name in the tree
+	 * @return true if the name, or a word in it, matches the pattern
+	 */
+	boolean matches(final String text) {
+		if (text == null) {
+			return false;
+		}
+		if (this.matchAll) {
+			return true;
+		}
+		Name name = this.names.get(text);
+		if (name == null) {
+			name = new Name(text);
+			this.names.put(text, name);
+		}
+		for (final int start : name.wordStarts) {
+			if (this.prefix != null) {
+				if (name.lowerCase.startsWith(this.prefix, start)) {
+					return true;
+				}
+			} else {
+				this.matcher.reset(name.lowerCase);
+				this.matcher.region(start, name.lowerCase.length());
+				if (this.matcher.lookingAt()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.model.sca.ScaDomainManager;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.omg.CORBA.ORB;
+import org.omg.CORBA.SystemException;
+import org.omg.CosNaming.NamingContextExt;
+import org.omg.CosNaming.NamingContextExtHelper;
+import org.omg.CosNaming.NamingContextPackage.CannotProceed;
+import org.omg.CosNaming.NamingContextPackage.InvalidName;
+import org.omg.CosNaming.NamingContextPackage.NotFound;
+
+/**
+ * Checks in the background whether each registered domain is reachable, and how long a round trip to its domain
+ * manager takes. Probing goes straight to the naming service and the domain manager over a private ORB, without
+ * connecting the domain in the SCA model, so a probe never changes a domain's state and never blocks another.
+ * <p/>
+ * A {@link JobGroup} bounds how many domains are probed at once. The private ORB's connect and reply timeouts are
+ * set to the probe timeout, and a domain still being probed when the timeout passes is reported as not responding
+ * regardless.
+ */
+class DomainProber {
+
+	/**
+	 * System property setting the maximum number of domains probed at the same time.
+	 */
+	static final String CONCURRENT_PROBES_PROPERTY = "gov.redhawk.explorer.concurrentProbes";
+
+	/**
+	 * System property setting how long a domain has to answer a probe, in milliseconds.
+	 */
+	static final String PROBE_TIMEOUT_PROPERTY = "gov.redhawk.explorer.probeTimeout";
+
+	private static final int DEFAULT_CONCURRENT_PROBES = 8;
+
+	private static final int DEFAULT_PROBE_TIMEOUT = 2000;
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	/**
+	 * The outcome of probing a domain.
+	 */
+	static final class Result {
+		enum State {
+			REACHABLE, UNREACHABLE, NOT_RESPONDING
+		}
+
+		private final State state;
+		private final long latency;
+
+		Result(final State state, final long latency) {
+			this.state = state;
+			this.latency = latency;
+		}
+
+		State getState() {
+			return this.state;
+		}
+
+		/**
+		 * @return the round trip time to the domain manager in milliseconds, or -1 if it wasn't reached
+		 */
+		long getLatency() {
+			return this.latency;
+		}
+	}
+
+	/**
+	 * Notified from a background thread each time a domain has been probed.
+	 */
+	interface IProbeListener {
+		void domainProbed(ScaDomainManager domain, Result result);
+	}
+
+	private final IProbeListener listener;
+	private final int timeout;
+	private final JobGroup group;
+	private final ConcurrentHashMap<ScaDomainManager, Result> results = new ConcurrentHashMap<ScaDomainManager, Result>();
+	private ORB orb;
+	private boolean disposed;
+
+	/**
+	 * @param listener notified of each result
+	 */
+	DomainProber(final IProbeListener listener) {
+		this.listener = listener;
+		this.timeout = Math.max(1, Integer.getInteger(DomainProber.PROBE_TIMEOUT_PROPERTY, DomainProber.DEFAULT_PROBE_TIMEOUT));
+		final int limit = Math.max(1, Integer.getInteger(DomainProber.CONCURRENT_PROBES_PROPERTY, DomainProber.DEFAULT_CONCURRENT_PROBES));
+		this.group = new JobGroup("Probing domains", limit, 0);
+	}
+
+	/**
+	 * Starts probing the given domains, forgetting any earlier results for them.
+	 *
+	 * @param domains the domains to probe
+	 */
+	void probe(final List<ScaDomainManager> domains) {
+		for (final ScaDomainManager domain : domains) {
+			this.results.remove(domain);
+			final String domainName = domain.getName();
+			final String nameServiceRef = domain.getConnectionProperties().get(ScaDomainManager.NAMING_SERVICE_PROP);
+			if (domainName == null || nameServiceRef == null) {
+				report(domain, new Result(Result.State.UNREACHABLE, -1));
+				continue;
+			}
+
+			final Job probeJob = new Job("Probing " + domainName) {
+				@Override
+				protected IStatus run(final IProgressMonitor monitor) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					report(domain, ping(nameServiceRef, domainName));
+					return Status.OK_STATUS;
+				}
+			};
+			probeJob.setSystem(true);
+			probeJob.setJobGroup(this.group);
+
+			// Waiting for a free slot in the group doesn't count against the domain
+			final Job deadlineJob = new Job("Probe deadline for " + domainName) {
+				@Override
+				protected IStatus run(final IProgressMonitor monitor) {
+					report(domain, new Result(Result.State.NOT_RESPONDING, -1));
+					return Status.OK_STATUS;
+				}
+			};
+			deadlineJob.setSystem(true);
+			probeJob.addJobChangeListener(new JobChangeAdapter() {
+				@Override
+				public void running(final IJobChangeEvent event) {
+					deadlineJob.schedule(DomainProber.this.timeout);
+				}
+
+				@Override
+				public void done(final IJobChangeEvent event) {
+					deadlineJob.cancel();
+				}
+			});
+			probeJob.schedule();
+		}
+	}
+
+	/**
+	 * @param domain a registered domain
+	 * @return the result of the latest probe of the domain, or null if it is still being probed
+	 */
+	Result getResult(final ScaDomainManager domain) {
+		return this.results.get(domain);
+	}
+
+	/**
+	 * Stops probing and releases the private ORB.
+	 */
+	void dispose() {
+		this.group.cancel();
+		final ORB toDestroy;
+		synchronized (this) {
+			this.disposed = true;
+			toDestroy = this.orb;
+			this.orb = null;
+		}
+		if (toDestroy != null) {
+			// Shutting down waits for outstanding requests, so keep it off the caller's thread
+			final Job shutdownJob = new Job("Shutting down domain prober") {
+				@Override
+				protected IStatus run(final IProgressMonitor monitor) {
+					try {
+						toDestroy.shutdown(false);
+						toDestroy.destroy();
+					} catch (final SystemException e) {
+						// PASS
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			shutdownJob.setSystem(true);
+			shutdownJob.schedule();
+		}
+	}
+
+	private void report(final ScaDomainManager domain, final Result result) {
+		// Only the first outcome counts, so a probe finishing after its deadline is ignored
+		if (this.results.putIfAbsent(domain, result) == null) {
+			this.listener.domainProbed(domain, result);
+		}
+	}
+
+	private Result ping(final String nameServiceRef, final String domainName) {
+		final ORB probeOrb = getOrb();
+		if (probeOrb == null) {
+			return new Result(Result.State.UNREACHABLE, -1);
+		}
+		try {
+			final NamingContextExt nameService = NamingContextExtHelper.narrow(probeOrb.string_to_object(nameServiceRef));
+			final org.omg.CORBA.Object domainManager = nameService.resolve_str(domainName + "/" + domainName);
+			final long start = System.nanoTime();
+			final boolean gone = domainManager._non_existent();
+			final long latency = (System.nanoTime() - start) / DomainProber.NANOS_PER_MILLI;
+			if (gone) {
+				return new Result(Result.State.UNREACHABLE, -1);
+			}
+			return new Result(Result.State.REACHABLE, latency);
+		} catch (final NotFound e) {
+			return new Result(Result.State.UNREACHABLE, -1);
+		} catch (final CannotProceed e) {
+			return new Result(Result.State.UNREACHABLE, -1);
+		} catch (final InvalidName e) {
+			return new Result(Result.State.UNREACHABLE, -1);
+		} catch (final org.omg.CORBA.TIMEOUT e) {
+			return new Result(Result.State.NOT_RESPONDING, -1);
+		} catch (final SystemException e) {
+			return new Result(Result.State.UNREACHABLE, -1);
+		}
+	}
+
+	private synchronized ORB getOrb() {
+		if (this.orb == null && !this.disposed) {
+			final Properties props = new Properties();
+			props.putAll(System.getProperties());
+			// Make every call on the private ORB give up by the probe deadline
+			props.setProperty("jacorb.connection.client.connect_timeout", Integer.toString(this.timeout));
+			props.setProperty("jacorb.connection.client.pending_reply_timeout", Integer.toString(this.timeout));
+			props.setProperty("jacorb.retries", "0");
+			this.orb = ORB.init(new String[0], props);
+		}
+		return this.orb;
+	}
+}
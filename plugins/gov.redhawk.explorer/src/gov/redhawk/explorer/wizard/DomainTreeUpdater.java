@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaDomainManagerRegistry;
+import gov.redhawk.model.sca.ScaPackage;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.model.sca.commands.ScaModelCommand;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Keeps the domain tree in step with the SCA model. The updater listens to the registry, its domain managers and
+ * their waveforms, and turns each notification into the smallest tree change that shows it: a domain added to or
+ * removed from the registry is added to or removed from the tree, a change to a domain's waveforms refreshes that
+ * domain's subtree, and any other change updates the element's label. Changes are collected from whatever thread the
+ * model notifies on and applied together once per pass of the UI event loop.
+ */
+class DomainTreeUpdater extends AdapterImpl {
+
+	private final ScaDomainManagerRegistry registry;
+	private final TreeViewer viewer;
+	private final Display display;
+	private final Set<Object> added = new LinkedHashSet<Object>();
+	private final Set<Object> removed = new LinkedHashSet<Object>();
+	private final Set<Object> refreshed = new LinkedHashSet<Object>();
+	private final Set<Object> updated = new LinkedHashSet<Object>();
+	private boolean scheduled;
+
+	/**
+	 * @param registry the registry shown in the tree
+	 * @param viewer the domain tree, whose input is the registry
+	 */
+	DomainTreeUpdater(final ScaDomainManagerRegistry registry, final TreeViewer viewer) {
+		this.registry = registry;
+		this.viewer = viewer;
+		this.display = viewer.getControl().getDisplay();
+	}
+
+	/**
+	 * Starts listening to the model.
+	 */
+	void install() {
+		ScaModelCommand.execute(this.registry, new ScaModelCommand() {
+			@Override
+			public void execute() {
+				DomainTreeUpdater.this.registry.eAdapters().add(DomainTreeUpdater.this);
+				for (final ScaDomainManager domain : DomainTreeUpdater.this.registry.getDomains()) {
+					attach(domain);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Stops listening to the model and drops any changes that haven't been applied.
+	 */
+	void dispose() {
+		ScaModelCommand.execute(this.registry, new ScaModelCommand() {
+			@Override
+			public void execute() {
+				DomainTreeUpdater.this.registry.eAdapters().remove(DomainTreeUpdater.this);
+				for (final ScaDomainManager domain : DomainTreeUpdater.this.registry.getDomains()) {
+					detach(domain);
+				}
+			}
+		});
+		synchronized (this) {
+			this.added.clear();
+			this.removed.clear();
+			this.refreshed.clear();
+			this.updated.clear();
+		}
+	}
+
+	/**
+	 * Updates an element's label with the next batch of changes. May be called from any thread.
+	 *
+	 * @param element the element whose label changed
+	 */
+	void update(final Object element) {
+		synchronized (this) {
+			this.updated.add(element);
+		}
+		schedule();
+	}
+
+	@Override
+	public void notifyChanged(final Notification msg) {
+		if (msg.isTouch()) {
+			return;
+		}
+		final Object notifier = msg.getNotifier();
+		if (msg.getFeature() == ScaPackage.Literals.SCA_DOMAIN_MANAGER_REGISTRY__DOMAINS) {
+			domainsChanged(msg);
+		} else if (msg.getFeature() == ScaPackage.Literals.SCA_DOMAIN_MANAGER__WAVEFORMS) {
+			waveformsChanged(msg);
+		} else if (notifier instanceof ScaDomainManager || (notifier instanceof ScaWaveform && msg.getFeature() instanceof EAttribute)) {
+			update(notifier);
+		}
+	}
+
+	private void domainsChanged(final Notification msg) {
+		switch (msg.getEventType()) {
+		case Notification.ADD:
+		case Notification.ADD_MANY:
+			for (final Object domain : values(msg.getNewValue())) {
+				attach((ScaDomainManager) domain);
+				synchronized (this) {
+					if (!this.removed.remove(domain)) {
+						this.added.add(domain);
+					} else {
+						this.refreshed.add(domain);
+					}
+				}
+			}
+			break;
+		case Notification.REMOVE:
+		case Notification.REMOVE_MANY:
+			for (final Object domain : values(msg.getOldValue())) {
+				detach((ScaDomainManager) domain);
+				synchronized (this) {
+					if (!this.added.remove(domain)) {
+						this.removed.add(domain);
+					}
+					this.refreshed.remove(domain);
+					this.updated.remove(domain);
+				}
+			}
+			break;
+		default:
+			synchronized (this) {
+				this.refreshed.add(this.registry);
+			}
+			break;
+		}
+		schedule();
+	}
+
+	private void waveformsChanged(final Notification msg) {
+		switch (msg.getEventType()) {
+		case Notification.ADD:
+		case Notification.ADD_MANY:
+			for (final Object waveform : values(msg.getNewValue())) {
+				((ScaWaveform) waveform).eAdapters().add(this);
+			}
+			break;
+		case Notification.REMOVE:
+		case Notification.REMOVE_MANY:
+			for (final Object waveform : values(msg.getOldValue())) {
+				((ScaWaveform) waveform).eAdapters().remove(this);
+			}
+			break;
+		default:
+			break;
+		}
+		synchronized (this) {
+			this.refreshed.add(msg.getNotifier());
+		}
+		schedule();
+	}
+
+	private void attach(final ScaDomainManager domain) {
+		domain.eAdapters().add(this);
+		for (final ScaWaveform waveform : domain.getWaveforms()) {
+			waveform.eAdapters().add(this);
+		}
+	}
+
+	private void detach(final ScaDomainManager domain) {
+		domain.eAdapters().remove(this);
+		for (final ScaWaveform waveform : domain.getWaveforms()) {
+			waveform.eAdapters().remove(this);
+		}
+	}
+
+	private void schedule() {
+		synchronized (this) {
+			// Changes arriving while a batch is pending are applied by that batch
+			if (this.scheduled) {
+				return;
+			}
+			this.scheduled = true;
+		}
+		if (this.display.isDisposed()) {
+			return;
+		}
+		this.display.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				apply();
+			}
+		});
+	}
+
+	private void apply() {
+		final Object[] toAdd;
+		final Object[] toRemove;
+		final Object[] toRefresh;
+		final Set<Object> toUpdate;
+		synchronized (this) {
+			this.scheduled = false;
+			toAdd = this.added.toArray();
+			toRemove = this.removed.toArray();
+			toRefresh = this.refreshed.toArray();
+			// A refresh updates the labels of the refreshed elements as well
+			this.updated.removeAll(this.refreshed);
+			toUpdate = new LinkedHashSet<Object>(this.updated);
+			this.added.clear();
+			this.removed.clear();
+			this.refreshed.clear();
+			this.updated.clear();
+		}
+		if (this.viewer.getControl().isDisposed()) {
+			return;
+		}
+		if (toRemove.length > 0) {
+			this.viewer.remove(toRemove);
+		}
+		if (toAdd.length > 0) {
+			this.viewer.add(this.registry, toAdd);
+		}
+		for (final Object element : toRefresh) {
+			this.viewer.refresh(element, true);
+		}
+		if (!toUpdate.isEmpty()) {
+			this.viewer.update(toUpdate.toArray(), null);
+		}
+	}
+
+	private static Collection< ? > values(final Object value) {
+		if (value instanceof Collection< ? >) {
+			return (Collection< ? >) value;
+		}
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		return Collections.singletonList(value);
+	}
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.model.sca.DomainConnectionException;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.sca.ScaPlugin;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.progress.WorkbenchJob;
+
+/**
+ * Launches, or attaches to, a single catalog waveform named on the command line without showing the startup wizard:
+ * 
+ * <pre>
+ * -domain &lt;domain name&gt; -launchWaveform &lt;type&gt;/&lt;waveform name&gt;
+ * </pre>
+ * 
+ * The job connects to the domain, resolves the catalog entry and launches the waveform while the workbench is still
+ * starting, then opens the waveform's editor once a workbench window is available. Problems are logged rather than
+ * shown. How long the waveform took to reach the screen, measured from JVM start, is logged as well.
+ */
+public class QuickLaunchJob extends Job {
+
+	// How often to check for cancellation and for a workbench window, in milliseconds
+	private static final long POLL_INTERVAL = 50;
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	// How long to wait for the profiles of waveforms already running, in milliseconds, as the wizard does
+	private static final long ATTACH_TIMEOUT = 2500;
+
+	private final String domainName;
+	private final String waveformType;
+	private final String waveformName;
+	private ScaWaveform waveform;
+	private WaveformLaunch launch;
+	private long connectTime = -1;
+	private long catalogTime = -1;
+	private IStatus catalogError;
+
+	/**
+	 * @param domainName the name of the domain to launch the waveform on
+	 * @param waveform the waveform to launch, as <code>&lt;type&gt;/&lt;name&gt;</code> or just
+	 * <code>&lt;name&gt;</code> to search every type
+	 */
+	public QuickLaunchJob(final String domainName, final String waveform) {
+		super("Launching " + waveform + " on " + domainName);
+		this.domainName = domainName;
+		final int separator = waveform.indexOf('/');
+		if (separator < 0) {
+			this.waveformType = null;
+			this.waveformName = waveform;
+		} else {
+			this.waveformType = waveform.substring(0, separator);
+			this.waveformName = waveform.substring(separator + 1);
+		}
+	}
+
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		final IStatus status;
+		try {
+			status = launch(monitor);
+		} catch (final InterruptedException e) {
+			return Status.CANCEL_STATUS;
+		}
+		if (!status.isOK()) {
+			Activator.getDefault().getLog().log(status);
+			return Status.OK_STATUS;
+		}
+		openEditor();
+		return Status.OK_STATUS;
+	}
+
+	private IStatus launch(final IProgressMonitor monitor) throws InterruptedException {
+		monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
+		try {
+			final ScaDomainManager domain = ScaPlugin.getDefault().getDomainManagerRegistry(null).findDomain(this.domainName);
+			if (domain == null) {
+				return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unknown domain " + this.domainName);
+			}
+
+			long phaseStart = System.nanoTime();
+			try {
+				StagedConnect.connect(domain, monitor);
+			} catch (final DomainConnectionException e) {
+				return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + this.domainName, e);
+			}
+			// Attaching needs the running applications, which the staged connect leaves to the background
+			domain.fetchWaveforms(monitor);
+			this.connectTime = System.nanoTime() - phaseStart;
+
+			phaseStart = System.nanoTime();
+			final WaveMapping mapping = findMapping(domain, monitor);
+			this.catalogTime = System.nanoTime() - phaseStart;
+			if (mapping == null && this.catalogError != null) {
+				return this.catalogError;
+			} else if (mapping == null) {
+				return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to find waveform " + getWaveformLabel() + " in the catalog of domain "
+					+ this.domainName);
+			}
+
+			// Attach to the waveform if it is already running, giving the profiles of new waveforms time to fill in
+			final List<ScaWaveform> running = new RunningWaveformFinder(domain, Collections.singletonList(mapping)).findRunning(
+				QuickLaunchJob.ATTACH_TIMEOUT, monitor);
+			if (!running.isEmpty()) {
+				this.waveform = running.get(0);
+				return Status.OK_STATUS;
+			}
+
+			this.launch = new WaveformLaunch(domain, mapping, true);
+			try {
+				this.waveform = this.launch.launch(monitor);
+			} catch (final CoreException e) {
+				return e.getStatus();
+			}
+			return Status.OK_STATUS;
+		} finally {
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Looks the waveform up in the cached catalog if there is one, and in the domain's current catalog otherwise.
+	 */
+	private WaveMapping findMapping(final ScaDomainManager domain, final IProgressMonitor monitor) throws InterruptedException {
+		final CatalogLoadJob catalogJob = new CatalogLoadJob(domain, null);
+		catalogJob.schedule();
+		try {
+			while (!catalogJob.awaitResult(QuickLaunchJob.POLL_INTERVAL)) {
+				if (monitor.isCanceled()) {
+					throw new InterruptedException();
+				}
+			}
+			WaveMapping mapping = find(catalogJob.getCatalog());
+			if (mapping == null) {
+				// The cached catalog may be out of date
+				while (catalogJob.getState() != Job.NONE) {
+					if (monitor.isCanceled()) {
+						throw new InterruptedException();
+					}
+					Thread.sleep(QuickLaunchJob.POLL_INTERVAL);
+				}
+				mapping = find(catalogJob.getCatalog());
+			}
+			this.catalogError = catalogJob.getError();
+			return mapping;
+		} finally {
+			catalogJob.cancel();
+		}
+	}
+
+	private WaveMapping find(final WaveformCatalog catalog) {
+		if (catalog == null) {
+			return null;
+		}
+		final List<String> types;
+		if (this.waveformType != null) {
+			types = Collections.singletonList(this.waveformType);
+		} else {
+			types = catalog.getTypes();
+		}
+		for (final String type : types) {
+			for (final WaveMapping mapping : catalog.getWaveforms(type)) {
+				if (this.waveformName.equals(mapping.getWaveformName())) {
+					return mapping;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Opens the editor as soon as the workbench has a window to show it in.
+	 */
+	private void openEditor() {
+		final WorkbenchJob editorJob = new WorkbenchJob("Opening " + this.waveformName) {
+			@Override
+			public IStatus runInUIThread(final IProgressMonitor monitor) {
+				IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+				if (window == null && PlatformUI.getWorkbench().getWorkbenchWindowCount() > 0) {
+					window = PlatformUI.getWorkbench().getWorkbenchWindows()[0];
+				}
+				if (window == null || window.getActivePage() == null) {
+					// The workbench is still starting
+					schedule(QuickLaunchJob.POLL_INTERVAL);
+					return Status.OK_STATUS;
+				}
+				try {
+					if (QuickLaunchJob.this.launch != null) {
+						QuickLaunchJob.this.launch.openEditor(window.getActivePage());
+						QuickLaunchJob.this.launch.logTimings();
+					} else {
+						WaveformLaunch.openEditor(window.getActivePage(), QuickLaunchJob.this.domainName, QuickLaunchJob.this.waveform);
+					}
+				} catch (final CoreException e) {
+					Activator.getDefault().getLog().log(e.getStatus());
+					return Status.OK_STATUS;
+				}
+				logTimeToScreen();
+				return Status.OK_STATUS;
+			}
+		};
+		editorJob.setSystem(true);
+		editorJob.schedule();
+	}
+
+	private void logTimeToScreen() {
+		final long sinceStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+		final StringBuilder message = new StringBuilder();
+		message.append((this.launch != null) ? "Launched" : "Attached to").append(" waveform ").append(getWaveformLabel());
+		message.append(" on domain ").append(this.domainName).append(" from the command line: on screen ").append(sinceStart);
+		message.append(" ms after JVM start (connect ").append(this.connectTime / QuickLaunchJob.NANOS_PER_MILLI);
+		message.append(" ms, catalog ").append(this.catalogTime / QuickLaunchJob.NANOS_PER_MILLI).append(" ms)");
+		Activator.getDefault().getLog().log(new Status(IStatus.INFO, Activator.PLUGIN_ID, message.toString()));
+	}
+
+	private String getWaveformLabel() {
+		if (this.waveformType == null) {
+			return this.waveformName;
+		}
+		return this.waveformType + "/" + this.waveformName;
+	}
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaPackage;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.model.sca.commands.ScaModelCommand;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+
+/**
+ * Finds the waveforms running on a domain whose profiles are in the domain's catalog. Rather than polling the
+ * domain, the finder listens for changes to the domain's waveforms in the SCA model. It returns once a match has
+ * shown up and every waveform still waiting for its profile has been checked, so that no running instance is missed.
+ */
+class RunningWaveformFinder extends AdapterImpl {
+
+	// How often a waiting thread checks for cancellation, in milliseconds
+	private static final long POLL_INTERVAL = 50;
+
+	private final ScaDomainManager domain;
+	private final CatalogProfiles profiles;
+	private final Set<ScaWaveform> matches = new LinkedHashSet<ScaWaveform>();
+	// Waveforms whose profile hasn't been filled in yet
+	private final Set<ScaWaveform> pending = new LinkedHashSet<ScaWaveform>();
+	// Waveforms this finder listens to, until it is done
+	private final List<ScaWaveform> watched = new ArrayList<ScaWaveform>();
+
+	/**
+	 * @param domain the domain to look for running waveforms on
+	 * @param mappings the waveforms in the domain's catalog
+	 */
+	RunningWaveformFinder(final ScaDomainManager domain, final Collection<WaveMapping> mappings) {
+		this.domain = domain;
+		this.profiles = new CatalogProfiles(mappings);
+	}
+
+	/**
+	 * Waits for running waveforms from the catalog to show up on the domain. Once one has, waits on for the profiles
+	 * of the other waveforms still being filled in, within the same timeout.
+	 *
+	 * @param timeout the maximum time to wait, in milliseconds
+	 * @param monitor the monitor to check for cancellation
+	 * @return every matching waveform running on the domain; empty if none showed up in time
+	 * @throws InterruptedException if the monitor was canceled
+	 */
+	List<ScaWaveform> find(final long timeout, final IProgressMonitor monitor) throws InterruptedException {
+		return find(timeout, false, monitor);
+	}
+
+	/**
+	 * Checks the waveforms already running on the domain, waiting only for the profiles of those still being filled
+	 * in. Unlike {@link #find(long, IProgressMonitor)}, returns at once if nothing is running.
+	 *
+	 * @param timeout the maximum time to wait for profiles, in milliseconds
+	 * @param monitor the monitor to check for cancellation
+	 * @return every matching waveform running on the domain; empty if none was found in time
+	 * @throws InterruptedException if the monitor was canceled
+	 */
+	List<ScaWaveform> findRunning(final long timeout, final IProgressMonitor monitor) throws InterruptedException {
+		return find(timeout, true, monitor);
+	}
+
+	private List<ScaWaveform> find(final long timeout, final boolean runningOnly, final IProgressMonitor monitor) throws InterruptedException {
+		if (this.profiles.isEmpty()) {
+			return new ArrayList<ScaWaveform>();
+		}
+		ScaModelCommand.execute(this.domain, new ScaModelCommand() {
+			@Override
+			public void execute() {
+				// Check what is already running while holding the model so nothing added in between is missed
+				RunningWaveformFinder.this.domain.eAdapters().add(RunningWaveformFinder.this);
+				for (final ScaWaveform waveform : RunningWaveformFinder.this.domain.getWaveforms()) {
+					check(waveform);
+				}
+			}
+		});
+		try {
+			final long deadline = System.currentTimeMillis() + timeout;
+			synchronized (this) {
+				while ((!runningOnly && this.matches.isEmpty()) || !this.pending.isEmpty()) {
+					if (monitor.isCanceled()) {
+						throw new InterruptedException();
+					}
+					final long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						break;
+					}
+					wait(Math.min(remaining, RunningWaveformFinder.POLL_INTERVAL));
+				}
+			}
+		} finally {
+			ScaModelCommand.execute(this.domain, new ScaModelCommand() {
+				@Override
+				public void execute() {
+					RunningWaveformFinder.this.domain.eAdapters().remove(RunningWaveformFinder.this);
+					synchronized (RunningWaveformFinder.this) {
+						for (final ScaWaveform waveform : RunningWaveformFinder.this.watched) {
+							waveform.eAdapters().remove(RunningWaveformFinder.this);
+						}
+						RunningWaveformFinder.this.watched.clear();
+						RunningWaveformFinder.this.pending.clear();
+					}
+				}
+			});
+		}
+		synchronized (this) {
+			return new ArrayList<ScaWaveform>(this.matches);
+		}
+	}
+
+	@Override
+	public void notifyChanged(final Notification msg) {
+		if (msg.getFeature() == ScaPackage.Literals.SCA_DOMAIN_MANAGER__WAVEFORMS) {
+			switch (msg.getEventType()) {
+			case Notification.ADD:
+				check(msg.getNewValue());
+				break;
+			case Notification.ADD_MANY:
+				for (final Object waveform : (Collection< ? >) msg.getNewValue()) {
+					check(waveform);
+				}
+				break;
+			default:
+				break;
+			}
+		} else if (msg.getFeature() == ScaPackage.Literals.PROFILE_OBJECT_WRAPPER__PROFILE) {
+			check(msg.getNotifier());
+		}
+	}
+
+	private synchronized void check(final Object object) {
+		if (!(object instanceof ScaWaveform)) {
+			return;
+		}
+		final ScaWaveform waveform = (ScaWaveform) object;
+		final String profile = waveform.getProfile();
+		if (profile == null) {
+			// The profile of a newly added waveform is filled in after the waveform shows up
+			if (this.pending.add(waveform) && !this.watched.contains(waveform)) {
+				this.watched.add(waveform);
+				waveform.eAdapters().add(this);
+			}
+			return;
+		}
+		this.pending.remove(waveform);
+		if (this.profiles.contains(profile)) {
+			this.matches.add(waveform);
+		}
+		notifyAll();
+	}
+}
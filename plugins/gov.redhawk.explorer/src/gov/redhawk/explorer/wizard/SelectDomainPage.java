@@ -13,7 +13,6 @@ package gov.redhawk.explorer.wizard;
 import gov.redhawk.explorer.Activator;
 import gov.redhawk.model.sca.DomainConnectionException;
 import gov.redhawk.model.sca.DomainConnectionState;
-import gov.redhawk.model.sca.RefreshDepth;
 import gov.redhawk.model.sca.ScaDomainManager;
 import gov.redhawk.model.sca.ScaDomainManagerRegistry;
 import gov.redhawk.model.sca.ScaWaveform;
@@ -27,14 +26,13 @@ import gov.redhawk.sca.ui.preferences.DomainEntryWizard;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.notify.AdapterFactory;
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
 import org.eclipse.emf.edit.provider.ReflectiveItemProviderAdapterFactory;
 import org.eclipse.emf.edit.provider.resource.ResourceItemProviderAdapterFactory;
@@ -55,15 +53,22 @@ import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.ui.dialogs.PatternFilter;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.statushandlers.StatusManager;
 
 public class SelectDomainPage extends WizardPage {
+	// How long typing must pause before the tree is filtered, in milliseconds
+	private static final long FILTER_DELAY = 150;
+
 	private FormFilteredTree domainList = null;
 	private ComposedAdapterFactory adapterFactory;
 	private final StartupWizard parent;
 	private ScaDomainManager mgr;
-	private MyPatternFilter patternFilter;
+	private DomainNameFilter patternFilter;
+	private DomainTreeUpdater treeUpdater;
+	private DomainProber prober;
+	private final AppsRunningCheck appsCheck = new AppsRunningCheck();
+	private boolean shown;
 
 	public SelectDomainPage(final String pageName, final StartupWizard parent) {
 		super(pageName);
@@ -79,41 +84,60 @@ public class SelectDomainPage extends WizardPage {
 		final GridLayout layout = new GridLayout(3, false);
 		container.setLayout(layout);
 
-		this.patternFilter = new MyPatternFilter();
-		this.domainList = new FormFilteredTree(container, SWT.SINGLE | SWT.V_SCROLL, this.patternFilter);
+		this.patternFilter = new DomainNameFilter();
+		this.domainList = new FormFilteredTree(container, SWT.SINGLE | SWT.V_SCROLL, this.patternFilter) {
+			@Override
+			protected long getRefreshJobDelay() {
+				// Filter once typing pauses rather than on every keystroke
+				return SelectDomainPage.FILTER_DELAY;
+			}
+		};
 		this.domainList.setBackground(container.getBackground());
 		this.domainList.setLayoutData(GridDataFactory.fillDefaults().align(SWT.FILL, SWT.FILL).grab(true, true).span(2, 1).create());
-		this.domainList.getViewer().setContentProvider(new AdapterFactoryContentProvider(getAdapterFactory()));
+		this.domainList.getViewer().setContentProvider(new AdapterFactoryContentProvider(getAdapterFactory()) {
+			@Override
+			public void notifyChanged(final Notification notification) {
+				// PASS - The tree updater applies model changes to the tree in batches
+			}
+		});
 		this.domainList.getViewer().setLabelProvider(new AdapterFactoryLabelProvider(getAdapterFactory()) {
 			@Override
 			public String getText(final Object object) {
 				String text = super.getText(object);
 				if (object instanceof ScaDomainManager) {
 					text += " (" + ((ScaDomainManager) object).getState().getLiteral().toUpperCase() + ")";
+					text += getProbeText((ScaDomainManager) object);
 				}
 				return text;
 			}
 		});
-		this.domainList.getViewer().setFilters(createDomainViewerFilter());
-		this.domainList.getViewer().setInput(ScaPlugin.getDefault().getDomainManagerRegistry(null));
+		// The pattern filter shows everything while the filter text is empty, so the types are limited separately
+		this.domainList.getViewer().addFilter(createDomainViewerFilter());
+		final ScaDomainManagerRegistry registry = ScaPlugin.getDefault().getDomainManagerRegistry(null);
+		this.domainList.getViewer().setInput(registry);
+		this.treeUpdater = new DomainTreeUpdater(registry, this.domainList.getViewer());
+		this.treeUpdater.install();
+		startProbing();
 		this.domainList.getViewer().addSelectionChangedListener(new ISelectionChangedListener() {
 			@Override
 			public void selectionChanged(final SelectionChangedEvent event) {
 				boolean domainSelected = false;
-				boolean appsRunning = false;
 				final StructuredSelection selection = (StructuredSelection) event.getSelection();
 				if (!selection.isEmpty() && selection.getFirstElement() instanceof ScaDomainManager) {
 					if (connect(selection)) {
 						domainSelected = true;
-						try {
-							appsRunning = SelectDomainPage.this.mgr.applications().length > 0;
-						} catch (final Exception e) { // SUPPRESS CHECKSTYLE TODO: Figure out a better catch than Exception
-							// PASS - You can connect to a domain that isn't up but is in the NameService
-						}
+						// Have the catalog ready by the time the user moves on to the next page
+						SelectDomainPage.this.parent.prefetchCatalog(SelectDomainPage.this.mgr);
+						checkAppsRunning(SelectDomainPage.this.mgr);
 					}
 				}
+				if (!domainSelected) {
+					SelectDomainPage.this.parent.cancelPrefetch();
+					SelectDomainPage.this.appsCheck.cancel();
+				}
 				SelectDomainPage.this.setPageComplete(domainSelected);
-				SelectDomainPage.this.parent.appsRunning(appsRunning);
+				// Until the domain answers, assume nothing is running
+				SelectDomainPage.this.parent.appsRunning(false);
 			}
 		});
 
@@ -158,6 +182,7 @@ public class SelectDomainPage extends WizardPage {
 	public boolean connect(final StructuredSelection selection) {
 		final IStatus[] status = new IStatus[1];
 		status[0] = null;
+		boolean canceled = false;
 		this.mgr = (ScaDomainManager) selection.getFirstElement();
 		try {
 			getContainer().run(true, true, new IRunnableWithProgress() {
@@ -165,11 +190,12 @@ public class SelectDomainPage extends WizardPage {
 				public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
 					monitor.beginTask("Connecting to the domain", 2);
 					try {
-						if (SelectDomainPage.this.mgr.getState().getValue() != DomainConnectionState.CONNECTED_VALUE) {
-							SelectDomainPage.this.mgr.connect(new NullProgressMonitor(), RefreshDepth.CHILDREN);
-						}
+						// Don't race a connect started while the workbench was starting
+						WarmStart.awaitConnect(SelectDomainPage.this.mgr, monitor);
+						// Only what the wizard needs is fetched now; the rest of the domain fills in afterwards
+						StagedConnect.connect(SelectDomainPage.this.mgr, monitor);
 					} catch (final DomainConnectionException e) {
-						status[0] = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + SelectDomainPage.this.mgr.getName());
+						status[0] = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + SelectDomainPage.this.mgr.getName(), e);
 					}
 					monitor.worked(1);
 
@@ -179,9 +205,12 @@ public class SelectDomainPage extends WizardPage {
 		} catch (final InvocationTargetException e) {
 			status[0] = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + this.mgr.getName());
 		} catch (final InterruptedException e) {
-			status[0] = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to connect to Domain: " + this.mgr.getName());
+			// The user canceled; the connect carries on in the background
+			canceled = true;
 		}
-		if (status[0] != null) {
+		if (canceled) {
+			this.domainList.getViewer().setSelection(new StructuredSelection());
+		} else if (status[0] != null) {
 			setErrorMessage("Unable to connect to Domain: " + this.mgr.getName());
 			this.domainList.getViewer().setSelection(new StructuredSelection());
 			StatusManager.getManager().handle(status[0]);
@@ -193,63 +222,139 @@ public class SelectDomainPage extends WizardPage {
 			}
 		}
 
-		this.domainList.getViewer().refresh();
+		return !canceled && (status[0] == null);
+	}
 
-		return (status[0] == null);
+	@Override
+	public void setVisible(final boolean visible) {
+		final boolean first = visible && !this.shown;
+		super.setVisible(visible);
+		if (first) {
+			this.shown = true;
+			selectRememberedDomain();
+		}
 	}
 
 	/**
-	 * Gets the adapter factory.
-	 * 
-	 * @return the adapter factory
+	 * Selects the domain chosen last time, once the dialog is open and can show the connect's progress.
 	 */
-	private AdapterFactory getAdapterFactory() {
-		if (this.adapterFactory == null) {
-			this.adapterFactory = new ComposedAdapterFactory(ComposedAdapterFactory.Descriptor.Registry.INSTANCE);
-
-			this.adapterFactory.addAdapterFactory(new ResourceItemProviderAdapterFactory());
-			this.adapterFactory.addAdapterFactory(new ScaItemProviderAdapterFactory());
-			this.adapterFactory.addAdapterFactory(new ReflectiveItemProviderAdapterFactory());
+	private void selectRememberedDomain() {
+		final String domainName = WarmStart.getDomainName();
+		if (domainName == null) {
+			return;
 		}
-		return this.adapterFactory;
+		final ScaDomainManager domain = ScaPlugin.getDefault().getDomainManagerRegistry(null).findDomain(domainName);
+		if (domain == null) {
+			return;
+		}
+		getShell().getDisplay().asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (!SelectDomainPage.this.domainList.isDisposed() && SelectDomainPage.this.domainList.getViewer().getSelection().isEmpty()) {
+					SelectDomainPage.this.domainList.getViewer().setSelection(new StructuredSelection(domain), true);
+				}
+			}
+		});
 	}
 
 	/**
-	 * Creates the domain viewer filter.
-	 * 
-	 * @return the viewer filter[]
+	 * Probes every registered domain in the background and shows each result as it arrives.
 	 */
-	private ViewerFilter[] createDomainViewerFilter() {
-		return new ViewerFilter[] { new ViewerFilter() {
+	private void startProbing() {
+		this.prober = new DomainProber(new DomainProber.IProbeListener() {
 			@Override
-			public Object[] filter(final Viewer viewer, final Object parent, final Object[] elements) {
-				final List<Object> elems = new ArrayList<Object>();
-				for (final Object obj : elements) {
-					ScaDomainManager dommgr = null;
-					String name = "";
-					if (obj instanceof ScaDomainManager) {
-						dommgr = (ScaDomainManager) obj;
-						name = dommgr.getName();
-					} else if (obj instanceof ScaWaveform) {
-						dommgr = (ScaDomainManager) ((ScaWaveform) obj).eContainer();
-						name = ((ScaWaveform) obj).getName();
-					} else if (obj instanceof ScaWaveformsContainerItemProvider) {
-						dommgr = (ScaDomainManager) ((ScaWaveformsContainerItemProvider) obj).getTarget();
-						name = dommgr.getName();
-					}
-					if ((dommgr != null) && SelectDomainPage.this.patternFilter.wordMatches(name)) {
-						elems.add(obj);
-					}
-				}
-
-				return elems.toArray();
+			public void domainProbed(final ScaDomainManager domain, final DomainProber.Result result) {
+				SelectDomainPage.this.treeUpdater.update(domain);
 			}
+		});
+		final ScaDomainManagerRegistry registry = ScaPlugin.getDefault().getDomainManagerRegistry(null);
+		this.prober.probe(new ArrayList<ScaDomainManager>(registry.getDomains()));
+	}
 
+	/**
+	 * @return a filter which shows only domains, their waveforms folders and their waveforms
+	 */
+	private static ViewerFilter createDomainViewerFilter() {
+		return new ViewerFilter() {
 			@Override
 			public boolean select(final Viewer viewer, final Object parentElement, final Object element) {
 				return element instanceof ScaDomainManager || element instanceof ScaWaveform || element instanceof ScaWaveformsContainerItemProvider;
 			}
-		} };
+		};
+	}
+
+	/**
+	 * Asks the domain in the background whether applications are running, and lets the wizard finish from this page
+	 * if they are.
+	 */
+	private void checkAppsRunning(final ScaDomainManager domain) {
+		final Display display = getShell().getDisplay();
+		this.appsCheck.check(domain, new AppsRunningCheck.ICallback() {
+			@Override
+			public void appsRunning(final ScaDomainManager checked, final boolean running) {
+				if (display.isDisposed()) {
+					return;
+				}
+				display.asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						if (!SelectDomainPage.this.domainList.isDisposed() && checked == getDomainManager()) {
+							SelectDomainPage.this.parent.appsRunning(running);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	private String getProbeText(final ScaDomainManager domain) {
+		if (this.prober == null) {
+			return "";
+		}
+		final DomainProber.Result result = this.prober.getResult(domain);
+		if (result == null) {
+			return " - probing...";
+		}
+		switch (result.getState()) {
+		case REACHABLE:
+			return " - " + result.getLatency() + " ms";
+		case NOT_RESPONDING:
+			return " - not responding";
+		default:
+			return " - unreachable";
+		}
+	}
+
+	@Override
+	public void dispose() {
+		this.appsCheck.cancel();
+		this.appsCheck.clear();
+		if (this.treeUpdater != null) {
+			this.treeUpdater.dispose();
+		}
+		if (this.patternFilter != null) {
+			this.patternFilter.clearNames();
+		}
+		if (this.prober != null) {
+			this.prober.dispose();
+		}
+		super.dispose();
+	}
+
+	/**
+	 * Gets the adapter factory.
+	 * 
+	 * @return the adapter factory
+	 */
+	private AdapterFactory getAdapterFactory() {
+		if (this.adapterFactory == null) {
+			this.adapterFactory = new ComposedAdapterFactory(ComposedAdapterFactory.Descriptor.Registry.INSTANCE);
+
+			this.adapterFactory.addAdapterFactory(new ResourceItemProviderAdapterFactory());
+			this.adapterFactory.addAdapterFactory(new ScaItemProviderAdapterFactory());
+			this.adapterFactory.addAdapterFactory(new ReflectiveItemProviderAdapterFactory());
+		}
+		return this.adapterFactory;
 	}
 
 	/**
@@ -260,11 +365,4 @@ public class SelectDomainPage extends WizardPage {
 	public ScaDomainManager getDomainManager() {
 		return (ScaDomainManager) ((StructuredSelection) this.domainList.getViewer().getSelection()).getFirstElement();
 	}
-
-	private class MyPatternFilter extends PatternFilter {
-		@Override
-		public boolean wordMatches(final String text) {
-			return super.wordMatches(text);
-		}
-	}
 }
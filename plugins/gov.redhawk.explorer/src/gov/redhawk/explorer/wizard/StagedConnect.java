@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.internal.Deadline;
+import gov.redhawk.explorer.internal.RemoteMetrics;
+import gov.redhawk.model.sca.DomainConnectionException;
+import gov.redhawk.model.sca.DomainConnectionState;
+import gov.redhawk.model.sca.RefreshDepth;
+import gov.redhawk.model.sca.ScaDomainManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Connects to a domain in stages. The domain itself and its file manager are fetched up front, which is all the
+ * startup wizard needs to continue; the applications, device managers and devices are filled in afterwards by a
+ * low priority background job. The SCA model notifies its listeners as each child arrives, so views showing the
+ * domain fill in progressively.
+ */
+public final class StagedConnect {
+
+	private static final Logger LOGGER = Logger.getLogger(StagedConnect.class.getName());
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	private StagedConnect() {
+	}
+
+	/**
+	 * Connects to the domain, if it isn't already connected, and starts filling in its children in the background.
+	 * The connect runs in a job of its own, so the calling thread returns as soon as the monitor is canceled or the
+	 * {@link Deadline#forConnect() connect deadline} passes; an abandoned connect is left to finish in the background.
+	 *
+	 * @param domain the domain to connect to
+	 * @param monitor the progress monitor
+	 * @throws DomainConnectionException if the domain couldn't be connected to in time
+	 * @throws InterruptedException if the monitor was canceled
+	 */
+	public static void connect(final ScaDomainManager domain, final IProgressMonitor monitor) throws DomainConnectionException, InterruptedException {
+		final long start = System.nanoTime();
+		boolean connected = false;
+		try {
+			connectInJob(domain, monitor);
+			connected = true;
+		} finally {
+			RemoteMetrics.record(domain.getName(), RemoteMetrics.Operation.CONNECT, start, !connected);
+			if (StagedConnect.LOGGER.isLoggable(Level.FINE)) {
+				StagedConnect.LOGGER.log(Level.FINE, "Connect to domain {0} {1} after {2} ms", new Object[] { domain.getName(),
+					connected ? "succeeded" : "failed", (System.nanoTime() - start) / StagedConnect.NANOS_PER_MILLI });
+			}
+		}
+		refreshChildren(domain);
+	}
+
+	private static void connectInJob(final ScaDomainManager domain, final IProgressMonitor monitor) throws DomainConnectionException,
+		InterruptedException {
+		final Deadline deadline = Deadline.forConnect();
+		final CountDownLatch done = new CountDownLatch(1);
+		final DomainConnectionException[] error = new DomainConnectionException[1];
+		final Job connectJob = new Job("Connecting to " + domain.getName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor jobMonitor) {
+				try {
+					if (domain.getState().getValue() != DomainConnectionState.CONNECTED_VALUE) {
+						domain.connect(jobMonitor, RefreshDepth.SELF);
+					}
+					domain.fetchFileManager(jobMonitor);
+				} catch (final DomainConnectionException e) {
+					error[0] = e;
+				} finally {
+					done.countDown();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		connectJob.setSystem(true);
+		connectJob.schedule();
+
+		boolean finished = false;
+		try {
+			finished = deadline.await(done, monitor);
+		} finally {
+			if (!finished) {
+				connectJob.cancel();
+			}
+		}
+		if (!finished) {
+			throw new DomainConnectionException("Timed out after " + deadline.getBudget() + " ms connecting to domain " + domain.getName());
+		}
+		if (error[0] != null) {
+			throw error[0];
+		}
+	}
+
+	/**
+	 * Schedules the background refresh of the domain's children, unless one is already pending.
+	 *
+	 * @param domain a connected domain
+	 */
+	static void refreshChildren(final ScaDomainManager domain) {
+		if (Job.getJobManager().find(domain).length > 0) {
+			return;
+		}
+		final Job refreshJob = new Job("Refreshing " + domain.getName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				try {
+					// Applications first, since those are what the wizard looks for
+					domain.fetchWaveforms(monitor);
+					domain.refresh(monitor, RefreshDepth.CHILDREN);
+				} catch (final InterruptedException e) {
+					return Status.CANCEL_STATUS;
+				}
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(final Object family) {
+				return family == domain;
+			}
+		};
+		refreshJob.setSystem(true);
+		refreshJob.setPriority(Job.DECORATE);
+		refreshJob.schedule();
+	}
+}
@@ -10,50 +10,107 @@
  *******************************************************************************/
 package gov.redhawk.explorer.wizard;
 
+import gov.redhawk.explorer.internal.ProfileInfo;
+import gov.redhawk.explorer.wizard.WaveformCatalog.LaunchGroup;
+
 import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
-
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
 import org.eclipse.jface.viewers.ComboViewer;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.LabelProvider;
-import org.eclipse.jface.viewers.ListViewer;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.wizard.WizardPage;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
-import org.xml.sax.Attributes;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
+import org.eclipse.swt.widgets.Text;
 
 /**
  * The Start Waveform page allows the user to select a waveform type and the 
- * specific waveform to launch to initiate processing.
+ * specific waveforms to launch to initiate processing. Launch groups from the
+ * catalog are listed alongside the types; choosing one selects all of its waveforms.
+ * Waveforms whose profiles are missing or unreadable on the domain are greyed out.
+ * The search field finds waveforms of any type by name, type or path as the user types.
  */
 
 public class StartWaveformPage extends WizardPage {
-	private static final String[] NO_WAVEFORM_INPUT = new String[] { "Select Type" };
-	private static final String TYPE = "type";
-	private static final String WAVEFORM = "waveform";
-	private static final String PATH = "path";
-	private static final String NAME = "name";
+	private static final List<String> NO_WAVEFORM_INPUT = Collections.singletonList("Select Type");
+
+	// How long to wait after a keystroke before searching, in milliseconds
+	private static final long SEARCH_DELAY = 150;
+
+	private Text searchText;
+
+	private final SearchJob searchJob = new SearchJob();
 
 	private ComboViewer waveformType;
 
-	private ListViewer waveformList;
+	private TableViewer waveformList;
+
+	// The elements currently shown in the waveform list, which only creates items for the rows it displays
+	private List< ? > shown = StartWaveformPage.NO_WAVEFORM_INPUT;
+
+	private WaveformCatalog catalog = WaveformCatalog.EMPTY;
+
+	// The waveform to select whenever a catalog containing it is shown, until the user chooses another
+	private String preferredType;
+	private String preferredName;
+	private boolean selectingPreferred;
 
-	private final Map<String, List<WaveMapping>> waveMap;
+	// Profile information for the waveforms on the wizard's domain, keyed by profile path
+	private final Map<String, ProfileInfo> profiles = new HashMap<String, ProfileInfo>();
+
+	/**
+	 * Shows unlaunchable waveforms greyed out, with the reason as the tool tip.
+	 */
+	private class ProfileColumnLabelProvider extends ColumnLabelProvider {
+		@Override
+		public Color getForeground(final Object element) {
+			final ProfileInfo info = getProfileInfo(element);
+			if (info != null && !info.isLaunchable()) {
+				return Display.getCurrent().getSystemColor(SWT.COLOR_GRAY);
+			}
+			return null;
+		}
+
+		@Override
+		public String getToolTipText(final Object element) {
+			final ProfileInfo info = getProfileInfo(element);
+			if (info == null) {
+				return null;
+			} else if (!info.isLaunchable()) {
+				return info.getProblem();
+			}
+			return info.getDescription();
+		}
+	}
 
 	/**
 	 * Constructor for StartWaveformPage.
@@ -65,7 +122,6 @@ public class StartWaveformPage extends WizardPage {
 		setTitle(pageName);
 		setDescription("Select the Waveform to launch");
 		setPageComplete(false);
-		this.waveMap = new HashMap<String, List<WaveMapping>>();
 	}
 
 	/**
@@ -78,24 +134,45 @@ public class StartWaveformPage extends WizardPage {
 		container.setLayout(layout);
 		layout.numColumns = 2;
 		Label label = new Label(container, SWT.NULL);
+		label.setText("Search:");
+
+		this.searchText = new Text(container, SWT.BORDER | SWT.SEARCH | SWT.ICON_CANCEL);
+		this.searchText.setMessage("Waveform name, type or path");
+		this.searchText.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+		this.searchText.addModifyListener(new ModifyListener() {
+			@Override
+			public void modifyText(final ModifyEvent e) {
+				search(StartWaveformPage.this.searchText.getText());
+			}
+		});
+
+		label = new Label(container, SWT.NULL);
 		label.setText("Type:");
 
 		this.waveformType = new ComboViewer(container, SWT.BORDER | SWT.READ_ONLY);
 		GridData gd = new GridData(GridData.FILL_HORIZONTAL);
 		this.waveformType.getControl().setLayoutData(gd);
 		this.waveformType.setContentProvider(new ArrayContentProvider());
-		this.waveformType.setLabelProvider(new LabelProvider());
+		this.waveformType.setLabelProvider(new LabelProvider() {
+			@Override
+			public String getText(final Object element) {
+				if (element instanceof LaunchGroup) {
+					return ((LaunchGroup) element).getName() + " (launch group)";
+				}
+				return super.getText(element);
+			}
+		});
 		this.waveformType.addSelectionChangedListener(new ISelectionChangedListener() {
 			@Override
 			public void selectionChanged(final SelectionChangedEvent event) {
-				// If there is something selected, load the list of available waveforms
-				if (!event.getSelection().isEmpty()) {
-					final String type = (String) ((IStructuredSelection) event.getSelection()).getFirstElement();
-					StartWaveformPage.this.waveformList.setInput(StartWaveformPage.this.waveMap.get(type).toArray());
-					StartWaveformPage.this.waveformList.getControl().setEnabled(true);
+				if (!StartWaveformPage.this.selectingPreferred) {
+					StartWaveformPage.this.preferredType = null;
+				}
+				if (StartWaveformPage.this.searchText.getText().length() > 0) {
+					// Choosing a type ends the search, which shows the chosen type
+					StartWaveformPage.this.searchText.setText("");
 				} else {
-					// Otherwise, remove everything and show nothing
-					clearWaveformList();
+					showSelectedType();
 				}
 			}
 		});
@@ -104,30 +181,82 @@ public class StartWaveformPage extends WizardPage {
 		label.setText("Waveform:");
 		label.setLayoutData(new GridData(SWT.LEFT, SWT.TOP, false, true));
 
-		this.waveformList = new ListViewer(container, SWT.BORDER | SWT.V_SCROLL);
+		this.waveformList = new TableViewer(container, SWT.BORDER | SWT.V_SCROLL | SWT.MULTI | SWT.FULL_SELECTION | SWT.VIRTUAL);
 		gd = new GridData(GridData.FILL_BOTH);
 		this.waveformList.getControl().setLayoutData(gd);
-		this.waveformList.setContentProvider(new ArrayContentProvider());
-		this.waveformList.setLabelProvider(new LabelProvider() {
+		this.waveformList.getTable().setHeaderVisible(true);
+		this.waveformList.setUseHashlookup(true);
+		this.waveformList.setContentProvider(new ILazyContentProvider() {
+			@Override
+			public void updateElement(final int index) {
+				if (index < StartWaveformPage.this.shown.size()) {
+					StartWaveformPage.this.waveformList.replace(StartWaveformPage.this.shown.get(index), index);
+				}
+			}
+
+			@Override
+			public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {
+				// PASS
+			}
+
+			@Override
+			public void dispose() {
+				// PASS
+			}
+		});
+		ColumnViewerToolTipSupport.enableFor(this.waveformList);
+		createColumn("Waveform", 200, new ProfileColumnLabelProvider() { // SUPPRESS CHECKSTYLE MagicNumber
 			@Override
 			public String getText(final Object element) {
 				// Show either a string, or the waveform name
-				if (element instanceof String) {
-					return element.toString();
-				} else if (element instanceof WaveMapping) {
-					return ((WaveMapping) element).getWaveformName();
+				if (element instanceof WaveMapping) {
+					final WaveMapping map = (WaveMapping) element;
+					final StringBuilder text = new StringBuilder(map.getWaveformName());
+					if (map.getDomainName() != null) {
+						text.append(" (").append(map.getDomainName()).append(')');
+					}
+					if (StartWaveformPage.this.searchText.getText().length() > 0) {
+						// Search results mix types
+						text.append(" [").append(map.getType()).append(']');
+					}
+					return text.toString();
 				}
 				return super.getText(element);
 			}
 		});
+		createColumn("Components", 80, new ProfileColumnLabelProvider() { // SUPPRESS CHECKSTYLE MagicNumber
+			@Override
+			public String getText(final Object element) {
+				final ProfileInfo info = getProfileInfo(element);
+				if (info == null || !info.isLaunchable()) {
+					return "";
+				}
+				return Integer.toString(info.getComponentCount());
+			}
+		});
+		createColumn("Description", 300, new ProfileColumnLabelProvider() { // SUPPRESS CHECKSTYLE MagicNumber
+			@Override
+			public String getText(final Object element) {
+				final ProfileInfo info = getProfileInfo(element);
+				if (info == null) {
+					return "";
+				} else if (!info.isLaunchable()) {
+					return info.getProblem();
+				}
+				return (info.getDescription() == null) ? "" : info.getDescription();
+			}
+		});
 		this.waveformList.addSelectionChangedListener(new ISelectionChangedListener() {
 			@Override
 			public void selectionChanged(final SelectionChangedEvent event) {
-				// Selecting a waveform indicates completability of the wizard
-				StartWaveformPage.this.setPageComplete(!event.getSelection().isEmpty());
+				StartWaveformPage.this.preferredType = null;
+				// Selecting a launchable waveform indicates completability of the wizard
+				StartWaveformPage.this.setPageComplete(!getSelectedWaves().isEmpty());
 			}
 		});
+		this.waveformType.setInput(getTypeInput());
 		clearWaveformList();
+		selectPreferredWaveform();
 		setControl(container);
 	}
 
@@ -137,80 +266,220 @@ public class StartWaveformPage extends WizardPage {
 	 * @param data the contents of the $SDRROOT/dom/<StartupWizard.STARTUP_FILE_NAME> file to parse 
 	 */
 	public void initialize(final byte[] data) {
-		this.waveMap.clear();
-		if (data != null) {
-			try {
-				final SAXParserFactory factory = SAXParserFactory.newInstance();
-				// The next line parses the file and creates WaveMappings by hooking into the SAX callbacks
-				factory.newSAXParser().parse(new ByteArrayInputStream(data), new WaveMappingXMLContentHandler());
-				setErrorMessage(null);
-			} catch (final ParserConfigurationException e) {
-				setErrorMessage("Unable to load all available waveforms");
-			} catch (final SAXException e) {
-				setErrorMessage("Unable to parse all available waveforms");
-			} catch (final IOException e) {
-				setErrorMessage("Unable to load all available waveforms");
+		initialize((data == null) ? null : new ByteArrayInputStream(data));
+	}
+
+	/**
+	 * Parses the given stream to load the available waveforms. Waveforms are loaded as the stream is read, so the
+	 * stream may still be arriving from the domain.
+	 * 
+	 * @param data the contents of the $SDRROOT/dom/<StartupWizard.STARTUP_FILE_NAME> file to parse, may be null
+	 */
+	public void initialize(final InputStream data) {
+		setCatalog(WaveformCatalog.load(data));
+	}
+
+	/**
+	 * Shows the waveforms of an already loaded catalog.
+	 * 
+	 * @param catalog the waveforms to choose from
+	 */
+	void setCatalog(final WaveformCatalog catalog) {
+		this.catalog = catalog;
+		setErrorMessage(catalog.getErrorMessage());
+		if (this.waveformType != null) {
+			// Set the input, show any that were loaded before the exception
+			this.waveformType.setInput(getTypeInput());
+			clearWaveformList();
+			search(this.searchText.getText());
+			selectPreferredWaveform();
+		}
+	}
+
+	/**
+	 * Sets the waveform to select once a catalog containing it is shown, e.g. the one launched last time.
+	 *
+	 * @param type the waveform's catalog type, or null for none
+	 * @param name the waveform's name, or null for none
+	 */
+	void setPreferredWaveform(final String type, final String name) {
+		this.preferredType = (name == null) ? null : type;
+		this.preferredName = name;
+	}
+
+	private void selectPreferredWaveform() {
+		if (this.preferredType == null || this.searchText.getText().length() > 0 || !this.catalog.getTypes().contains(this.preferredType)) {
+			return;
+		}
+		this.selectingPreferred = true;
+		try {
+			this.waveformType.setSelection(new StructuredSelection(this.preferredType), true);
+		} finally {
+			this.selectingPreferred = false;
+		}
+		for (int i = 0; i < this.shown.size(); i++) {
+			final Object element = this.shown.get(i);
+			if (element instanceof WaveMapping && this.preferredName.equals(((WaveMapping) element).getWaveformName())) {
+				this.waveformList.getTable().setSelection(i);
+				this.waveformList.getTable().showSelection();
+				setPageComplete(!getSelectedWaves().isEmpty());
+				break;
 			}
 		}
-		// Set the input, show any that were loaded before the exception
-		this.waveformType.setInput(StartWaveformPage.this.waveMap.keySet().toArray());
-		clearWaveformList();
+	}
+
+	@Override
+	public void dispose() {
+		this.searchJob.cancel();
+		super.dispose();
+	}
+
+	private void showSelectedType() {
+		final IStructuredSelection selection = (IStructuredSelection) this.waveformType.getSelection();
+		// If there is something selected, load the list of available waveforms
+		if (!selection.isEmpty()) {
+			final Object type = selection.getFirstElement();
+			if (type instanceof LaunchGroup) {
+				// A launch group starts out with all of its waveforms selected
+				showWaveforms(((LaunchGroup) type).getMembers());
+				this.waveformList.getTable().selectAll();
+				setPageComplete(!getSelectedWaves().isEmpty());
+			} else {
+				showWaveforms(this.catalog.getWaveforms((String) type));
+				setPageComplete(false);
+			}
+			this.waveformList.getControl().setEnabled(true);
+		} else {
+			// Otherwise, remove everything and show nothing
+			clearWaveformList();
+		}
+	}
+
+	/**
+	 * Schedules a search for the given text, replacing any search still waiting to run. Clearing the text goes back
+	 * to showing the selected type.
+	 */
+	private void search(final String query) {
+		this.searchJob.cancel();
+		if (query.trim().length() == 0) {
+			showSelectedType();
+			return;
+		}
+		this.searchJob.setQuery(this.catalog, query);
+		this.searchJob.schedule(StartWaveformPage.SEARCH_DELAY);
 	}
 
 	/**
-	 * Implements the SAX ContentHandler interface to define callback
-	 * behavior to parse the XML document and generate WaveMapping's.
+	 * Runs searches off the UI thread. Each search narrows the previous results when the user has only typed more.
 	 */
-	class WaveMappingXMLContentHandler extends DefaultHandler {
-		private String type;
-		private String name;
-		private String path;
+	private class SearchJob extends Job {
+		private volatile WaveformCatalog searchCatalog;
+		private volatile String query;
+		// Only used by the job's thread
+		private CatalogSearchIndex lastIndex;
+		private String lastQuery;
+		private int[] lastHits;
 
-		/**
-		 * This reports the occurrence of an actual element.
-		 *
-		 * @param uri namespace URI this element is associated with, or an empty String
-		 * @param localName name of element (with no namespace prefix, if one is present)
-		 * @param qName XML 1.0 version of element name:[namespace prefix]:[localName]
-		 * @param attributes Attributes list for this element
-		 * @throws SAXException when things go wrong
-		 */
-		@Override
-		public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
-			if (StartWaveformPage.TYPE.equals(qName)) {
-				this.type = attributes.getValue(StartWaveformPage.NAME);
-				StartWaveformPage.this.waveMap.put(this.type, new ArrayList<WaveMapping>());
-				this.name = null;
-				this.path = null;
-			} else if (StartWaveformPage.WAVEFORM.equals(qName)) {
-				this.name = attributes.getValue(StartWaveformPage.NAME);
-				this.path = attributes.getValue(StartWaveformPage.PATH);
-			}
-			super.startElement(uri, localName, qName, attributes);
+		SearchJob() {
+			super("Searching waveforms");
+			setSystem(true);
+		}
+
+		void setQuery(final WaveformCatalog catalog, final String query) {
+			this.searchCatalog = catalog;
+			this.query = query;
 		}
 
-		/**
-		 * Indicates the end of an element
-		 *
-		 * @param uri <code>String</code> URI of namespace this element is associated with
-		 * @param localName <code>String</code> name of element without prefix
-		 * @param qName <code>String</code> name of element in XML 1.0 form
-		 * @throws <code>SAXException</code> when things go wrong
-		 */
 		@Override
-		public void endElement(final String uri, final String localName, final String qName) throws SAXException {
-			if (StartWaveformPage.WAVEFORM.equals(qName)) {
-				if (this.type != null && this.name != null && this.path != null) {
-					StartWaveformPage.this.waveMap.get(this.type).add(new WaveMapping(this.type, this.name, this.path));
-				}
+		protected IStatus run(final IProgressMonitor monitor) {
+			final String currentQuery = this.query;
+			// Read once, so the results are checked against the catalog they came from
+			final WaveformCatalog currentCatalog = this.searchCatalog;
+			final CatalogSearchIndex index = currentCatalog.getSearchIndex();
+			final int[] hits;
+			if (index == this.lastIndex && this.lastHits != null) {
+				hits = index.refine(this.lastHits, this.lastQuery, currentQuery);
+			} else {
+				hits = index.search(currentQuery);
+			}
+			this.lastIndex = index;
+			this.lastQuery = currentQuery;
+			this.lastHits = hits;
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
 			}
-			super.endElement(uri, localName, qName);
+
+			final List<WaveMapping> results = index.toMappings(hits);
+			final Control control = StartWaveformPage.this.waveformList.getControl();
+			if (!control.isDisposed()) {
+				control.getDisplay().asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						// Drop results the user has already typed past
+						if (!control.isDisposed() && currentQuery.equals(StartWaveformPage.this.searchText.getText())
+							&& currentCatalog == StartWaveformPage.this.catalog) {
+							showWaveforms(results);
+							StartWaveformPage.this.waveformList.getControl().setEnabled(true);
+							setPageComplete(false);
+						}
+					}
+				});
+			}
+			return Status.OK_STATUS;
 		}
 	}
 
+	/**
+	 * Records what was found out about waveform profiles on the wizard's domain and refreshes the waveforms shown.
+	 * 
+	 * @param checked the profile information, keyed by profile path
+	 */
+	void updateProfiles(final Map<String, ProfileInfo> checked) {
+		this.profiles.putAll(checked);
+		if (this.waveformList != null && !this.waveformList.getControl().isDisposed()) {
+			// Only the rows being displayed are relabeled
+			this.waveformList.getTable().clearAll();
+			setPageComplete(!getSelectedWaves().isEmpty());
+		}
+	}
+
+	/**
+	 * Forgets all profile information, e.g. when a different domain is selected.
+	 */
+	void clearProfiles() {
+		this.profiles.clear();
+	}
+
+	private ProfileInfo getProfileInfo(final Object element) {
+		if (!(element instanceof WaveMapping) || ((WaveMapping) element).getDomainName() != null) {
+			return null;
+		}
+		return this.profiles.get(((WaveMapping) element).getWaveformPath());
+	}
+
+	private void createColumn(final String title, final int width, final ColumnLabelProvider labelProvider) {
+		final TableViewerColumn column = new TableViewerColumn(this.waveformList, SWT.LEFT);
+		column.getColumn().setText(title);
+		column.getColumn().setWidth(width);
+		column.setLabelProvider(labelProvider);
+	}
+
+	private List<Object> getTypeInput() {
+		final List<Object> input = new ArrayList<Object>(this.catalog.getTypes().size() + this.catalog.getGroups().size());
+		input.addAll(this.catalog.getTypes());
+		input.addAll(this.catalog.getGroups());
+		return input;
+	}
+
+	private void showWaveforms(final List< ? > elements) {
+		this.shown = elements;
+		this.waveformList.setInput(elements);
+		this.waveformList.setItemCount(elements.size());
+	}
+
 	private void clearWaveformList() {
 		this.waveformList.getControl().setEnabled(false);
-		this.waveformList.setInput(StartWaveformPage.NO_WAVEFORM_INPUT);
+		showWaveforms(StartWaveformPage.NO_WAVEFORM_INPUT);
 		setPageComplete(false);
 	}
 
@@ -219,7 +488,30 @@ public class StartWaveformPage extends WizardPage {
 	 * @return the WaveMapping object that is currently selected
 	 */
 	public WaveMapping getSelectedWave() {
-		return (WaveMapping) ((IStructuredSelection) this.waveformList.getSelection()).getFirstElement();
+		final List<WaveMapping> selected = getSelectedWaves();
+		if (selected.isEmpty()) {
+			return null;
+		}
+		return selected.get(0);
+	}
+
+	/**
+	 * This returns the selected WaveMapping objects from the list, leaving out any known to be unlaunchable
+	 * @return the WaveMapping objects that are currently selected, in list order
+	 */
+	public List<WaveMapping> getSelectedWaves() {
+		final List<WaveMapping> selected = new ArrayList<WaveMapping>();
+		final int[] indices = this.waveformList.getTable().getSelectionIndices();
+		Arrays.sort(indices);
+		for (final int index : indices) {
+			// Selected rows may not have been displayed yet, so look them up rather than asking the viewer
+			final Object element = this.shown.get(index);
+			final ProfileInfo info = getProfileInfo(element);
+			if (element instanceof WaveMapping && (info == null || info.isLaunchable())) {
+				selected.add((WaveMapping) element);
+			}
+		}
+		return selected;
 	}
 
 	/**
@@ -235,10 +527,15 @@ public class StartWaveformPage extends WizardPage {
 	 * @return all the WaveMapping objects
 	 */
 	public WaveMapping[] getAllMappings() {
-		final List<WaveMapping> allMaps = new ArrayList<WaveMapping>();
-		for (final List<WaveMapping> maps : this.waveMap.values()) {
-			allMaps.addAll(maps);
-		}
+		final List<WaveMapping> allMaps = getCatalogMappings();
 		return allMaps.toArray(new WaveMapping[allMaps.size()]);
 	}
+
+	/**
+	 * Returns all the WaveMapping objects without copying them into an array.
+	 * @return all the WaveMapping objects, unmodifiable
+	 */
+	List<WaveMapping> getCatalogMappings() {
+		return this.catalog.getAllMappings();
+	}
 }
@@ -11,41 +11,39 @@
 package gov.redhawk.explorer.wizard;
 
 import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.internal.ProfileInfo;
 import gov.redhawk.model.sca.ScaDomainManager;
 import gov.redhawk.model.sca.ScaWaveform;
-import gov.redhawk.model.sca.util.LaunchWaveformJob;
-import gov.redhawk.sca.ui.ScaUI;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.emf.common.util.EList;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.dialogs.IPageChangingListener;
 import org.eclipse.jface.dialogs.PageChangingEvent;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.window.Window;
 import org.eclipse.jface.wizard.IWizardPage;
 import org.eclipse.jface.wizard.Wizard;
-import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.INewWizard;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.dialogs.ElementListSelectionDialog;
 import org.eclipse.ui.statushandlers.StatusManager;
 
-import CF.File;
-import CF.FileException;
-import CF.InvalidFileName;
-import CF.OctetSequenceHolder;
-
 /**
  * This wizard allows the user to select a domain to connect to and then launch
  * any waveform specified in the dom/<StartupWizard.STARTUP_FILE_NAME> file.  If a
@@ -61,6 +59,9 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 	private StartWaveformPage waveformPage;
 	private ScaDomainManager mgr;
 	private boolean finishable;
+	private CatalogLoadJob catalogJob;
+	private volatile CatalogValidation validation;
+	private final Map<String, ProfileInfo> checkedProfiles = new HashMap<String, ProfileInfo>();
 
 	/**
 	 * Constructor for StartupWizard.
@@ -77,6 +78,7 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 	public void addPages() {
 		this.domainPage = new SelectDomainPage("Select Domain", this);
 		this.waveformPage = new StartWaveformPage("Select Waveform");
+		this.waveformPage.setPreferredWaveform(WarmStart.getWaveformType(), WarmStart.getWaveformName());
 		addPage(this.domainPage);
 		addPage(this.waveformPage);
 	}
@@ -87,15 +89,15 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 	 */
 	@Override
 	public boolean performFinish() {
-		// Find the selected waveform
-		final WaveMapping waveform = this.waveformPage.getSelectedWave();
-		if (waveform == null) {
-			// If the waveform is null, we're finished from the domain page
+		// Find the selected waveforms
+		final List<WaveMapping> waveforms = this.waveformPage.getSelectedWaves();
+		if (waveforms.isEmpty()) {
+			// If nothing is selected, we're finished from the domain page
 			// perform domain specific finishing.
 			return finishDomain();
 		}
-		// Otherwise, launch the selected waveform
-		return finishLaunchWaveform(waveform);
+		// Otherwise, launch the selected waveforms
+		return finishLaunchWaveforms(waveforms);
 	}
 
 	/**
@@ -103,87 +105,23 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 	 * @return true if the editor was able to be opened, false otherwise
 	 */
 	private boolean finishDomain() {
-		final boolean[] retVal = new boolean[1];
-		retVal[0] = false;
 		// Have the waveform page load the available waveforms
 		initializeWavePage();
 
 		final IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
 		final Display display = activePage.getWorkbenchWindow().getShell().getDisplay();
-		final WaveMapping[] mappings = this.waveformPage.getAllMappings();
-		final List<String> profiles = new ArrayList<String>();
-
-		// Loop through all the mappings and add the profile paths to a list of good waveforms
-		for (final WaveMapping map : mappings) {
-			profiles.add(map.getWaveformPath());
-		}
+		final RunningWaveformFinder finder = new RunningWaveformFinder(getDomMgr(), this.waveformPage.getCatalogMappings());
+		final List<ScaWaveform> waves = new ArrayList<ScaWaveform>();
 
 		try {
 			getContainer().run(true, true, new IRunnableWithProgress() {
 				@Override
 				public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-					final int RETRY_COUNT = 5;
-					monitor.beginTask("Loading Waveform", RETRY_COUNT + 1);
+					// There may not be anything running, so don't wait forever
+					final long timeout = 2500;
+					monitor.beginTask("Loading Waveform", IProgressMonitor.UNKNOWN);
 					try {
-						// Wait for the factory to be installed
-						final List<ScaWaveform> waves = new ArrayList<ScaWaveform>();
-						int count = 0;
-
-						// There may not be anything running, so don't wait forever
-						while (waves.isEmpty() && (count < RETRY_COUNT)) {
-							final EList<ScaWaveform> waveforms = getDomMgr().getWaveforms();
-							for (final ScaWaveform w : waveforms) {
-								if (profiles.contains(w.getProfile())) {
-									waves.add(w);
-									break;
-								}
-							}
-
-							monitor.worked(1);
-							count++;
-							if (waves.size() == 0) {
-								Thread.sleep(500); // SUPPRESS CHECKSTYLE MagicNumber
-								if (monitor.isCanceled()) {
-									throw new InterruptedException();
-								}
-							}
-						}
-						monitor.worked(RETRY_COUNT - count);
-
-						// If there aren't any waves, either nothing was running, or something
-						// was running, but we're not supposed to start it.
-						if (waves.isEmpty()) {
-							final String message;
-							if (count == RETRY_COUNT) {
-								message = "A non-standard waveform is already running on the domain";
-							} else {
-								message = "Unable to find waveforms to run on the domain";
-							}
-							final IStatus status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, message);
-							StatusManager.getManager().handle(status);
-							display.asyncExec(new Runnable() {
-								@Override
-								public void run() {
-									StartupWizard.this.domainPage.setErrorMessage(message);
-								}
-							});
-							return;
-						}
-
-						final ScaWaveform waveform = waves.get(0);
-						// Open the editor on the first waveform that matches in the StartupWizard.STARTUP_FILE_NAME
-						display.asyncExec(new Runnable() {
-							@Override
-							public void run() {
-								try {
-									final boolean useUri = !SWT.getPlatform().startsWith("rap");
-									ScaUI.openEditorOnEObject(activePage, waveform, useUri);
-								} catch (final CoreException e) {
-									StatusManager.getManager().handle(e, Activator.PLUGIN_ID);
-								}
-							}
-						});
-						retVal[0] = true;
+						waves.addAll(finder.find(timeout, monitor));
 					} finally {
 						monitor.done();
 					}
@@ -207,63 +145,75 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 			});
 			return false;
 		} catch (final InterruptedException e) {
-			// PASS
+			return false;
+		}
+
+		// If there aren't any waves, either nothing was running, or something
+		// was running, but we're not supposed to start it.
+		if (waves.isEmpty()) {
+			final String message;
+			if (!this.waveformPage.getCatalogMappings().isEmpty()) {
+				message = "A non-standard waveform is already running on the domain";
+			} else {
+				message = "Unable to find waveforms to run on the domain";
+			}
+			final IStatus status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, message);
+			StatusManager.getManager().handle(status);
+			this.domainPage.setErrorMessage(message);
+			return false;
+		}
+
+		// Let the operator choose when more than one waveform from the StartupWizard.STARTUP_FILE_NAME is running
+		final List<ScaWaveform> selected = chooseWaveforms(waves);
+		if (selected.isEmpty()) {
+			return false;
 		}
-		return retVal[0];
+		for (final ScaWaveform waveform : selected) {
+			try {
+				WaveformLaunch.openEditor(activePage, getDomMgr().getName(), waveform);
+			} catch (final CoreException e) {
+				StatusManager.getManager().handle(e, Activator.PLUGIN_ID);
+			}
+		}
+		WarmStart.remember(getDomMgr(), null);
+		return true;
 	}
 
-	private boolean finishLaunchWaveform(final WaveMapping waveform) {
-		final IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
-		final Display display = activePage.getWorkbenchWindow().getShell().getDisplay();
-		final boolean autoStart = this.waveformPage.getAutoStart();
-		final boolean[] retVal = new boolean[1];
-		retVal[0] = false;
-		final Object waitLock = new Object();
+	private List<ScaWaveform> chooseWaveforms(final List<ScaWaveform> waves) {
+		if (waves.size() == 1) {
+			return waves;
+		}
+		final ElementListSelectionDialog dialog = new ElementListSelectionDialog(getShell(), new LabelProvider() {
+			@Override
+			public String getText(final Object element) {
+				return ((ScaWaveform) element).getName();
+			}
+		});
+		dialog.setTitle("Running Waveforms");
+		dialog.setMessage("Several waveforms are running on the domain. Select the waveforms to open:");
+		dialog.setMultipleSelection(true);
+		dialog.setElements(waves.toArray());
+		dialog.setInitialSelections(waves.toArray());
+		if (dialog.open() != Window.OK) {
+			return Collections.emptyList();
+		}
+		final List<ScaWaveform> selected = new ArrayList<ScaWaveform>();
+		for (final Object result : dialog.getResult()) {
+			selected.add((ScaWaveform) result);
+		}
+		return selected;
+	}
 
-		final IPath wavePath = new Path(waveform.getWaveformPath());
-		final LaunchWaveformJob launchJob = new LaunchWaveformJob(getDomMgr(), waveform.getWaveformName(), wavePath, null, null, autoStart, waitLock);
+	private boolean finishLaunchWaveforms(final List<WaveMapping> waveforms) {
+		final IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		final BatchLaunch batch = new BatchLaunch(getDomMgr(), waveforms, this.waveformPage.getAutoStart());
+		final IStatus[] result = new IStatus[1];
 		try {
 			getContainer().run(true, true, new IRunnableWithProgress() {
 
 				@Override
 				public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-					final int WAIT_TIME = 1000;
-					monitor.beginTask("Launching waveform " + waitLock, IProgressMonitor.UNKNOWN);
-					try {
-						launchJob.schedule();
-
-						synchronized (waitLock) {
-							while (launchJob.getResult() == null) {
-								if (monitor.isCanceled()) {
-									launchJob.cancel();
-									throw new InterruptedException();
-								} else {
-									waitLock.wait(WAIT_TIME);
-								}
-							}
-						}
-
-						if (launchJob.getWaveform() != null) {
-							display.asyncExec(new Runnable() {
-
-								@Override
-								public void run() {
-									try {
-										final boolean useUri = !SWT.getPlatform().startsWith("rap");
-										ScaUI.openEditorOnEObject(activePage, launchJob.getWaveform(), useUri);
-									} catch (final CoreException e) {
-										StatusManager.getManager().handle(e, Activator.PLUGIN_ID);
-									}
-								}
-
-							});
-						} else {
-							StartupWizard.this.waveformPage.setErrorMessage("Unable to launch selected waveform.");
-							StartupWizard.this.waveformPage.setPageComplete(false);
-						}
-					} finally {
-						monitor.done();
-					}
+					result[0] = batch.run(monitor);
 				}
 			});
 		} catch (final InvocationTargetException e) {
@@ -277,18 +227,42 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 			}
 			final IStatus status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, msg, e.getCause());
 			StatusManager.getManager().handle(status, StatusManager.SHOW);
-			display.asyncExec(new Runnable() {
-				@Override
-				public void run() {
-					StartupWizard.this.waveformPage.setErrorMessage("Unable to launch selected waveform.");
-				}
-			});
+			this.waveformPage.setErrorMessage("Unable to launch selected waveforms.");
+			this.waveformPage.setPageComplete(false);
 			return false;
 		} catch (final InterruptedException e) {
 			return false;
 		}
 
-		return retVal[0];
+		final List<WaveformLaunch> launched = batch.getLaunched();
+		if (!result[0].isOK()) {
+			StatusManager.getManager().handle(result[0], StatusManager.SHOW | StatusManager.LOG);
+			if (launched.isEmpty()) {
+				this.waveformPage.setErrorMessage("Unable to launch selected waveforms.");
+				this.waveformPage.setPageComplete(false);
+				return false;
+			}
+		}
+
+		// Open all the editors in a single update rather than repainting the workbench for each one
+		final Shell workbenchShell = activePage.getWorkbenchWindow().getShell();
+		workbenchShell.setRedraw(false);
+		try {
+			for (final WaveformLaunch launch : launched) {
+				try {
+					launch.openEditor(activePage);
+				} catch (final CoreException e) {
+					StatusManager.getManager().handle(e, Activator.PLUGIN_ID);
+				}
+				launch.logTimings();
+			}
+		} finally {
+			workbenchShell.setRedraw(true);
+		}
+		if (!launched.isEmpty()) {
+			WarmStart.remember(getDomMgr(), launched.get(0).getMapping());
+		}
+		return true;
 	}
 
 	/**
@@ -301,31 +275,32 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 	}
 
 	/**
-	 * Initializes the Select Waveform page.
+	 * Initializes the Select Waveform page. The catalog prefetched when the domain was selected is used if it is
+	 * available; otherwise this waits, with progress, for it to be loaded.
 	 * 
 	 * @return true if initialization was successful
 	 */
 	public boolean initializeWavePage() {
-		final OctetSequenceHolder dataHolder = new OctetSequenceHolder();
 		boolean complete = false;
 		this.mgr = StartupWizard.this.domainPage.getDomainManager();
 		if ((this.mgr != null) && (this.mgr.getFileManager() != null)) {
-			IStatus status = null;
 			StartupWizard.this.domainPage.setErrorMessage(null);
-			try {
-				final File cfg = this.mgr.getFileManager().open(StartupWizard.STARTUP_FILE_NAME, true);
-				cfg.read(dataHolder, cfg.sizeOf());
-				complete = true;
-			} catch (final InvalidFileName e) {
-				status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to find configuration file: " + StartupWizard.STARTUP_FILE_NAME, e);
-			} catch (final FileException e) {
-				status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to open configuration file: " + StartupWizard.STARTUP_FILE_NAME, e);
-			} catch (final CF.FilePackage.IOException e) {
-				status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to read configuration file: " + StartupWizard.STARTUP_FILE_NAME, e);
+			final CatalogLoadJob job = prefetchCatalog(this.mgr);
+			WaveformCatalog catalog = job.getCatalog();
+			if (catalog == null) {
+				awaitCatalog(job);
+				catalog = job.getCatalog();
 			}
-			if (status != null) {
-				StatusManager.getManager().handle(status, StatusManager.SHOW);
-				StartupWizard.this.domainPage.setErrorMessage(status.getMessage());
+			if (catalog != null) {
+				showCatalog(this.mgr, catalog);
+				complete = true;
+			} else {
+				this.waveformPage.setCatalog(WaveformCatalog.EMPTY);
+				final IStatus status = job.getError();
+				if (status != null) {
+					StatusManager.getManager().handle(status, StatusManager.SHOW);
+					StartupWizard.this.domainPage.setErrorMessage(status.getMessage());
+				}
 			}
 		} else {
 			String stat;
@@ -335,14 +310,152 @@ public class StartupWizard extends Wizard implements INewWizard, IPageChangingLi
 				stat = "Unable to find File Manager for domain '" + this.mgr.getName() + "'";
 			}
 			StartupWizard.this.domainPage.setErrorMessage(stat);
+			this.waveformPage.setCatalog(WaveformCatalog.EMPTY);
 		}
 
-		this.waveformPage.initialize(dataHolder.value);
 		this.domainPage.setPageComplete(complete);
 
 		return complete;
 	}
 
+	/**
+	 * Starts loading the waveform catalog of the given domain in the background, unless it is already being loaded.
+	 * Any load for a different domain is canceled.
+	 * 
+	 * @param domain the newly selected domain
+	 * @return the job loading the domain's catalog
+	 */
+	CatalogLoadJob prefetchCatalog(final ScaDomainManager domain) {
+		if (this.catalogJob != null) {
+			final boolean pending = this.catalogJob.getState() != Job.NONE || this.catalogJob.getCatalog() != null;
+			if (this.catalogJob.getDomain() == domain && this.catalogJob.getError() == null && pending) {
+				return this.catalogJob;
+			}
+			this.catalogJob.cancel();
+		}
+		final Shell shell = getShell();
+		final CatalogLoadJob.ICatalogListener listener = new CatalogLoadJob.ICatalogListener() {
+			@Override
+			public void catalogLoaded(final CatalogLoadJob job, final WaveformCatalog catalog) {
+				if (shell.isDisposed()) {
+					return;
+				}
+				shell.getDisplay().asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						// Only refresh a page that is showing; otherwise the catalog is picked up when the page is shown
+						if (!shell.isDisposed() && job == StartupWizard.this.catalogJob
+							&& getContainer().getCurrentPage() == StartupWizard.this.waveformPage) {
+							showCatalog(job.getDomain(), catalog);
+						}
+					}
+				});
+			}
+		};
+		// The catalog may already have been loaded while the workbench was starting
+		this.catalogJob = WarmStart.takeCatalogJob(domain);
+		if (this.catalogJob != null) {
+			this.catalogJob.setListener(listener);
+		} else {
+			this.catalogJob = new CatalogLoadJob(domain, listener);
+			this.catalogJob.schedule();
+		}
+		return this.catalogJob;
+	}
+
+	/**
+	 * Cancels loading the catalog of a domain that is no longer selected.
+	 */
+	void cancelPrefetch() {
+		if (this.catalogJob != null) {
+			this.catalogJob.cancel();
+			this.catalogJob = null;
+		}
+		cancelValidation();
+	}
+
+	/**
+	 * Shows a catalog on the waveform page and starts checking its waveforms' profiles against the domain.
+	 */
+	private void showCatalog(final ScaDomainManager domain, final WaveformCatalog catalog) {
+		cancelValidation();
+		synchronized (this.checkedProfiles) {
+			this.checkedProfiles.clear();
+		}
+		this.waveformPage.clearProfiles();
+		this.waveformPage.setCatalog(catalog);
+		final Shell shell = getShell();
+		this.validation = new CatalogValidation(domain, catalog.getAllMappings(), new CatalogValidation.IProfileListener() {
+			@Override
+			public void profileChecked(final CatalogValidation source, final String path, final ProfileInfo info) {
+				if (source != StartupWizard.this.validation) {
+					return;
+				}
+				final boolean first;
+				synchronized (StartupWizard.this.checkedProfiles) {
+					first = StartupWizard.this.checkedProfiles.isEmpty();
+					StartupWizard.this.checkedProfiles.put(path, info);
+				}
+				// Results arriving while an update is pending are shown by that update
+				if (first && !shell.isDisposed()) {
+					shell.getDisplay().asyncExec(new Runnable() {
+						@Override
+						public void run() {
+							final Map<String, ProfileInfo> checked;
+							synchronized (StartupWizard.this.checkedProfiles) {
+								checked = new HashMap<String, ProfileInfo>(StartupWizard.this.checkedProfiles);
+								StartupWizard.this.checkedProfiles.clear();
+							}
+							if (!shell.isDisposed()) {
+								StartupWizard.this.waveformPage.updateProfiles(checked);
+							}
+						}
+					});
+				}
+			}
+		});
+		this.validation.schedule();
+	}
+
+	private void cancelValidation() {
+		if (this.validation != null) {
+			this.validation.cancel();
+			this.validation = null;
+		}
+	}
+
+	private void awaitCatalog(final CatalogLoadJob job) {
+		try {
+			getContainer().run(true, true, new IRunnableWithProgress() {
+				@Override
+				public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+					final long pollInterval = 50;
+					monitor.beginTask("Loading waveforms from " + job.getDomain().getName(), IProgressMonitor.UNKNOWN);
+					try {
+						while (!job.awaitResult(pollInterval)) {
+							if (monitor.isCanceled()) {
+								throw new InterruptedException();
+							}
+						}
+					} finally {
+						monitor.done();
+					}
+				}
+			});
+		} catch (final InvocationTargetException e) {
+			// PASS - The job reports its own errors
+		} catch (final InterruptedException e) {
+			cancelPrefetch();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		cancelPrefetch();
+		WarmStart.discard();
+		super.dispose();
+	}
+
 	@Override
 	public void init(final IWorkbench workbench, final IStructuredSelection selection) {
 		// Pass
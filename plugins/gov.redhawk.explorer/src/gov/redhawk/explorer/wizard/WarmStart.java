@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.model.sca.DomainConnectionException;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.sca.ScaPlugin;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.osgi.service.prefs.BackingStoreException;
+
+/**
+ * Remembers the domain and waveform last chosen in the startup wizard, and gets the next start going with them. While
+ * the workbench is still starting, {@link #start()} connects to the remembered domain and loads its catalog in the
+ * background; the wizard then opens with the domain selected, picks up the connection and catalog where they are, and
+ * selects the remembered waveform once the catalog is shown.
+ * <p>
+ * Setting {@link #ENABLED_PROPERTY} to false turns the background connect off; the choices are still remembered.
+ */
+public final class WarmStart {
+
+	/**
+	 * System property which turns connecting to the remembered domain during start-up off when set to false.
+	 */
+	public static final String ENABLED_PROPERTY = "gov.redhawk.explorer.warmStart";
+
+	// These preference keys are stored in the workspace.  Do not
+	// change them.
+	private static final String PREF_DOMAIN = "warmStart.domain"; //$NON-NLS-1$
+
+	private static final String PREF_WAVEFORM_TYPE = "warmStart.waveformType"; //$NON-NLS-1$
+
+	private static final String PREF_WAVEFORM_NAME = "warmStart.waveformName"; //$NON-NLS-1$
+
+	// How often a waiting thread checks for cancellation, in milliseconds
+	private static final long POLL_INTERVAL = 50;
+
+	private static Job connectJob;
+	private static CatalogLoadJob catalogJob;
+
+	private WarmStart() {
+	}
+
+	/**
+	 * Starts connecting to the remembered domain, and then loading its catalog, in the background.
+	 */
+	public static synchronized void start() {
+		final String domainName = WarmStart.getDomainName();
+		if (domainName == null || "false".equalsIgnoreCase(System.getProperty(WarmStart.ENABLED_PROPERTY)) || WarmStart.connectJob != null) {
+			return;
+		}
+		WarmStart.connectJob = new Job("Connecting to " + domainName) {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				final ScaDomainManager domain = ScaPlugin.getDefault().getDomainManagerRegistry(null).findDomain(domainName);
+				if (domain == null) {
+					return Status.OK_STATUS;
+				}
+				try {
+					StagedConnect.connect(domain, monitor);
+				} catch (final DomainConnectionException e) {
+					// The wizard connects again, and reports the failure, when the domain is selected
+					return Status.OK_STATUS;
+				} catch (final InterruptedException e) {
+					return Status.CANCEL_STATUS;
+				}
+				synchronized (WarmStart.class) {
+					if (WarmStart.connectJob == this) {
+						WarmStart.catalogJob = new CatalogLoadJob(domain, null);
+						WarmStart.catalogJob.schedule();
+					}
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		WarmStart.connectJob.setSystem(true);
+		WarmStart.connectJob.schedule();
+	}
+
+	/**
+	 * @return the name of the domain last chosen in the startup wizard, or null
+	 */
+	static String getDomainName() {
+		return WarmStart.getPreferences().get(WarmStart.PREF_DOMAIN, null);
+	}
+
+	/**
+	 * @return the catalog type of the waveform last launched from the startup wizard, or null
+	 */
+	static String getWaveformType() {
+		return WarmStart.getPreferences().get(WarmStart.PREF_WAVEFORM_TYPE, null);
+	}
+
+	/**
+	 * @return the name of the waveform last launched from the startup wizard, or null
+	 */
+	static String getWaveformName() {
+		return WarmStart.getPreferences().get(WarmStart.PREF_WAVEFORM_NAME, null);
+	}
+
+	/**
+	 * Waits for the background connect to finish if it is connecting to the given domain, so that the caller doesn't
+	 * start a second connect alongside it.
+	 *
+	 * @param domain the domain about to be connected to
+	 * @param monitor the monitor to check for cancellation
+	 * @throws InterruptedException if the monitor was canceled
+	 */
+	static void awaitConnect(final ScaDomainManager domain, final IProgressMonitor monitor) throws InterruptedException {
+		final Job job;
+		synchronized (WarmStart.class) {
+			job = WarmStart.connectJob;
+		}
+		if (job == null || !domain.getName().equals(WarmStart.getDomainName())) {
+			return;
+		}
+		while (job.getState() != Job.NONE) {
+			if (monitor.isCanceled()) {
+				throw new InterruptedException();
+			}
+			Thread.sleep(WarmStart.POLL_INTERVAL);
+		}
+	}
+
+	/**
+	 * Hands over the catalog loaded in the background, if it belongs to the given domain and didn't fail.
+	 *
+	 * @param domain the domain whose catalog is wanted
+	 * @return the job loading the domain's catalog, or null
+	 */
+	static synchronized CatalogLoadJob takeCatalogJob(final ScaDomainManager domain) {
+		final CatalogLoadJob job = WarmStart.catalogJob;
+		if (job == null || job.getDomain() != domain || job.getError() != null) {
+			return null;
+		}
+		WarmStart.catalogJob = null;
+		return job;
+	}
+
+	/**
+	 * Stops any background work the wizard didn't pick up.
+	 */
+	static synchronized void discard() {
+		// An abandoned connect carries on, but no longer loads the catalog
+		WarmStart.connectJob = null;
+		WarmStart.releaseCatalog();
+	}
+
+	/**
+	 * Drops the catalog loaded in the background, e.g. to free memory. The wizard loads it again if it needs it.
+	 */
+	public static synchronized void releaseCatalog() {
+		if (WarmStart.catalogJob != null) {
+			WarmStart.catalogJob.cancel();
+			WarmStart.catalogJob = null;
+		}
+	}
+
+	/**
+	 * Remembers a successful choice in the startup wizard for the next start.
+	 *
+	 * @param domain the domain chosen
+	 * @param waveform the waveform launched, or null to keep the one remembered before
+	 */
+	static void remember(final ScaDomainManager domain, final WaveMapping waveform) {
+		final IEclipsePreferences preferences = WarmStart.getPreferences();
+		preferences.put(WarmStart.PREF_DOMAIN, domain.getName());
+		if (waveform != null && waveform.getType() != null && waveform.getWaveformName() != null) {
+			preferences.put(WarmStart.PREF_WAVEFORM_TYPE, waveform.getType());
+			preferences.put(WarmStart.PREF_WAVEFORM_NAME, waveform.getWaveformName());
+		}
+		try {
+			preferences.flush();
+		} catch (final BackingStoreException e) {
+			Activator.getDefault().getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to remember the startup wizard's choices", e));
+		}
+	}
+
+	private static IEclipsePreferences getPreferences() {
+		return InstanceScope.INSTANCE.getNode(Activator.PLUGIN_ID);
+	}
+}
@@ -14,11 +14,17 @@ class WaveMapping {
 	private final String type;
 	private final String waveformName;
 	private final String waveformPath;
+	private final String domainName;
 
 	public WaveMapping(final String type, final String name, final String path) {
+		this(type, name, path, null);
+	}
+
+	public WaveMapping(final String type, final String name, final String path, final String domainName) {
 		this.type = type;
 		this.waveformName = name;
 		this.waveformPath = path;
+		this.domainName = domainName;
 	}
 
 	public String getType() {
@@ -32,4 +38,11 @@ class WaveMapping {
 	public String getWaveformPath() {
 		return this.waveformPath;
 	}
+
+	/**
+	 * @return the domain to launch the waveform on, or null for the domain selected in the wizard
+	 */
+	public String getDomainName() {
+		return this.domainName;
+	}
 }
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * The waveforms listed in a domain's {@link StartupWizard#STARTUP_FILE_NAME} file, grouped by type, along with any
+ * launch groups the file defines. A launch group lists waveforms that are launched together, possibly on other
+ * domains:
+ * 
+ * <pre>
+ * &lt;group name="Shift Start"&gt;
+ *   &lt;waveform name="Waveform 1" path="/waveforms/waveform1/waveform1.sad.xml"/&gt;
+ *   &lt;waveform name="Waveform 2" path="/waveforms/waveform2/waveform2.sad.xml" domain="OTHER_DOMAIN"/&gt;
+ * &lt;/group&gt;
+ * </pre>
+ * 
+ * A catalog is immutable once loaded. Its entries are stored contiguously by type, so looking up a type's waveforms
+ * returns a view rather than a copy.
+ */
+class WaveformCatalog {
+	static final WaveformCatalog EMPTY = new Builder().build(null);
+
+	private static final String TYPE = "type";
+	private static final String GROUP = "group";
+	private static final String WAVEFORM = "waveform";
+	private static final String PATH = "path";
+	private static final String NAME = "name";
+	private static final String DOMAIN = "domain";
+
+	/**
+	 * A set of waveforms that are launched together.
+	 */
+	static class LaunchGroup {
+		private final String name;
+		private final List<WaveMapping> members;
+
+		LaunchGroup(final String name, final List<WaveMapping> members) {
+			this.name = name;
+			this.members = Collections.unmodifiableList(Arrays.asList(members.toArray(new WaveMapping[members.size()])));
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+		List<WaveMapping> getMembers() {
+			return this.members;
+		}
+	}
+
+	// All the typed entries, stored contiguously by type in catalog order
+	private final List<WaveMapping> entries;
+	private final List<String> types;
+	// The entries of types.get(i) are entries.subList(typeOffsets[i], typeOffsets[i + 1])
+	private final int[] typeOffsets;
+	private final Map<String, Integer> typeIndex;
+	private final List<LaunchGroup> groups;
+	private final List<WaveMapping> allMappings;
+	private final String errorMessage;
+	private CatalogSearchIndex searchIndex;
+
+	private WaveformCatalog(final Map<String, List<WaveMapping>> waveMap, final List<LaunchGroup> groups, final String errorMessage) {
+		int count = 0;
+		for (final List<WaveMapping> maps : waveMap.values()) {
+			count += maps.size();
+		}
+		final WaveMapping[] entryArray = new WaveMapping[count];
+		final String[] typeArray = new String[waveMap.size()];
+		this.typeOffsets = new int[waveMap.size() + 1];
+		this.typeIndex = new HashMap<String, Integer>(waveMap.size() * 2);
+		int index = 0;
+		int offset = 0;
+		for (final Map.Entry<String, List<WaveMapping>> entry : waveMap.entrySet()) {
+			typeArray[index] = entry.getKey();
+			this.typeIndex.put(entry.getKey(), index);
+			this.typeOffsets[index] = offset;
+			for (final WaveMapping map : entry.getValue()) {
+				entryArray[offset++] = map;
+			}
+			index++;
+		}
+		this.typeOffsets[index] = offset;
+		this.entries = Collections.unmodifiableList(Arrays.asList(entryArray));
+		this.types = Collections.unmodifiableList(Arrays.asList(typeArray));
+		this.groups = Collections.unmodifiableList(groups);
+
+		final List<WaveMapping> all = new ArrayList<WaveMapping>(count);
+		all.addAll(this.entries);
+		for (final LaunchGroup group : groups) {
+			for (final WaveMapping map : group.getMembers()) {
+				if (map.getDomainName() == null) {
+					all.add(map);
+				}
+			}
+		}
+		this.allMappings = Collections.unmodifiableList(all);
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * Parses the given stream to load the available waveforms. If the stream can't be read completely, the catalog
+	 * holds whatever was loaded before the error along with a message describing it.
+	 *
+	 * @param data the contents of the $SDRROOT/dom/<StartupWizard.STARTUP_FILE_NAME> file to parse, may be null
+	 * @return the waveforms in the file
+	 */
+	static WaveformCatalog load(final InputStream data) {
+		final Builder builder = new Builder();
+		String errorMessage = null;
+		if (data != null) {
+			try {
+				final SAXParserFactory factory = SAXParserFactory.newInstance();
+				// The next line parses the file and creates WaveMappings by hooking into the SAX callbacks
+				factory.newSAXParser().parse(data, new WaveMappingXMLContentHandler(builder));
+			} catch (final ParserConfigurationException e) {
+				errorMessage = "Unable to load all available waveforms";
+			} catch (final SAXException e) {
+				errorMessage = "Unable to parse all available waveforms";
+			} catch (final IOException e) {
+				errorMessage = "Unable to load all available waveforms";
+			}
+		}
+		return builder.build(errorMessage);
+	}
+
+	/**
+	 * @return a message describing why the catalog may be incomplete, or null if it was loaded completely
+	 */
+	String getErrorMessage() {
+		return this.errorMessage;
+	}
+
+	/**
+	 * @return the waveform types in the catalog, in catalog order
+	 */
+	List<String> getTypes() {
+		return this.types;
+	}
+
+	/**
+	 * @param type a waveform type
+	 * @return the waveforms of the given type; a view of the catalog, not a copy
+	 */
+	List<WaveMapping> getWaveforms(final String type) {
+		final Integer index = this.typeIndex.get(type);
+		if (index == null) {
+			return Collections.emptyList();
+		}
+		return this.entries.subList(this.typeOffsets[index], this.typeOffsets[index + 1]);
+	}
+
+	/**
+	 * @return the launch groups in the catalog
+	 */
+	List<LaunchGroup> getGroups() {
+		return this.groups;
+	}
+
+	/**
+	 * @return all the waveforms in the catalog that are launched on the catalog's own domain
+	 */
+	List<WaveMapping> getAllMappings() {
+		return this.allMappings;
+	}
+
+	/**
+	 * Returns the search index over every waveform in the catalog, typed entries first and then launch group
+	 * members. The index is built on first use, which should be off the UI thread.
+	 * 
+	 * @return the search index
+	 */
+	synchronized CatalogSearchIndex getSearchIndex() {
+		if (this.searchIndex == null) {
+			final List<WaveMapping> searchable = new ArrayList<WaveMapping>(this.entries);
+			for (final LaunchGroup group : this.groups) {
+				searchable.addAll(group.getMembers());
+			}
+			this.searchIndex = new CatalogSearchIndex(searchable);
+		}
+		return this.searchIndex;
+	}
+
+	/**
+	 * @return the number of typed entries in the catalog
+	 */
+	int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Collects the catalog's entries while it is being parsed.
+	 */
+	static class Builder {
+		private final Map<String, List<WaveMapping>> waveMap = new LinkedHashMap<String, List<WaveMapping>>();
+		private final Map<String, List<WaveMapping>> groupMap = new LinkedHashMap<String, List<WaveMapping>>();
+
+		Builder add(final WaveMapping mapping) {
+			List<WaveMapping> maps = this.waveMap.get(mapping.getType());
+			if (maps == null) {
+				maps = new ArrayList<WaveMapping>();
+				this.waveMap.put(mapping.getType(), maps);
+			}
+			maps.add(mapping);
+			return this;
+		}
+
+		Builder addType(final String type) {
+			if (!this.waveMap.containsKey(type)) {
+				this.waveMap.put(type, new ArrayList<WaveMapping>());
+			}
+			return this;
+		}
+
+		Builder addGroup(final String name) {
+			if (!this.groupMap.containsKey(name)) {
+				this.groupMap.put(name, new ArrayList<WaveMapping>());
+			}
+			return this;
+		}
+
+		Builder addToGroup(final String name, final WaveMapping mapping) {
+			addGroup(name);
+			this.groupMap.get(name).add(mapping);
+			return this;
+		}
+
+		WaveformCatalog build(final String errorMessage) {
+			final List<LaunchGroup> groups = new ArrayList<LaunchGroup>(this.groupMap.size());
+			for (final Map.Entry<String, List<WaveMapping>> entry : this.groupMap.entrySet()) {
+				groups.add(new LaunchGroup(entry.getKey(), entry.getValue()));
+			}
+			return new WaveformCatalog(this.waveMap, groups, errorMessage);
+		}
+	}
+
+	/**
+	 * Implements the SAX ContentHandler interface to define callback
+	 * behavior to parse the XML document and generate WaveMapping's.
+	 */
+	private static class WaveMappingXMLContentHandler extends DefaultHandler {
+		private final Builder builder;
+		private String type;
+		private String group;
+		private String name;
+		private String path;
+		private String domain;
+
+		WaveMappingXMLContentHandler(final Builder builder) {
+			this.builder = builder;
+		}
+
+		/**
+		 * This reports the occurrence of an actual element.
+		 *
+		 * @param uri namespace URI this element is associated with, or an empty String
+		 * @param localName name of element (with no namespace prefix, if one is present)
+		 * @param qName XML 1.0 version of element name:[namespace prefix]:[localName]
+		 * @param attributes Attributes list for this element
+		 * @throws SAXException when things go wrong
+		 */
+		@Override
+		public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+			if (WaveformCatalog.TYPE.equals(qName)) {
+				this.type = attributes.getValue(WaveformCatalog.NAME);
+				if (this.type != null) {
+					this.builder.addType(this.type);
+				}
+				this.group = null;
+				this.name = null;
+				this.path = null;
+			} else if (WaveformCatalog.GROUP.equals(qName)) {
+				this.group = attributes.getValue(WaveformCatalog.NAME);
+				if (this.group != null) {
+					this.builder.addGroup(this.group);
+				}
+				this.type = null;
+				this.name = null;
+				this.path = null;
+			} else if (WaveformCatalog.WAVEFORM.equals(qName)) {
+				this.name = attributes.getValue(WaveformCatalog.NAME);
+				this.path = attributes.getValue(WaveformCatalog.PATH);
+				this.domain = attributes.getValue(WaveformCatalog.DOMAIN);
+			}
+			super.startElement(uri, localName, qName, attributes);
+		}
+
+		/**
+		 * Indicates the end of an element
+		 *
+		 * @param uri <code>String</code> URI of namespace this element is associated with
+		 * @param localName <code>String</code> name of element without prefix
+		 * @param qName <code>String</code> name of element in XML 1.0 form
+		 * @throws <code>SAXException</code> when things go wrong
+		 */
+		@Override
+		public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+			if (WaveformCatalog.WAVEFORM.equals(qName)) {
+				if (this.type != null && this.name != null && this.path != null) {
+					this.builder.add(new WaveMapping(this.type, this.name, this.path));
+				} else if (this.group != null && this.name != null && this.path != null) {
+					this.builder.addToGroup(this.group, new WaveMapping(this.group, this.name, this.path, this.domain));
+				}
+			} else if (WaveformCatalog.GROUP.equals(qName)) {
+				this.group = null;
+			}
+			super.endElement(uri, localName, qName);
+		}
+	}
+}
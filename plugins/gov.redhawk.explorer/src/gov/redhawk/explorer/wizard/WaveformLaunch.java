@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.internal.Deadline;
+import gov.redhawk.explorer.internal.RemoteMetrics;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.model.sca.util.LaunchWaveformJob;
+import gov.redhawk.sca.ui.ScaUI;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.swt.SWT;
+import org.eclipse.ui.IWorkbenchPage;
+import org.omg.CORBA.SystemException;
+
+import CF.Application;
+import CF.ApplicationHelper;
+import CF.LifeCyclePackage.ReleaseError;
+import CF.ResourcePackage.StartError;
+
+/**
+ * Launches a waveform from the catalog and records how long each phase of the launch takes: creating the waveform
+ * on the domain, starting it, and opening its editor.
+ */
+class WaveformLaunch {
+
+	private static final Logger LOGGER = Logger.getLogger(WaveformLaunch.class.getName());
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	private final ScaDomainManager domain;
+	private final WaveMapping mapping;
+	private final boolean autoStart;
+	private volatile ScaWaveform waveform;
+	private long createTime = -1;
+	private long startTime = -1;
+	private long editorTime = -1;
+
+	/**
+	 * @param domain the domain to launch the waveform on
+	 * @param mapping the catalog entry of the waveform to launch
+	 * @param autoStart true to start the waveform once it has been created
+	 */
+	WaveformLaunch(final ScaDomainManager domain, final WaveMapping mapping, final boolean autoStart) {
+		this.domain = domain;
+		this.mapping = mapping;
+		this.autoStart = autoStart;
+	}
+
+	WaveMapping getMapping() {
+		return this.mapping;
+	}
+
+	ScaDomainManager getDomain() {
+		return this.domain;
+	}
+
+	/**
+	 * @return the launched waveform, or null if it hasn't been launched
+	 */
+	ScaWaveform getWaveform() {
+		return this.waveform;
+	}
+
+	/**
+	 * Creates the waveform on the domain and starts it if requested. Returns as soon as the launch completes; if the
+	 * monitor is canceled or the {@link Deadline#forLaunch() launch deadline} passes first, the launch is aborted and
+	 * any waveform it goes on to create is released.
+	 *
+	 * @param monitor the monitor to check for cancellation
+	 * @return the launched waveform
+	 * @throws CoreException if the waveform couldn't be created or started in time
+	 * @throws InterruptedException if the monitor was canceled
+	 */
+	ScaWaveform launch(final IProgressMonitor monitor) throws CoreException, InterruptedException {
+		final long start = System.nanoTime();
+		boolean launched = false;
+		try {
+			final ScaWaveform result = createAndStart(monitor);
+			launched = true;
+			return result;
+		} finally {
+			RemoteMetrics.record(this.domain.getName(), RemoteMetrics.Operation.LAUNCH, start, !launched);
+			if (WaveformLaunch.LOGGER.isLoggable(Level.FINE)) {
+				WaveformLaunch.LOGGER.log(Level.FINE, "Launch of waveform {0} on domain {1} {2} after {3}", new Object[] { this.mapping.getWaveformName(),
+					this.domain.getName(), launched ? "succeeded" : "failed", toMillis(System.nanoTime() - start) });
+			}
+		}
+	}
+
+	private ScaWaveform createAndStart(final IProgressMonitor monitor) throws CoreException, InterruptedException {
+		final CountDownLatch done = new CountDownLatch(1);
+		final boolean[] abandoned = new boolean[1];
+		final LaunchWaveformJob launchJob = new LaunchWaveformJob(this.domain, this.mapping.getWaveformName(), new Path(this.mapping.getWaveformPath()),
+			null, null, false, new Object());
+		launchJob.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(final IJobChangeEvent event) {
+				synchronized (abandoned) {
+					if (abandoned[0]) {
+						release(launchJob.getWaveform());
+					}
+					done.countDown();
+				}
+			}
+		});
+
+		final Deadline deadline = Deadline.forLaunch();
+		long phaseStart = System.nanoTime();
+		launchJob.schedule();
+		boolean finished = false;
+		try {
+			finished = deadline.await(done, monitor);
+		} finally {
+			if (!finished) {
+				synchronized (abandoned) {
+					abandoned[0] = true;
+					if (done.getCount() == 0) {
+						// The launch finished while the deadline and monitor were being checked
+						release(launchJob.getWaveform());
+					}
+				}
+				launchJob.cancel();
+			}
+		}
+		if (!finished) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Timed out after " + deadline.getBudget() + " ms launching waveform "
+				+ this.mapping.getWaveformName()));
+		}
+		this.createTime = System.nanoTime() - phaseStart;
+
+		final IStatus result = launchJob.getResult();
+		if (result != null && result.getSeverity() == IStatus.CANCEL) {
+			throw new InterruptedException();
+		}
+		final ScaWaveform launched = launchJob.getWaveform();
+		if (launched == null) {
+			if (result != null && !result.isOK()) {
+				throw new CoreException(result);
+			}
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to launch waveform " + this.mapping.getWaveformName()));
+		}
+
+		if (this.autoStart) {
+			if (monitor.isCanceled()) {
+				release(launched);
+				throw new InterruptedException();
+			}
+			phaseStart = System.nanoTime();
+			start(launched, deadline, monitor);
+			this.startTime = System.nanoTime() - phaseStart;
+		}
+		this.waveform = launched;
+		return launched;
+	}
+
+	/**
+	 * Starts the waveform within what is left of the launch deadline. If the start fails, times out or the monitor is
+	 * canceled, the waveform is released so nothing is left installed on the domain unstarted.
+	 */
+	private void start(final ScaWaveform launched, final Deadline deadline, final IProgressMonitor monitor) throws CoreException, InterruptedException {
+		final Application application = ApplicationHelper.unchecked_narrow(deadline.bind(launched.getObj()));
+		final CountDownLatch done = new CountDownLatch(1);
+		final boolean[] abandoned = new boolean[1];
+		final Exception[] error = new Exception[1];
+		final Job startJob = new Job("Starting waveform " + this.mapping.getWaveformName()) {
+			@Override
+			protected IStatus run(final IProgressMonitor jobMonitor) {
+				try {
+					application.start();
+				} catch (final StartError e) {
+					error[0] = e;
+				} catch (final SystemException e) {
+					error[0] = e;
+				} finally {
+					synchronized (abandoned) {
+						if (abandoned[0]) {
+							release(launched);
+						}
+						done.countDown();
+					}
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		startJob.setSystem(true);
+		startJob.schedule();
+		boolean finished = false;
+		try {
+			finished = deadline.await(done, monitor);
+		} finally {
+			if (!finished) {
+				synchronized (abandoned) {
+					abandoned[0] = true;
+					if (done.getCount() == 0) {
+						// The start finished while the deadline and monitor were being checked
+						release(launched);
+					}
+				}
+			}
+		}
+		if (!finished) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Timed out after " + deadline.getBudget() + " ms launching waveform "
+				+ this.mapping.getWaveformName()));
+		}
+		if (error[0] != null) {
+			release(launched);
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to start waveform " + this.mapping.getWaveformName(), error[0]));
+		}
+	}
+
+	/**
+	 * Opens the editor on the launched waveform. Must be called from the UI thread.
+	 *
+	 * @param page the page to open the editor in
+	 * @throws CoreException if the editor couldn't be opened
+	 */
+	void openEditor(final IWorkbenchPage page) throws CoreException {
+		final long phaseStart = System.nanoTime();
+		WaveformLaunch.openEditor(page, this.domain.getName(), this.waveform);
+		this.editorTime = System.nanoTime() - phaseStart;
+	}
+
+	/**
+	 * Opens the editor on a waveform and records how long it took in the {@link RemoteMetrics}. Must be called from
+	 * the UI thread.
+	 *
+	 * @param page the page to open the editor in
+	 * @param domainName the name of the domain the waveform runs on
+	 * @param waveform the waveform to open
+	 * @throws CoreException if the editor couldn't be opened
+	 */
+	static void openEditor(final IWorkbenchPage page, final String domainName, final ScaWaveform waveform) throws CoreException {
+		final long start = System.nanoTime();
+		final boolean useUri = !SWT.getPlatform().startsWith("rap");
+		boolean opened = false;
+		try {
+			ScaUI.openEditorOnEObject(page, waveform, useUri);
+			opened = true;
+		} finally {
+			RemoteMetrics.record(domainName, RemoteMetrics.Operation.EDITOR_OPEN, start, !opened);
+		}
+	}
+
+	/**
+	 * Logs how long each phase of the launch took.
+	 */
+	void logTimings() {
+		final StringBuilder message = new StringBuilder();
+		message.append("Launched waveform ").append(this.mapping.getWaveformName()).append(" on domain ").append(this.domain.getName());
+		message.append(": create ").append(toMillis(this.createTime));
+		message.append(", start ").append(toMillis(this.startTime));
+		message.append(", editor open ").append(toMillis(this.editorTime));
+		Activator.getDefault().getLog().log(new Status(IStatus.INFO, Activator.PLUGIN_ID, message.toString()));
+	}
+
+	private static String toMillis(final long nanos) {
+		if (nanos < 0) {
+			return "n/a";
+		}
+		return (nanos / WaveformLaunch.NANOS_PER_MILLI) + " ms";
+	}
+
+	private static void release(final ScaWaveform abandoned) {
+		if (abandoned == null) {
+			return;
+		}
+		try {
+			abandoned.releaseObject();
+		} catch (final ReleaseError e) {
+			Activator.getDefault().getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to release abandoned waveform launch", e));
+		} catch (final SystemException e) {
+			Activator.getDefault().getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to release abandoned waveform launch", e));
+		}
+	}
+}
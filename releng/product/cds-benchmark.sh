@@ -0,0 +1,88 @@
+#!/bin/sh
+###############################################################################
+# This file is protected by Copyright. 
+# Please refer to the COPYRIGHT file distributed with this source distribution.
+#
+# This file is part of REDHAWK IDE.
+#
+# All rights reserved.  This program and the accompanying materials are made available under 
+# the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at 
+# http://www.eclipse.org/legal/epl-v10.html
+###############################################################################
+#
+# Measures how much the class data sharing archive shortens Explorer's start-up.
+# Explorer is started repeatedly with -exitAfterStartup, alternately without
+# and with configuration/cds/explorer.jsa, and the time from JVM start until
+# the workbench is usable is read from each run's start-up timeline.
+#
+# Usage: cds-benchmark.sh <Explorer install directory> [runs] [--drop-caches]
+#
+#   runs            runs per configuration, after one discarded warm-up run (default 5)
+#   --drop-caches   drop the OS page cache before every run, for cold starts (needs root)
+#
+# The JVM is chosen as in explorer-cds.sh ($JAVA_HOME/bin/java, then java on the PATH).
+
+if [ $# -lt 1 ]; then
+    echo "Usage: $0 <Explorer install directory> [runs] [--drop-caches]" >&2
+    exit 2
+fi
+INSTALL=$(cd "$1" && pwd) || exit 1
+shift
+RUNS=5
+DROP_CACHES=0
+for arg in "$@"; do
+    case "$arg" in
+        --drop-caches) DROP_CACHES=1 ;;
+        *) RUNS="$arg" ;;
+    esac
+done
+
+if [ -n "$JAVA_HOME" ] && [ -x "$JAVA_HOME/bin/java" ]; then
+    JAVA="$JAVA_HOME/bin/java"
+else
+    JAVA=java
+fi
+JAVA_HOME_DIR=$("$JAVA" -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java\.home = //p')
+BASE_ARCHIVE="$JAVA_HOME_DIR/lib/server/classes.jsa"
+
+if [ ! -f "$INSTALL/configuration/cds/explorer.jsa" ]; then
+    echo "$INSTALL/configuration/cds/explorer.jsa doesn't exist; run explorer-cds.sh first." >&2
+    exit 1
+fi
+
+WORKSPACE=$(mktemp -d)
+trap 'rm -rf "$WORKSPACE"' EXIT
+TIMELINE="$WORKSPACE/.metadata/.plugins/gov.redhawk.explorer/startup-timeline.json"
+
+# Prints the start-up time of one run, in milliseconds
+run() {
+    if [ "$DROP_CACHES" -eq 1 ]; then
+        sync
+        echo 3 > /proc/sys/vm/drop_caches || exit 1
+    fi
+    rm -f "$TIMELINE"
+    (cd "$INSTALL" && ./explorer -vm "$JAVA" -data "$WORKSPACE" -exitAfterStartup --launcher.appendVmargs -vmargs "$@" > /dev/null 2>&1)
+    sed -n 's/^ *"total": \([0-9.]*\),*$/\1/p' "$TIMELINE"
+}
+
+# Runs one configuration and prints its mean and fastest start-up times
+measure() {
+    label="$1"
+    shift
+    run "$@" > /dev/null
+    times=""
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        times="$times $(run "$@")"
+        i=$((i + 1))
+    done
+    echo "$times" | awk -v label="$label" '{
+        min = $1; sum = 0
+        for (i = 1; i <= NF; i++) { sum += $i; if ($i < min) min = $i }
+        printf "%-22s mean %8.1f ms   fastest %8.1f ms   (%d runs)\n", label, sum / NF, min, NF
+    }'
+}
+
+# The baseline still maps the JDK's own archive, so the difference is down to Explorer's classes
+measure "JDK archive only" -XX:SharedArchiveFile="$BASE_ARCHIVE"
+measure "Explorer archive"
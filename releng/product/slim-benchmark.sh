@@ -0,0 +1,76 @@
+#!/bin/sh
+###############################################################################
+# This file is protected by Copyright. 
+# Please refer to the COPYRIGHT file distributed with this source distribution.
+#
+# This file is part of REDHAWK IDE.
+#
+# All rights reserved.  This program and the accompanying materials are made available under 
+# the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at 
+# http://www.eclipse.org/legal/epl-v10.html
+###############################################################################
+#
+# Compares the start-up time and memory of the full and slim Explorer products.
+# Each install is started repeatedly with -exitAfterStartup, and the time from
+# JVM start until the workbench is usable, the bundle counts and the heap left
+# after a garbage collection are read from each run's start-up timeline.
+#
+# Usage: slim-benchmark.sh <full install directory> <slim install directory> [runs] [--drop-caches]
+#
+#   runs            runs per product, after one discarded warm-up run (default 5)
+#   --drop-caches   drop the OS page cache before every run, for cold starts (needs root)
+#
+# Both products run with the JVM options in their own explorer.ini, so the
+# slim product's smaller -Xmx is part of what is measured.
+
+if [ $# -lt 2 ]; then
+    echo "Usage: $0 <full install directory> <slim install directory> [runs] [--drop-caches]" >&2
+    exit 2
+fi
+FULL=$(cd "$1" && pwd) || exit 1
+SLIM=$(cd "$2" && pwd) || exit 1
+shift 2
+RUNS=5
+DROP_CACHES=0
+for arg in "$@"; do
+    case "$arg" in
+        --drop-caches) DROP_CACHES=1 ;;
+        *) RUNS="$arg" ;;
+    esac
+done
+
+WORKSPACE=$(mktemp -d)
+trap 'rm -rf "$WORKSPACE"' EXIT
+TIMELINE="$WORKSPACE/.metadata/.plugins/gov.redhawk.explorer/startup-timeline.json"
+
+# Prints "<total> <installed bundles> <active bundles> <heap used> <heap committed> <non-heap used>" for one run
+run() {
+    if [ "$DROP_CACHES" -eq 1 ]; then
+        sync
+        echo 3 > /proc/sys/vm/drop_caches || exit 1
+    fi
+    rm -f "$TIMELINE"
+    (cd "$1" && ./explorer -data "$WORKSPACE" -exitAfterStartup > /dev/null 2>&1)
+    tr -d '\n' < "$TIMELINE" | sed -n 's/.*"total": \([0-9.]*\),.*"installedBundles": \([0-9-]*\),.*"activeBundles": \([0-9-]*\),.*"heapUsed": \([0-9.]*\), "heapCommitted": \([0-9.]*\), "nonHeapUsed": \([0-9.]*\).*/\1 \2 \3 \4 \5 \6/p'
+}
+
+# Runs one product and prints the mean of each figure
+measure() {
+    label="$1"
+    run "$2" > /dev/null
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        run "$2"
+        i=$((i + 1))
+    done | awk -v label="$label" '{
+        if (NR == 1 || $1 < fastest) fastest = $1
+        for (i = 1; i <= NF; i++) sum[i] += $i
+    } END {
+        if (NR == 0) { printf "%-6s no start-up timeline was written\n", label; exit }
+        printf "%-6s start mean %8.1f ms  fastest %8.1f ms  bundles %4d installed %4d active  heap %6.1f MB used %6.1f MB committed  non-heap %6.1f MB  (%d runs)\n",
+            label, sum[1] / NR, fastest, sum[2] / NR, sum[3] / NR, sum[4] / NR, sum[5] / NR, sum[6] / NR, NR
+    }'
+}
+
+measure "Full" "$FULL"
+measure "Slim" "$SLIM"
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.benchmarks;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with JMH's usual command line, but writes the results as JSON unless told otherwise, so runs
+ * can be compared and fed to other tools. Without <code>-rf</code> or <code>-rff</code>, results go to
+ * <code>explorer-benchmarks-&lt;timestamp&gt;.json</code> in the working directory.
+ */
+public final class Main {
+
+	private Main() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final CommandLineOptions options;
+		try {
+			options = new CommandLineOptions(args);
+		} catch (final CommandLineOptionException e) {
+			System.err.println("Error parsing command line:");
+			System.err.println(" " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+		if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams() || options.shouldListProfilers()
+			|| options.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		final ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+		if (!options.getResultFormat().hasValue() && !options.getResult().hasValue()) {
+			final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+			builder.resultFormat(ResultFormatType.JSON).result("explorer-benchmarks-" + timestamp + ".json");
+		} else if (!options.getResultFormat().hasValue()) {
+			builder.resultFormat(ResultFormatType.JSON);
+		}
+		try {
+			new Runner(builder.build()).run();
+		} catch (final RunnerException e) {
+			System.err.println("Error running the benchmarks:");
+			e.printStackTrace(System.err);
+			System.exit(1);
+		}
+	}
+}
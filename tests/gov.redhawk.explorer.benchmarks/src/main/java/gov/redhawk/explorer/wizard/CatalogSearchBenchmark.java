@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures type-ahead searches over a 50,000 entry catalog: a fresh search for each kind of query, and narrowing
+ * the previous results as the user types one more character.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSearchBenchmark {
+
+	private static final int TYPES = 500;
+	private static final int PER_TYPE = 100;
+
+	@Param({ "w", "wave", "wave 12", "t49/w9", "zzz" })
+	private String query;
+
+	private CatalogSearchIndex index;
+	private int[] previousHits;
+	private String previousQuery;
+
+	@Setup
+	public void setup() {
+		final List<WaveMapping> mappings = new ArrayList<WaveMapping>(CatalogSearchBenchmark.TYPES * CatalogSearchBenchmark.PER_TYPE);
+		for (int t = 0; t < CatalogSearchBenchmark.TYPES; t++) {
+			for (int w = 0; w < CatalogSearchBenchmark.PER_TYPE; w++) {
+				mappings.add(new WaveMapping("Type " + t, "Wave " + t + "_" + w, "/waveforms/t" + t + "/w" + w + ".sad.xml"));
+			}
+		}
+		this.index = new CatalogSearchIndex(mappings);
+		this.previousQuery = this.query.substring(0, this.query.length() - 1);
+		this.previousHits = this.index.search(this.previousQuery);
+	}
+
+	@Benchmark
+	public int[] search() {
+		return this.index.search(this.query);
+	}
+
+	@Benchmark
+	public int[] refine() {
+		return this.index.refine(this.previousHits, this.previousQuery, this.query);
+	}
+}
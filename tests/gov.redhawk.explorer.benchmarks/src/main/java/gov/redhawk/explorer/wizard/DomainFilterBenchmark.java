@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Select Domain page's filter over a tree of domains and their waveforms: re-filtering after the filter
+ * text changes, and the first filter after the tree is shown, before any name has been prepared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainFilterBenchmark {
+
+	private static final int WAVEFORMS_PER_DOMAIN = 100;
+
+	@Param({ "10", "500" })
+	private int domains;
+
+	@Param({ "lab", "wave*7", "REDHAWK_DEV", "zzz" })
+	private String filter;
+
+	private String[] names;
+	private DomainNameMatcher matcher;
+
+	@Setup
+	public void setup() {
+		this.names = new String[this.domains * (DomainFilterBenchmark.WAVEFORMS_PER_DOMAIN + 1)];
+		int i = 0;
+		for (int d = 0; d < this.domains; d++) {
+			this.names[i++] = (d == 0) ? "REDHAWK_DEV" : "Lab_Domain_" + d;
+			for (int w = 0; w < DomainFilterBenchmark.WAVEFORMS_PER_DOMAIN; w++) {
+				this.names[i++] = "Waveform_" + d + "_" + w + "_1234:5678";
+			}
+		}
+		this.matcher = new DomainNameMatcher();
+		this.matcher.setPattern(this.filter);
+		filter();
+	}
+
+	private int filter() {
+		int count = 0;
+		for (final String name : this.names) {
+			if (this.matcher.matches(name)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Re-filtering the whole tree after the filter text changes; every name has been prepared already.
+	 */
+	@Benchmark
+	public int refilter() {
+		this.matcher.setPattern(this.filter);
+		return filter();
+	}
+
+	/**
+	 * The first filter after the tree is shown, which prepares every name.
+	 */
+	@Benchmark
+	public int firstFilter() {
+		this.matcher.clearNames();
+		this.matcher.setPattern(this.filter);
+		return filter();
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the wizard matches a domain's running waveforms against the catalog when it finishes on the Select
+ * Domain page. The running waveforms are stood in for by their profile paths, which is all the match looks at; half
+ * of them come from the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileMatchBenchmark {
+
+	private static final int PER_TYPE = 100;
+
+	@Param({ "1000", "50000" })
+	private int entries;
+
+	@Param({ "10", "200" })
+	private int running;
+
+	private List<WaveMapping> mappings;
+	private String[] runningProfiles;
+	private CatalogProfiles profiles;
+
+	@Setup
+	public void setup() {
+		this.mappings = new ArrayList<WaveMapping>(this.entries);
+		for (int i = 0; i < this.entries; i++) {
+			final int t = i / ProfileMatchBenchmark.PER_TYPE;
+			final int w = i % ProfileMatchBenchmark.PER_TYPE;
+			this.mappings.add(new WaveMapping("Type " + t, "Waveform " + t + "_" + w, "/waveforms/t" + t + "/w" + w + ".sad.xml"));
+		}
+		this.runningProfiles = new String[this.running];
+		for (int i = 0; i < this.running; i++) {
+			if (i % 2 == 0) {
+				this.runningProfiles[i] = new String(this.mappings.get((i * 7919) % this.entries).getWaveformPath());
+			} else {
+				this.runningProfiles[i] = "/waveforms/other/w" + i + ".sad.xml";
+			}
+		}
+		this.profiles = new CatalogProfiles(this.mappings);
+	}
+
+	private int match(final CatalogProfiles catalog) {
+		int count = 0;
+		for (final String profile : this.runningProfiles) {
+			if (catalog.contains(profile)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finishing the wizard: collecting the catalog's profiles, then matching every running waveform.
+	 */
+	@Benchmark
+	public int finishDomain() {
+		return match(new CatalogProfiles(this.mappings));
+	}
+
+	/**
+	 * Matching the waveforms launched while the wizard waits, against profiles already collected.
+	 */
+	@Benchmark
+	public int matchRunning() {
+		return match(this.profiles);
+	}
+}
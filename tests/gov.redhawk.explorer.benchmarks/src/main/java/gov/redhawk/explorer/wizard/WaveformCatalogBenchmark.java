@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the waveform catalog operations the Select Waveform page performs, at catalog sizes from 10 up to 50,000
+ * entries across hundreds of types. Catalogs with fewer entries than types get one entry per type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaveformCatalogBenchmark {
+
+	// Rows a virtual table resolves to fill its visible area
+	private static final int VISIBLE_ROWS = 30;
+
+	@Param({ "10", "1000", "50000" })
+	private int entries;
+
+	@Param({ "10", "500" })
+	private int types;
+
+	private byte[] xml;
+	private WaveformCatalog catalog;
+	private String[] typeNames;
+	private int next;
+
+	@Setup
+	public void setup() {
+		final StringBuilder builder = new StringBuilder("<?xml version=\"1.0\"?>\n<waveforms>\n");
+		final int typeCount = Math.min(this.types, this.entries);
+		this.typeNames = new String[typeCount];
+		final int perType = this.entries / typeCount;
+		for (int t = 0; t < typeCount; t++) {
+			this.typeNames[t] = "Type " + t;
+			builder.append("  <type name=\"").append(this.typeNames[t]).append("\">\n");
+			for (int w = 0; w < perType; w++) {
+				builder.append("    <waveform name=\"Waveform ").append(t).append('_').append(w);
+				builder.append("\" path=\"/waveforms/t").append(t).append("/w").append(w).append(".sad.xml\"/>\n");
+			}
+			builder.append("  </type>\n");
+		}
+		builder.append("</waveforms>\n");
+		this.xml = builder.toString().getBytes(StandardCharsets.UTF_8);
+		this.catalog = WaveformCatalog.load(new ByteArrayInputStream(this.xml));
+	}
+
+	private String nextType() {
+		this.next = (this.next + 1) % this.typeNames.length;
+		return this.typeNames[this.next];
+	}
+
+	/**
+	 * Parsing the whole startup file, as {@link StartWaveformPage#initialize(java.io.InputStream)} does.
+	 */
+	@Benchmark
+	public WaveformCatalog load() {
+		return WaveformCatalog.load(new ByteArrayInputStream(this.xml));
+	}
+
+	/**
+	 * Choosing a type: looking up its entries and resolving the rows a virtual table displays.
+	 */
+	@Benchmark
+	public void selectTypeVirtual(final Blackhole blackhole) {
+		final List<WaveMapping> waveforms = this.catalog.getWaveforms(nextType());
+		blackhole.consume(waveforms.size());
+		final int visible = Math.min(waveforms.size(), WaveformCatalogBenchmark.VISIBLE_ROWS);
+		for (int i = 0; i < visible; i++) {
+			blackhole.consume(waveforms.get(i).getWaveformName());
+		}
+	}
+
+	/**
+	 * Baseline for {@link #selectTypeVirtual(Blackhole)}: copying a type's entries into an array and touching every
+	 * one, as a non-virtual list does.
+	 */
+	@Benchmark
+	public void selectTypeCopy(final Blackhole blackhole) {
+		final Object[] waveforms = this.catalog.getWaveforms(nextType()).toArray();
+		for (final Object waveform : waveforms) {
+			blackhole.consume(((WaveMapping) waveform).getWaveformName());
+		}
+	}
+
+	/**
+	 * Getting every entry with {@link WaveformCatalog#getAllMappings()}, as the running waveform check and profile
+	 * validation do.
+	 */
+	@Benchmark
+	public int allMappings() {
+		return this.catalog.getAllMappings().size();
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import CF.ApplicationHelper;
+import CF.LifeCycleHelper;
+import CF.PropertiesHelper;
+import CF.PropertySetHelper;
+import CF.ResourceHelper;
+
+/**
+ * A waveform running on the mock domain. It has no components; it only remembers its profile and whether it has
+ * been started.
+ */
+class MockApplication extends MockServant {
+
+	private final String identifier;
+	private final String name;
+	private final String profile;
+	private volatile boolean started;
+
+	MockApplication(final MockDomain domain, final String identifier, final String name, final String profile) {
+		super(domain);
+		this.identifier = identifier;
+		this.name = name;
+		this.profile = profile;
+	}
+
+	String getIdentifier() {
+		return this.identifier;
+	}
+
+	@Override
+	String[] getInterfaces() {
+		return new String[] { ApplicationHelper.id(), ResourceHelper.id(), LifeCycleHelper.id(), PropertySetHelper.id() };
+	}
+
+	@Override
+	boolean dispatch(final Call call) {
+		final String operation = call.getOperation();
+		if ("_get_identifier".equals(operation)) {
+			call.read();
+			call.resultString(this.identifier);
+		} else if ("_get_name".equals(operation)) {
+			call.read();
+			call.resultString(this.name);
+		} else if ("_get_profile".equals(operation) || "_get_softwareProfile".equals(operation)) {
+			call.read();
+			call.resultString(this.profile);
+		} else if ("_get_started".equals(operation)) {
+			call.read();
+			call.resultBoolean(this.started);
+		} else if ("_get_aware".equals(operation)) {
+			call.read();
+			call.resultBoolean(true);
+		} else if ("start".equals(operation)) {
+			call.read();
+			this.started = true;
+		} else if ("stop".equals(operation)) {
+			call.read();
+			this.started = false;
+		} else if ("initialize".equals(operation)) {
+			call.read();
+		} else if ("releaseObject".equals(operation)) {
+			call.read();
+			getDomain().release(this);
+		} else if ("query".equals(operation)) {
+			// No properties; the properties asked for are returned unchanged
+			call.inout(PropertiesHelper.type());
+			call.read();
+		} else if ("configure".equals(operation)) {
+			call.in(PropertiesHelper.type());
+			call.read();
+		} else {
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.wizard.StartupWizard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.omg.CORBA.ORB;
+import org.omg.CORBA.Policy;
+import org.omg.CORBA.SystemException;
+import org.omg.CORBA.TRANSIENT;
+import org.omg.CORBA.UserException;
+import org.omg.PortableServer.IdAssignmentPolicyValue;
+import org.omg.PortableServer.POA;
+import org.omg.PortableServer.POAHelper;
+
+/**
+ * A REDHAWK domain served from inside this process, for exercising the startup wizard against a domain whose speed
+ * and reliability can be controlled. It runs its own ORB, and serves a naming service with the domain bound in it,
+ * a DomainManager, a FileManager holding a generated startup catalog, and the waveforms launched on it. Each call
+ * on any of them is delayed, and may fail, as its {@link MockDomainConfig} says.
+ * <p/>
+ * Clients connect through {@link #getNamingServiceRef()}, which can be used wherever a naming service reference is
+ * expected, e.g. as a domain's {@link gov.redhawk.model.sca.ScaDomainManager#NAMING_SERVICE_PROP}.
+ */
+public class MockDomain {
+
+	private static final int NANOS_PER_MILLI = 1000000;
+
+	private final MockDomainConfig config;
+	private final Random random;
+	private final List<String> catalogProfiles = new ArrayList<String>();
+	private ORB orb;
+	private POA poa;
+	private MockDomainManager domainManager;
+	private String namingServiceRef;
+
+	public MockDomain(final MockDomainConfig config) {
+		this.config = config;
+		this.random = new Random(config.getSeed());
+	}
+
+	public MockDomainConfig getConfig() {
+		return this.config;
+	}
+
+	/**
+	 * @return the profile paths of the waveforms in the domain's catalog
+	 */
+	public List<String> getCatalogProfiles() {
+		return this.catalogProfiles;
+	}
+
+	/**
+	 * @return a stringified reference to the domain's naming service, or null if the domain isn't running
+	 */
+	public synchronized String getNamingServiceRef() {
+		return this.namingServiceRef;
+	}
+
+	/**
+	 * Starts serving the domain.
+	 *
+	 * @throws CoreException if the domain's ORB couldn't be started
+	 */
+	public synchronized void start() throws CoreException {
+		if (this.orb != null) {
+			return;
+		}
+		final Properties props = new Properties();
+		props.putAll(System.getProperties());
+		if (this.config.getPort() > 0) {
+			props.setProperty("OAPort", Integer.toString(this.config.getPort()));
+		}
+		this.orb = ORB.init(new String[0], props);
+		try {
+			final POA rootPoa = POAHelper.narrow(this.orb.resolve_initial_references("RootPOA"));
+			final Policy[] policies = new Policy[] { rootPoa.create_id_assignment_policy(IdAssignmentPolicyValue.USER_ID) };
+			this.poa = rootPoa.create_POA("MockDomain", rootPoa.the_POAManager(), policies);
+			rootPoa.the_POAManager().activate();
+		} catch (final UserException e) {
+			stop();
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to start the mock domain", e));
+		} catch (final SystemException e) {
+			stop();
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to start the mock domain", e));
+		}
+
+		final MockFileManager fileManager = new MockFileManager(this);
+		fileManager.addFile(StartupWizard.STARTUP_FILE_NAME, createCatalog());
+		for (final String profile : this.catalogProfiles) {
+			fileManager.addFile(profile, createProfile(profile));
+		}
+		this.domainManager = new MockDomainManager(this, activate("FileManager", fileManager));
+		final org.omg.CORBA.Object domainManagerRef = activate("DomainManager", this.domainManager);
+
+		final String domainName = this.config.getDomainName();
+		final MockNamingContext domainContext = new MockNamingContext(this);
+		domainContext.bind(domainName, domainManagerRef);
+		final MockNamingContext rootContext = new MockNamingContext(this);
+		rootContext.bindContext(domainName, domainContext, activate("NameService/" + domainName, domainContext));
+		this.namingServiceRef = this.orb.object_to_string(activate("NameService", rootContext));
+
+		for (int i = 0; i < this.config.getApplications(); i++) {
+			// Every other running waveform was launched from the catalog
+			if (i % 2 == 0 && !this.catalogProfiles.isEmpty()) {
+				final String profile = this.catalogProfiles.get((i * 7) % this.catalogProfiles.size());
+				this.domainManager.createApplication("Running_" + i, profile);
+			} else {
+				this.domainManager.createApplication("Other_" + i, "/waveforms/other/Other_" + i + ".sad.xml");
+			}
+		}
+	}
+
+	/**
+	 * Stops serving the domain. Calls in progress are abandoned.
+	 */
+	public synchronized void stop() {
+		if (this.orb == null) {
+			return;
+		}
+		this.orb.shutdown(false);
+		this.orb.destroy();
+		this.orb = null;
+		this.poa = null;
+		this.domainManager = null;
+		this.namingServiceRef = null;
+		this.catalogProfiles.clear();
+	}
+
+	private String createCatalog() {
+		final StringBuilder builder = new StringBuilder("<?xml version=\"1.0\"?>\n<waveforms>\n");
+		final int types = Math.max(1, Math.min(this.config.getCatalogTypes(), this.config.getCatalogSize()));
+		for (int t = 0; t < types; t++) {
+			builder.append("  <type name=\"Type ").append(t).append("\">\n");
+			for (int w = t; w < this.config.getCatalogSize(); w += types) {
+				final String profile = "/waveforms/t" + t + "/Waveform_" + w + ".sad.xml";
+				this.catalogProfiles.add(profile);
+				builder.append("    <waveform name=\"Waveform_").append(w).append("\" path=\"").append(profile).append("\"/>\n");
+			}
+			builder.append("  </type>\n");
+		}
+		return builder.append("</waveforms>\n").toString();
+	}
+
+	private static String createProfile(final String profile) {
+		final String name = profile.substring(profile.lastIndexOf('/') + 1, profile.length() - ".sad.xml".length());
+		// Real SADs name a DTD which can't be resolved, and the profile check must cope with it
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<!DOCTYPE softwareassembly PUBLIC \"-//JTRS//DTD SCA V2.2.2 SAD//EN\" \"softwareassembly.dtd\">\n"
+			+ "<softwareassembly id=\"DCE:" + name + "\" name=\"" + name + "\">\n"
+			+ "  <description>" + name + " mock waveform</description>\n"
+			+ "  <componentfiles/>\n"
+			+ "  <partitioning>\n"
+			+ "    <componentplacement>\n"
+			+ "      <componentinstantiation id=\"" + name + "_1\"/>\n"
+			+ "    </componentplacement>\n"
+			+ "  </partitioning>\n"
+			+ "</softwareassembly>\n";
+	}
+
+	synchronized ORB getOrb() {
+		return this.orb;
+	}
+
+	/**
+	 * Waits out a call's latency, then fails it if its turn has come.
+	 *
+	 * @param operation the operation being called
+	 */
+	void delay(final String operation) {
+		final long delay;
+		final boolean fail;
+		synchronized (this.random) {
+			final int jitter = (this.config.getJitter() > 0) ? this.random.nextInt(2 * this.config.getJitter() + 1) - this.config.getJitter() : 0;
+			delay = Math.max(0, this.config.getLatency() + jitter);
+			fail = this.random.nextDouble() < this.config.getFailureRate();
+		}
+		if (delay > 0) {
+			final long end = System.nanoTime() + delay * MockDomain.NANOS_PER_MILLI;
+			long remaining = delay;
+			while (remaining > 0) {
+				try {
+					Thread.sleep(remaining);
+				} catch (final InterruptedException e) {
+					// PASS
+				}
+				remaining = (end - System.nanoTime()) / MockDomain.NANOS_PER_MILLI;
+			}
+		}
+		if (fail) {
+			throw new TRANSIENT("Injected failure in " + operation);
+		}
+	}
+
+	synchronized org.omg.CORBA.Object activate(final String id, final MockServant servant) {
+		try {
+			this.poa.activate_object_with_id(id.getBytes(), servant);
+			return this.poa.id_to_reference(id.getBytes());
+		} catch (final UserException e) {
+			throw new IllegalStateException("Unable to activate " + id, e);
+		}
+	}
+
+	synchronized org.omg.CORBA.Object getReference(final String id) {
+		try {
+			return this.poa.id_to_reference(id.getBytes());
+		} catch (final UserException e) {
+			throw new IllegalStateException("Unable to find " + id, e);
+		}
+	}
+
+	synchronized void deactivate(final String id) {
+		if (this.poa == null) {
+			return;
+		}
+		try {
+			this.poa.deactivate_object(id.getBytes());
+		} catch (final UserException e) {
+			// PASS
+		}
+	}
+
+	void release(final MockApplication application) {
+		final MockDomainManager manager;
+		synchronized (this) {
+			manager = this.domainManager;
+		}
+		if (manager != null) {
+			manager.release(application);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+/**
+ * How a {@link MockDomain} behaves. Every setting is read from a system property named
+ * <code>gov.redhawk.explorer.mockdomain.&lt;setting&gt;</code>, e.g.
+ * <code>-Dgov.redhawk.explorer.mockdomain.latency=200</code>, and can be changed before the domain is started.
+ */
+public class MockDomainConfig {
+
+	private static final String PREFIX = "gov.redhawk.explorer.mockdomain.";
+
+	private String domainName = System.getProperty(MockDomainConfig.PREFIX + "domainName", "MOCK_DOMAIN");
+	private int port = Integer.getInteger(MockDomainConfig.PREFIX + "port", 0);
+	private int latency = Integer.getInteger(MockDomainConfig.PREFIX + "latency", 0);
+	private int jitter = Integer.getInteger(MockDomainConfig.PREFIX + "jitter", 0);
+	private double failureRate = MockDomainConfig.getDouble(MockDomainConfig.PREFIX + "failureRate", 0);
+	private int applications = Integer.getInteger(MockDomainConfig.PREFIX + "applications", 0);
+	private int catalogSize = Integer.getInteger(MockDomainConfig.PREFIX + "catalogSize", 1000);
+	private int catalogTypes = Integer.getInteger(MockDomainConfig.PREFIX + "catalogTypes", 10);
+	private boolean catalogChanges = !"false".equalsIgnoreCase(System.getProperty(MockDomainConfig.PREFIX + "catalogChanges"));
+	private long seed = Long.getLong(MockDomainConfig.PREFIX + "seed", 1);
+
+	private static double getDouble(final String property, final double defaultValue) {
+		final String value = System.getProperty(property);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Double.parseDouble(value);
+		} catch (final NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * @return the name the domain is bound under in its naming service; defaults to MOCK_DOMAIN
+	 */
+	public String getDomainName() {
+		return this.domainName;
+	}
+
+	public void setDomainName(final String domainName) {
+		this.domainName = domainName;
+	}
+
+	/**
+	 * @return the port the domain's ORB listens on, or 0 for any free port
+	 */
+	public int getPort() {
+		return this.port;
+	}
+
+	public void setPort(final int port) {
+		this.port = port;
+	}
+
+	/**
+	 * @return the delay added to every call on the domain, in milliseconds
+	 */
+	public int getLatency() {
+		return this.latency;
+	}
+
+	public void setLatency(final int latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * @return the most a call's delay varies either side of {@link #getLatency()}, in milliseconds
+	 */
+	public int getJitter() {
+		return this.jitter;
+	}
+
+	public void setJitter(final int jitter) {
+		this.jitter = jitter;
+	}
+
+	/**
+	 * @return the fraction of calls, from 0 to 1, which fail with a CORBA TRANSIENT exception after their delay
+	 */
+	public double getFailureRate() {
+		return this.failureRate;
+	}
+
+	public void setFailureRate(final double failureRate) {
+		this.failureRate = failureRate;
+	}
+
+	/**
+	 * @return the number of waveforms already running when the domain starts; half of them come from the catalog
+	 */
+	public int getApplications() {
+		return this.applications;
+	}
+
+	public void setApplications(final int applications) {
+		this.applications = applications;
+	}
+
+	/**
+	 * @return the number of waveforms in the startup catalog
+	 */
+	public int getCatalogSize() {
+		return this.catalogSize;
+	}
+
+	public void setCatalogSize(final int catalogSize) {
+		this.catalogSize = catalogSize;
+	}
+
+	/**
+	 * @return the number of types the catalog's waveforms are spread across
+	 */
+	public int getCatalogTypes() {
+		return this.catalogTypes;
+	}
+
+	public void setCatalogTypes(final int catalogTypes) {
+		this.catalogTypes = catalogTypes;
+	}
+
+	/**
+	 * @return true if the catalog reports a new modification time every time it is listed, so that clients never
+	 *         find their cached copy current
+	 */
+	public boolean isCatalogChanges() {
+		return this.catalogChanges;
+	}
+
+	public void setCatalogChanges(final boolean catalogChanges) {
+		this.catalogChanges = catalogChanges;
+	}
+
+	/**
+	 * @return the seed for the jitter and failures, so runs can be repeated
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	public void setSeed(final long seed) {
+		this.seed = seed;
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.omg.CORBA.Any;
+
+import CF.Application;
+import CF.ApplicationFactory;
+import CF.ApplicationHelper;
+import CF.DeviceAssignmentSequenceHelper;
+import CF.DeviceManager;
+import CF.DomainManagerHelper;
+import CF.FileManagerHelper;
+import CF.PropertiesHelper;
+import CF.PropertySetHelper;
+import CF.DomainManagerPackage.ApplicationFactorySequenceHelper;
+import CF.DomainManagerPackage.ApplicationSequenceHelper;
+import CF.DomainManagerPackage.DeviceManagerSequenceHelper;
+
+/**
+ * The mock domain's DomainManager. It has no device managers; waveforms are created straight from their profile,
+ * without being installed first.
+ */
+class MockDomainManager extends MockServant {
+
+	private final org.omg.CORBA.Object fileManager;
+	private final List<MockApplication> applications = new CopyOnWriteArrayList<MockApplication>();
+	private final AtomicLong nextApplication = new AtomicLong();
+
+	MockDomainManager(final MockDomain domain, final org.omg.CORBA.Object fileManager) {
+		super(domain);
+		this.fileManager = fileManager;
+	}
+
+	/**
+	 * Creates and activates a waveform, as if it had been launched.
+	 *
+	 * @param name the waveform's name
+	 * @param profile the waveform's profile path
+	 * @return the waveform
+	 */
+	Application createApplication(final String name, final String profile) {
+		final String identifier = "DCE:" + getDomain().getConfig().getDomainName() + ":" + name + "_" + this.nextApplication.incrementAndGet();
+		final MockApplication application = new MockApplication(getDomain(), identifier, name, profile);
+		final org.omg.CORBA.Object reference = getDomain().activate(identifier, application);
+		this.applications.add(application);
+		return ApplicationHelper.unchecked_narrow(reference);
+	}
+
+	void release(final MockApplication application) {
+		this.applications.remove(application);
+		getDomain().deactivate(application.getIdentifier());
+	}
+
+	@Override
+	String[] getInterfaces() {
+		return new String[] { DomainManagerHelper.id(), PropertySetHelper.id() };
+	}
+
+	@Override
+	boolean dispatch(final Call call) {
+		final String operation = call.getOperation();
+		if ("_get_identifier".equals(operation)) {
+			call.read();
+			call.resultString("DCE:" + getDomain().getConfig().getDomainName());
+		} else if ("_get_name".equals(operation)) {
+			call.read();
+			call.resultString(getDomain().getConfig().getDomainName());
+		} else if ("_get_domainManagerProfile".equals(operation)) {
+			call.read();
+			call.resultString("/mgr/DomainManager.dmd.xml");
+		} else if ("_get_fileMgr".equals(operation)) {
+			call.read();
+			final Any result = call.createAny();
+			FileManagerHelper.insert(result, FileManagerHelper.unchecked_narrow(this.fileManager));
+			call.result(result);
+		} else if ("_get_applications".equals(operation)) {
+			call.read();
+			final List<Application> references = new ArrayList<Application>();
+			for (final MockApplication application : this.applications) {
+				references.add(ApplicationHelper.unchecked_narrow(getDomain().getReference(application.getIdentifier())));
+			}
+			final Any result = call.createAny();
+			ApplicationSequenceHelper.insert(result, references.toArray(new Application[references.size()]));
+			call.result(result);
+		} else if ("_get_applicationFactories".equals(operation)) {
+			call.read();
+			final Any result = call.createAny();
+			ApplicationFactorySequenceHelper.insert(result, new ApplicationFactory[0]);
+			call.result(result);
+		} else if ("_get_deviceManagers".equals(operation)) {
+			call.read();
+			final Any result = call.createAny();
+			DeviceManagerSequenceHelper.insert(result, new DeviceManager[0]);
+			call.result(result);
+		} else if ("createApplication".equals(operation)) {
+			final Any profile = call.in(call.stringType());
+			final Any name = call.in(call.stringType());
+			call.in(PropertiesHelper.type());
+			call.in(DeviceAssignmentSequenceHelper.type());
+			call.read();
+			final Any result = call.createAny();
+			ApplicationHelper.insert(result, createApplication(name.extract_string(), profile.extract_string()));
+			call.result(result);
+		} else if ("installApplication".equals(operation) || "uninstallApplication".equals(operation)) {
+			call.in(call.stringType());
+			call.read();
+		} else if ("query".equals(operation)) {
+			// No properties; the properties asked for are returned unchanged
+			call.inout(PropertiesHelper.type());
+			call.read();
+		} else {
+			return false;
+		}
+		return true;
+	}
+}
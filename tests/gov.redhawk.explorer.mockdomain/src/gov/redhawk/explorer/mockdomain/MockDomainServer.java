@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Serves a {@link MockDomain} until stopped, so that Explorer can be pointed at a slow or unreliable domain by hand.
+ * The naming service reference to enter in Explorer's Add Domain Manager dialog is printed on start.
+ */
+public class MockDomainServer implements IApplication {
+
+	private final Object lock = new Object();
+	private boolean stopped;
+
+	@Override
+	public Object start(final IApplicationContext context) throws Exception {
+		final MockDomainConfig config = new MockDomainConfig();
+		final MockDomain domain = new MockDomain(config);
+		domain.start();
+		try {
+			System.out.println("Serving mock domain " + config.getDomainName() + " (latency " + config.getLatency() + " ms, jitter " // SUPPRESS CHECKSTYLE Console
+				+ config.getJitter() + " ms, failure rate " + config.getFailureRate() + ")");
+			System.out.println("Naming service: " + domain.getNamingServiceRef()); // SUPPRESS CHECKSTYLE Console
+			context.applicationRunning();
+			synchronized (this.lock) {
+				while (!this.stopped) {
+					this.lock.wait();
+				}
+			}
+		} finally {
+			domain.stop();
+		}
+		return IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this.lock) {
+			this.stopped = true;
+			this.lock.notifyAll();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import org.omg.CORBA.Any;
+
+import CF.FileHelper;
+import CF.OctetSequenceHelper;
+
+/**
+ * An open file in the mock domain's file manager. Each call to read is a round trip, and is delayed like any other.
+ */
+class MockFile extends MockServant {
+
+	private final String id;
+	private final String fileName;
+	private final byte[] contents;
+	private int filePointer;
+
+	MockFile(final MockDomain domain, final String id, final String fileName, final byte[] contents) {
+		super(domain);
+		this.id = id;
+		this.fileName = fileName;
+		this.contents = contents;
+	}
+
+	@Override
+	String[] getInterfaces() {
+		return new String[] { FileHelper.id() };
+	}
+
+	@Override
+	boolean dispatch(final Call call) {
+		final String operation = call.getOperation();
+		if ("read".equals(operation)) {
+			final Any data = call.out(OctetSequenceHelper.type());
+			final Any length = call.in(call.ulongType());
+			call.read();
+			OctetSequenceHelper.insert(data, read(length.extract_ulong()));
+		} else if ("sizeOf".equals(operation)) {
+			call.read();
+			final Any result = call.createAny();
+			result.insert_ulong(this.contents.length);
+			call.result(result);
+		} else if ("setFilePointer".equals(operation)) {
+			final Any position = call.in(call.ulongType());
+			call.read();
+			synchronized (this) {
+				this.filePointer = Math.min(position.extract_ulong(), this.contents.length);
+			}
+		} else if ("_get_filePointer".equals(operation)) {
+			call.read();
+			final Any result = call.createAny();
+			synchronized (this) {
+				result.insert_ulong(this.filePointer);
+			}
+			call.result(result);
+		} else if ("_get_fileName".equals(operation)) {
+			call.read();
+			call.resultString(this.fileName);
+		} else if ("close".equals(operation)) {
+			call.read();
+			getDomain().deactivate(this.id);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private synchronized byte[] read(final int length) {
+		final int count = Math.max(0, Math.min(length, this.contents.length - this.filePointer));
+		final byte[] data = new byte[count];
+		System.arraycopy(this.contents, this.filePointer, data, 0, count);
+		this.filePointer += count;
+		return data;
+	}
+}
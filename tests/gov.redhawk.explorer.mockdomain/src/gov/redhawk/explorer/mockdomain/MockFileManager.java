@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import gov.redhawk.explorer.wizard.StartupWizard;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.omg.CORBA.Any;
+
+import CF.DataType;
+import CF.ErrorNumberType;
+import CF.FileHelper;
+import CF.FileInformationType;
+import CF.FileManagerHelper;
+import CF.FileSystemHelper;
+import CF.InvalidFileName;
+import CF.InvalidFileNameHelper;
+import CF.PropertiesHelper;
+import CF.FileSystemPackage.FileInformationSequenceHelper;
+import CF.FileSystemPackage.FileType;
+
+/**
+ * The mock domain's file manager. It holds the startup catalog, at {@link StartupWizard#STARTUP_FILE_NAME}, and a
+ * minimal waveform profile for every waveform in the catalog.
+ */
+class MockFileManager extends MockServant {
+
+	private static final String MODIFIED_TIME_ID = "MODIFIED_TIME"; //$NON-NLS-1$
+
+	private final Map<String, byte[]> files = new ConcurrentHashMap<String, byte[]>();
+	private final AtomicLong catalogModified = new AtomicLong(System.currentTimeMillis() / 1000);
+	private final AtomicLong nextFile = new AtomicLong();
+
+	MockFileManager(final MockDomain domain) {
+		super(domain);
+	}
+
+	void addFile(final String path, final String contents) {
+		try {
+			this.files.put(path, contents.getBytes("UTF-8"));
+		} catch (final UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	String[] getInterfaces() {
+		return new String[] { FileManagerHelper.id(), FileSystemHelper.id() };
+	}
+
+	@Override
+	boolean dispatch(final Call call) {
+		final String operation = call.getOperation();
+		if ("list".equals(operation)) {
+			final Any pattern = call.in(call.stringType());
+			call.read();
+			final Any result = call.createAny();
+			FileInformationSequenceHelper.insert(result, list(call, pattern.extract_string()));
+			call.result(result);
+		} else if ("exists".equals(operation)) {
+			final Any path = call.in(call.stringType());
+			call.read();
+			call.resultBoolean(this.files.containsKey(path.extract_string()));
+		} else if ("open".equals(operation)) {
+			final Any pathArgument = call.in(call.stringType());
+			call.in(call.booleanType());
+			call.read();
+			final String path = pathArgument.extract_string();
+			final byte[] contents = this.files.get(path);
+			if (contents == null) {
+				final Any exception = call.createAny();
+				InvalidFileNameHelper.insert(exception, new InvalidFileName(ErrorNumberType.CF_ENOENT, "No such file: " + path));
+				call.exception(exception);
+				return true;
+			}
+			final String id = "file" + this.nextFile.incrementAndGet();
+			final MockFile file = new MockFile(getDomain(), id, path, contents);
+			final Any result = call.createAny();
+			FileHelper.insert(result, FileHelper.unchecked_narrow(getDomain().activate(id, file)));
+			call.result(result);
+		} else if ("query".equals(operation)) {
+			// Nothing to report; the properties asked for are returned unchanged
+			call.inout(PropertiesHelper.type());
+			call.read();
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private FileInformationType[] list(final Call call, final String path) {
+		final byte[] contents = this.files.get(path);
+		if (contents == null) {
+			return new FileInformationType[0];
+		}
+		long modified = this.catalogModified.get();
+		if (StartupWizard.STARTUP_FILE_NAME.equals(path) && getDomain().getConfig().isCatalogChanges()) {
+			modified = this.catalogModified.incrementAndGet();
+		}
+		final Any modifiedTime = call.createAny();
+		modifiedTime.insert_ulonglong(modified);
+		final DataType[] properties = new DataType[] { new DataType(MockFileManager.MODIFIED_TIME_ID, modifiedTime) };
+		final String name = path.substring(path.lastIndexOf('/') + 1);
+		return new FileInformationType[] { new FileInformationType(name, FileType.PLAIN, contents.length, properties) };
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.omg.CORBA.Any;
+import org.omg.CosNaming.Binding;
+import org.omg.CosNaming.BindingIteratorHelper;
+import org.omg.CosNaming.BindingListHelper;
+import org.omg.CosNaming.BindingType;
+import org.omg.CosNaming.NameComponent;
+import org.omg.CosNaming.NameHelper;
+import org.omg.CosNaming.NamingContextExtHelper;
+import org.omg.CosNaming.NamingContextHelper;
+import org.omg.CosNaming.NamingContextPackage.NotFound;
+import org.omg.CosNaming.NamingContextPackage.NotFoundHelper;
+import org.omg.CosNaming.NamingContextPackage.NotFoundReason;
+
+/**
+ * A read-only naming context. Names are matched on their IDs alone.
+ */
+class MockNamingContext extends MockServant {
+
+	private final Map<String, org.omg.CORBA.Object> objects = new ConcurrentHashMap<String, org.omg.CORBA.Object>();
+	private final Map<String, MockNamingContext> contexts = new ConcurrentHashMap<String, MockNamingContext>();
+
+	MockNamingContext(final MockDomain domain) {
+		super(domain);
+	}
+
+	void bind(final String id, final org.omg.CORBA.Object object) {
+		this.objects.put(id, object);
+	}
+
+	void bindContext(final String id, final MockNamingContext context, final org.omg.CORBA.Object object) {
+		this.contexts.put(id, context);
+		this.objects.put(id, object);
+	}
+
+	@Override
+	String[] getInterfaces() {
+		return new String[] { NamingContextExtHelper.id(), NamingContextHelper.id() };
+	}
+
+	@Override
+	boolean dispatch(final Call call) {
+		final String operation = call.getOperation();
+		if ("resolve_str".equals(operation)) {
+			final Any name = call.in(call.stringType());
+			call.read();
+			resolve(call, toName(name.extract_string()));
+		} else if ("resolve".equals(operation)) {
+			final Any name = call.in(NameHelper.type());
+			call.read();
+			resolve(call, NameHelper.extract(name));
+		} else if ("to_name".equals(operation)) {
+			final Any name = call.in(call.stringType());
+			call.read();
+			final Any result = call.createAny();
+			NameHelper.insert(result, toName(name.extract_string()));
+			call.result(result);
+		} else if ("list".equals(operation)) {
+			call.in(call.ulongType());
+			final Any bindings = call.out(BindingListHelper.type());
+			final Any iterator = call.out(BindingIteratorHelper.type());
+			call.read();
+			final List<Binding> list = new ArrayList<Binding>();
+			for (final String id : this.objects.keySet()) {
+				final BindingType type = this.contexts.containsKey(id) ? BindingType.ncontext : BindingType.nobject;
+				list.add(new Binding(new NameComponent[] { new NameComponent(id, "") }, type));
+			}
+			BindingListHelper.insert(bindings, list.toArray(new Binding[list.size()]));
+			BindingIteratorHelper.insert(iterator, null);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private static NameComponent[] toName(final String name) {
+		final String[] ids = name.split("/");
+		final NameComponent[] components = new NameComponent[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			components[i] = new NameComponent(ids[i], "");
+		}
+		return components;
+	}
+
+	private void resolve(final Call call, final NameComponent[] name) {
+		MockNamingContext context = this;
+		for (int i = 0; i < name.length; i++) {
+			final String id = name[i].id;
+			final org.omg.CORBA.Object object = context.objects.get(id);
+			final MockNamingContext next = context.contexts.get(id);
+			if (object == null || (next == null && i < name.length - 1)) {
+				final NameComponent[] rest = Arrays.asList(name).subList(i, name.length).toArray(new NameComponent[name.length - i]);
+				final Any exception = call.createAny();
+				NotFoundHelper.insert(exception, new NotFound((next == null && object != null) ? NotFoundReason.not_context : NotFoundReason.missing_node,
+					rest));
+				call.exception(exception);
+				return;
+			}
+			if (i == name.length - 1) {
+				final Any result = call.createAny();
+				result.insert_Object(object);
+				call.result(result);
+				return;
+			}
+			context = next;
+		}
+	}
+}
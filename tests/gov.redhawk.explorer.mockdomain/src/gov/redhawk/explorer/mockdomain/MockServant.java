@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.mockdomain;
+
+import org.omg.CORBA.ARG_IN;
+import org.omg.CORBA.ARG_INOUT;
+import org.omg.CORBA.ARG_OUT;
+import org.omg.CORBA.Any;
+import org.omg.CORBA.NO_IMPLEMENT;
+import org.omg.CORBA.NVList;
+import org.omg.CORBA.ORB;
+import org.omg.CORBA.ServerRequest;
+import org.omg.CORBA.TCKind;
+import org.omg.CORBA.TypeCode;
+import org.omg.PortableServer.DynamicImplementation;
+import org.omg.PortableServer.POA;
+
+/**
+ * Base class of the mock domain's objects. The objects are dynamic servants, so each one only implements the
+ * operations the wizard and the SCA model call; any other operation raises NO_IMPLEMENT. Every call is delayed,
+ * and may fail, as the {@link MockDomainConfig} says, before it is dispatched.
+ */
+abstract class MockServant extends DynamicImplementation {
+
+	/**
+	 * A call being dispatched: declares the operation's parameters, then carries its result or exception back.
+	 */
+	static final class Call {
+		private final ServerRequest request;
+		private final ORB orb;
+		private final NVList arguments;
+
+		Call(final ServerRequest request, final ORB orb) {
+			this.request = request;
+			this.orb = orb;
+			this.arguments = orb.create_list(0);
+		}
+
+		String getOperation() {
+			return this.request.operation();
+		}
+
+		ORB getOrb() {
+			return this.orb;
+		}
+
+		Any in(final TypeCode type) {
+			return add(type, ARG_IN.value);
+		}
+
+		TypeCode stringType() {
+			return this.orb.get_primitive_tc(TCKind.tk_string);
+		}
+
+		TypeCode ulongType() {
+			return this.orb.get_primitive_tc(TCKind.tk_ulong);
+		}
+
+		TypeCode booleanType() {
+			return this.orb.get_primitive_tc(TCKind.tk_boolean);
+		}
+
+		Any out(final TypeCode type) {
+			return add(type, ARG_OUT.value);
+		}
+
+		Any inout(final TypeCode type) {
+			return add(type, ARG_INOUT.value);
+		}
+
+		private Any add(final TypeCode type, final int mode) {
+			final Any value = this.orb.create_any();
+			value.type(type);
+			this.arguments.add_value(null, value, mode);
+			return value;
+		}
+
+		/**
+		 * Reads the parameters declared so far. Must be called exactly once, after every parameter has been declared
+		 * and before any parameter is read.
+		 */
+		void read() {
+			this.request.arguments(this.arguments);
+		}
+
+		Any createAny() {
+			return this.orb.create_any();
+		}
+
+		void result(final Any result) {
+			this.request.set_result(result);
+		}
+
+		void resultString(final String result) {
+			final Any any = createAny();
+			any.insert_string(result);
+			result(any);
+		}
+
+		void resultBoolean(final boolean result) {
+			final Any any = createAny();
+			any.insert_boolean(result);
+			result(any);
+		}
+
+		/**
+		 * @param exception an Any holding a user exception declared by the operation
+		 */
+		void exception(final Any exception) {
+			this.request.set_exception(exception);
+		}
+	}
+
+	private final MockDomain domain;
+
+	MockServant(final MockDomain domain) {
+		this.domain = domain;
+	}
+
+	MockDomain getDomain() {
+		return this.domain;
+	}
+
+	/**
+	 * @return the repository IDs of the interfaces this object implements, most derived first
+	 */
+	abstract String[] getInterfaces();
+
+	/**
+	 * Handles a call.
+	 *
+	 * @param call the call
+	 * @return false if the operation isn't implemented
+	 */
+	abstract boolean dispatch(Call call);
+
+	@Override
+	public String[] _all_interfaces(final POA poa, final byte[] objectId) {
+		return getInterfaces();
+	}
+
+	@Override
+	public void invoke(final ServerRequest request) {
+		this.domain.delay(request.operation());
+		if (!dispatch(new Call(request, this.domain.getOrb()))) {
+			throw new NO_IMPLEMENT("The mock domain doesn't implement " + request.operation());
+		}
+	}
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * This file is protected by Copyright.
+ * Please refer to the COPYRIGHT file distributed with this source distribution.
+ *
+ * This file is part of REDHAWK IDE.
+ *
+ * All rights reserved.  This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package gov.redhawk.explorer.wizard;
+
+import gov.redhawk.explorer.Activator;
+import gov.redhawk.explorer.internal.CorbaTimeouts;
+import gov.redhawk.explorer.internal.Deadline;
+import gov.redhawk.explorer.internal.ProfileInfo;
+import gov.redhawk.explorer.internal.ProfileInfoCache;
+import gov.redhawk.explorer.mockdomain.MockDomain;
+import gov.redhawk.explorer.mockdomain.MockDomainConfig;
+import gov.redhawk.model.sca.DomainConnectionException;
+import gov.redhawk.model.sca.ScaDomainManager;
+import gov.redhawk.model.sca.ScaDomainManagerRegistry;
+import gov.redhawk.model.sca.ScaWaveform;
+import gov.redhawk.model.sca.commands.ScaModelCommand;
+import gov.redhawk.sca.ScaPlugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.omg.CORBA.SystemException;
+
+import CF.FileSystemOperations;
+import CF.LifeCyclePackage.ReleaseError;
+
+/**
+ * Drives the startup wizard's work against a {@link MockDomain}, end to end and without the UI: connecting to the
+ * domain, loading its catalog, attaching to the waveforms already running from the catalog, and launching one.
+ * Each iteration uses a fresh domain entry, so nothing carries over from the last one except the catalog cache. The
+ * first iteration also checks that a waveform profile is read in full, DTD and all.
+ * <p/>
+ * The domain is configured through {@link MockDomainConfig}'s system properties; the run itself through
+ * {@link #ITERATIONS_PROPERTY}, {@link #WARMUP_PROPERTY}, {@link #ATTACH_TIMEOUT_PROPERTY} and
+ * {@link #OUTPUT_PROPERTY}. The 50th and 99th percentile of each phase are printed and written as JSON:
+ *
+ * <pre>
+ * {
+ *   "config": { "latency": 50, "jitter": 20, "failureRate": 0.0, "applications": 10, "catalogSize": 1000, ... },
+ *   "phases": [ { "name": "connect", "samples": 20, "failures": 0, "min": 101.2, "p50": 155.0, "p99": 201.7,
+ *     "max": 201.7, "mean": 151.9 }, ... ]
+ * }
+ * </pre>
+ *
+ * Times are in milliseconds.
+ */
+public class WizardMacroBenchmark implements IApplication {
+
+	/**
+	 * System property with the number of measured iterations; defaults to 20.
+	 */
+	public static final String ITERATIONS_PROPERTY = "gov.redhawk.explorer.macrobenchmark.iterations";
+
+	/**
+	 * System property with the number of iterations to run, and discard, first; defaults to 3.
+	 */
+	public static final String WARMUP_PROPERTY = "gov.redhawk.explorer.macrobenchmark.warmup";
+
+	/**
+	 * System property with how long to wait for the running waveforms to be found, in milliseconds; defaults to 10000.
+	 */
+	public static final String ATTACH_TIMEOUT_PROPERTY = "gov.redhawk.explorer.macrobenchmark.attachTimeout";
+
+	/**
+	 * System property with the file to write the results to; defaults to
+	 * <code>wizard-macrobenchmark-&lt;timestamp&gt;.json</code> in the working directory.
+	 */
+	public static final String OUTPUT_PROPERTY = "gov.redhawk.explorer.macrobenchmark.output";
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private static final String CONNECT = "connect";
+	private static final String CATALOG = "catalog";
+	private static final String ATTACH = "attach";
+	private static final String LAUNCH = "launch";
+	private static final String TOTAL = "total";
+
+	private final Map<String, List<Double>> samples = new LinkedHashMap<String, List<Double>>();
+	private final Map<String, Integer> failures = new LinkedHashMap<String, Integer>();
+	private volatile boolean stopped;
+
+	@Override
+	public Object start(final IApplicationContext context) throws Exception {
+		final int iterations = Integer.getInteger(WizardMacroBenchmark.ITERATIONS_PROPERTY, 20);
+		final int warmup = Integer.getInteger(WizardMacroBenchmark.WARMUP_PROPERTY, 3);
+		final long attachTimeout = Long.getLong(WizardMacroBenchmark.ATTACH_TIMEOUT_PROPERTY, 10000);
+		String output = System.getProperty(WizardMacroBenchmark.OUTPUT_PROPERTY);
+		if (output == null) {
+			output = "wizard-macrobenchmark-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json";
+		}
+		for (final String phase : new String[] { WizardMacroBenchmark.CONNECT, WizardMacroBenchmark.CATALOG, WizardMacroBenchmark.ATTACH,
+			WizardMacroBenchmark.LAUNCH, WizardMacroBenchmark.TOTAL }) {
+			this.samples.put(phase, new ArrayList<Double>());
+			this.failures.put(phase, 0);
+		}
+
+		final MockDomainConfig config = new MockDomainConfig();
+		final MockDomain domain = new MockDomain(config);
+		domain.start();
+		context.applicationRunning();
+		try {
+			for (int i = 0; i < warmup + iterations && !this.stopped; i++) {
+				runIteration(domain, i, i >= warmup, attachTimeout);
+			}
+		} finally {
+			domain.stop();
+		}
+
+		final File file = new File(output);
+		write(file, config, iterations, warmup);
+		printSummary(file);
+		return IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		this.stopped = true;
+	}
+
+	private void runIteration(final MockDomain mockDomain, final int iteration, final boolean measured, final long attachTimeout) {
+		final IProgressMonitor monitor = new NullProgressMonitor();
+		final ScaDomainManagerRegistry registry = ScaPlugin.getDefault().getDomainManagerRegistry(null);
+		final String domainName = mockDomain.getConfig().getDomainName();
+		final String localName = domainName + " (benchmark " + iteration + ")";
+		final Map<String, String> connectionProperties = Collections.singletonMap(ScaDomainManager.NAMING_SERVICE_PROP, mockDomain.getNamingServiceRef());
+		ScaModelCommand.execute(registry, new ScaModelCommand() {
+			@Override
+			public void execute() {
+				registry.createDomain(localName, domainName, false, connectionProperties);
+			}
+		});
+		final ScaDomainManager domain = registry.findDomain(localName);
+
+		final long start = System.nanoTime();
+		String phase = WizardMacroBenchmark.CONNECT;
+		try {
+			long phaseStart = System.nanoTime();
+			StagedConnect.connect(domain, monitor);
+			record(measured, phase, phaseStart);
+
+			phase = WizardMacroBenchmark.CATALOG;
+			phaseStart = System.nanoTime();
+			final CatalogLoadJob catalogJob = new CatalogLoadJob(domain, null);
+			catalogJob.schedule();
+			catalogJob.join();
+			if (catalogJob.getError() != null) {
+				throw new CoreException(catalogJob.getError());
+			}
+			if (catalogJob.getCatalog() == null || catalogJob.getCatalog().getAllMappings().isEmpty()) {
+				throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "The catalog is empty"));
+			}
+			final List<WaveMapping> mappings = catalogJob.getCatalog().getAllMappings();
+			record(measured, phase, phaseStart);
+			if (iteration == 0) {
+				checkProfile(domain, mappings.get(0), monitor);
+			}
+
+			// Without waveforms running, the search would only measure its timeout
+			if (mockDomain.getConfig().getApplications() > 0) {
+				phase = WizardMacroBenchmark.ATTACH;
+				phaseStart = System.nanoTime();
+				if (new RunningWaveformFinder(domain, mappings).find(attachTimeout, monitor).isEmpty()) {
+					throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "No running waveforms found"));
+				}
+				record(measured, phase, phaseStart);
+			}
+
+			phase = WizardMacroBenchmark.LAUNCH;
+			phaseStart = System.nanoTime();
+			final WaveformLaunch launch = new WaveformLaunch(domain, mappings.get(iteration % mappings.size()), true);
+			final ScaWaveform waveform = launch.launch(monitor);
+			record(measured, phase, phaseStart);
+
+			record(measured, WizardMacroBenchmark.TOTAL, start);
+			release(waveform);
+		} catch (final DomainConnectionException e) {
+			fail(measured, phase, e);
+		} catch (final CoreException e) {
+			fail(measured, phase, e);
+		} catch (final InterruptedException e) {
+			fail(measured, phase, e);
+		} catch (final SystemException e) {
+			fail(measured, phase, e);
+		} finally {
+			domain.disconnect();
+			ScaModelCommand.execute(registry, new ScaModelCommand() {
+				@Override
+				public void execute() {
+					registry.getDomains().remove(domain);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Checks that a waveform profile, which names a DTD like a real SAD does, is read in full.
+	 */
+	private static void checkProfile(final ScaDomainManager domain, final WaveMapping mapping, final IProgressMonitor monitor) throws CoreException {
+		final FileSystemOperations fileSystem = CorbaTimeouts.getFileManager(domain, Deadline.forFileRead());
+		ProfileInfo info = null;
+		if (fileSystem != null) {
+			// A cache of its own, so that the profile is read from the domain
+			info = new ProfileInfoCache().check(domain.getName(), fileSystem, mapping.getWaveformPath(), monitor);
+		}
+		if (info == null || !info.isLaunchable() || info.getComponentCount() == 0 || info.getDescription() == null) {
+			final String problem = (info == null || info.getProblem() == null) ? "" : ": " + info.getProblem();
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Unable to read the profile of " + mapping.getWaveformName() + problem));
+		}
+	}
+
+	private void record(final boolean measured, final String phase, final long phaseStart) {
+		if (measured) {
+			this.samples.get(phase).add((System.nanoTime() - phaseStart) / WizardMacroBenchmark.NANOS_PER_MILLI);
+		}
+	}
+
+	private void fail(final boolean measured, final String phase, final Exception e) {
+		if (measured) {
+			this.failures.put(phase, this.failures.get(phase) + 1);
+			this.failures.put(WizardMacroBenchmark.TOTAL, this.failures.get(WizardMacroBenchmark.TOTAL) + 1);
+		}
+		final String reason = (e.getMessage() != null) ? e.getMessage() : e.getClass().getName();
+		System.err.println(phase + " failed: " + reason); // SUPPRESS CHECKSTYLE Console
+	}
+
+	private static void release(final ScaWaveform waveform) {
+		try {
+			waveform.releaseObject();
+		} catch (final ReleaseError e) {
+			// PASS
+		} catch (final SystemException e) {
+			// PASS
+		}
+	}
+
+	/**
+	 * @param sorted samples in ascending order
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the nearest-rank percentile of the samples
+	 */
+	private static double percentile(final List<Double> sorted, final double percentile) {
+		final int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+		return sorted.get(Math.max(0, rank - 1));
+	}
+
+	private static double mean(final List<Double> values) {
+		double sum = 0;
+		for (final double value : values) {
+			sum += value;
+		}
+		return sum / values.size();
+	}
+
+	private void write(final File file, final MockDomainConfig config, final int iterations, final int warmup) throws IOException {
+		final Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			out.write("{\n");
+			out.write("  \"config\": { \"latency\": " + config.getLatency() + ", \"jitter\": " + config.getJitter() + ", \"failureRate\": "
+				+ config.getFailureRate() + ", \"applications\": " + config.getApplications() + ", \"catalogSize\": " + config.getCatalogSize()
+				+ ", \"catalogTypes\": " + config.getCatalogTypes() + ", \"catalogChanges\": " + config.isCatalogChanges() + ", \"iterations\": "
+				+ iterations + ", \"warmup\": " + warmup + " },\n");
+			out.write("  \"phases\": [");
+			boolean first = true;
+			for (final Map.Entry<String, List<Double>> entry : this.samples.entrySet()) {
+				final List<Double> sorted = new ArrayList<Double>(entry.getValue());
+				if (sorted.isEmpty() && this.failures.get(entry.getKey()) == 0) {
+					continue;
+				}
+				Collections.sort(sorted);
+				out.write(first ? "\n" : ",\n");
+				first = false;
+				out.write("    { \"name\": \"" + entry.getKey() + "\", \"samples\": " + sorted.size() + ", \"failures\": " + this.failures.get(entry.getKey()));
+				if (!sorted.isEmpty()) {
+					out.write(", \"min\": " + format(sorted.get(0)) + ", \"p50\": " + format(percentile(sorted, 50)) + ", \"p99\": "
+						+ format(percentile(sorted, 99)) + ", \"max\": " + format(sorted.get(sorted.size() - 1)) + ", \"mean\": " + format(mean(sorted)));
+				}
+				out.write(" }");
+			}
+			out.write(first ? "]" : "\n  ]");
+			out.write("\n}\n");
+		} finally {
+			out.close();
+		}
+	}
+
+	private void printSummary(final File file) {
+		final StringBuilder summary = new StringBuilder();
+		summary.append(String.format(Locale.ENGLISH, "%-8s %7s %8s %10s %10s %10s%n", "phase", "samples", "failures", "p50 ms", "p99 ms", "max ms"));
+		for (final Map.Entry<String, List<Double>> entry : this.samples.entrySet()) {
+			final List<Double> sorted = new ArrayList<Double>(entry.getValue());
+			if (sorted.isEmpty()) {
+				continue;
+			}
+			Collections.sort(sorted);
+			summary.append(String.format(Locale.ENGLISH, "%-8s %7d %8d %10.1f %10.1f %10.1f%n", entry.getKey(), sorted.size(), this.failures.get(entry.getKey()),
+				percentile(sorted, 50), percentile(sorted, 99), sorted.get(sorted.size() - 1)));
+		}
+		summary.append("Results written to ").append(file.getAbsolutePath()).append('\n');
+		System.out.print(summary); // SUPPRESS CHECKSTYLE Console
+	}
+
+	private static String format(final double millis) {
+		return String.format(Locale.ENGLISH, "%.1f", millis);
+	}
+}